@@ -0,0 +1,54 @@
+package com.game.benchmark;
+
+import com.game.config.AppConfig;
+import com.game.config.WebConfig;
+import com.game.index.PlayerIndexes;
+import com.game.tools.DatasetGenerator;
+import com.game.tools.PlayerGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import javax.sql.DataSource;
+
+/**
+ * The application with the embedded dev database, as the benchmarks see it.
+ */
+final class BenchmarkApplication implements AutoCloseable {
+    private static final int INSERT_BATCH = 10000;
+
+    private final AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+
+    BenchmarkApplication() {
+        context.setServletContext(new MockServletContext());
+        context.getEnvironment().setActiveProfiles("dev");
+        context.register(AppConfig.class, WebConfig.class);
+        context.refresh();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    MockMvc mockMvc() {
+        return MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    /**
+     * Replaces the seeded players with a generated dataset and rebuilds the in-memory indexes.
+     */
+    void seed(int players, long seed) throws Exception {
+        DataSource dataSource = bean(DataSource.class);
+        new JdbcTemplate(dataSource).update("DELETE FROM player");
+        new DatasetGenerator(new PlayerGenerator(seed, 0.2), Runtime.getRuntime().availableProcessors(), INSERT_BATCH)
+                .insert(dataSource, players, 1);
+        bean(PlayerIndexes.class).reload();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
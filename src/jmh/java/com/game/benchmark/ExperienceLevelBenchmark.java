@@ -0,0 +1,85 @@
+package com.game.benchmark;
+
+import com.game.dto.PlayerDto;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.service.PlayerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Level and experience until the next level, alone and as part of mapping a create request to a player.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ExperienceLevelBenchmark {
+    private static final int SAMPLES = 1024;
+
+    private final int[] experiences = new int[SAMPLES];
+    private final PlayerDto[] playerDtos = new PlayerDto[SAMPLES];
+    private BenchmarkApplication application;
+    private PlayerService playerService;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            experiences[i] = random.nextInt(10_000_001);
+            PlayerDto playerDto = new PlayerDto();
+            playerDto.setName("Игрок" + i);
+            playerDto.setTitle("Бенчмарк " + i);
+            playerDto.setRace(Race.HUMAN);
+            playerDto.setProfession(Profession.WARRIOR);
+            playerDto.setBirthday(946684800000L + random.nextInt(Integer.MAX_VALUE) * 100L);
+            playerDto.setBanned(false);
+            playerDto.setExperience(experiences[i]);
+            playerDtos[i] = playerDto;
+        }
+        application = new BenchmarkApplication();
+        playerService = application.bean(PlayerService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public int level() {
+        return PlayerService.levelForExperience(experiences[next()]);
+    }
+
+    @Benchmark
+    public int untilNextLevel() {
+        int experience = experiences[next()];
+        return PlayerService.experienceForLevel(PlayerService.levelForExperience(experience) + 1) - experience;
+    }
+
+    @Benchmark
+    public Player newPlayer() {
+        return playerService.newPlayer(playerDtos[next()]);
+    }
+
+    private int next() {
+        next = (next + 1) & (SAMPLES - 1);
+        return next;
+    }
+}
@@ -0,0 +1,97 @@
+package com.game.benchmark;
+
+import com.game.controller.PlayerOrder;
+import com.game.dto.FilterDto;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.service.PlayerQueryPlan;
+import com.game.service.PlayerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request parameters to a filter, the filter to a query plan and the plan to a JPA predicate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FilterBenchmark {
+
+    /**
+     * {@code none}: no conditions, {@code enums}: race, profession and banned, {@code all}: every condition.
+     */
+    @Param({"none", "enums", "all"})
+    public String filter;
+
+    private BenchmarkApplication application;
+    private PlayerService playerService;
+    private EntityManager entityManager;
+    private CriteriaBuilder criteriaBuilder;
+    private FilterDto filterDto;
+    private PlayerQueryPlan plan;
+
+    @Setup
+    public void setup() {
+        application = new BenchmarkApplication();
+        playerService = application.bean(PlayerService.class);
+        entityManager = application.bean(EntityManagerFactory.class).createEntityManager();
+        criteriaBuilder = entityManager.getCriteriaBuilder();
+        filterDto = mapFilter();
+        plan = PlayerQueryPlan.from(filterDto);
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        application.close();
+    }
+
+    @Benchmark
+    public FilterDto mapFilter() {
+        switch (filter) {
+            case "enums":
+                return playerService.mapRequestParamToFilterDto(null, null, Race.ELF, Profession.WARRIOR,
+                        0L, 0L, false, 0, 0, 0, 0, PlayerOrder.ID, 3, 0);
+            case "all":
+                return playerService.mapRequestParamToFilterDto("ра", "ий", Race.ELF, Profession.WARRIOR,
+                        946684800000L, 1262304000000L, false, 1000, 900000, 4, 40, PlayerOrder.EXPERIENCE, 3, 0);
+            default:
+                return playerService.mapRequestParamToFilterDto(null, null, null, null,
+                        0L, 0L, null, 0, 0, 0, 0, PlayerOrder.ID, 3, 0);
+        }
+    }
+
+    @Benchmark
+    public PlayerQueryPlan buildPlan() {
+        return PlayerQueryPlan.from(filterDto);
+    }
+
+    @Benchmark
+    public Predicate buildPredicate() {
+        CriteriaQuery<Player> query = criteriaBuilder.createQuery(Player.class);
+        Root<Player> root = query.from(Player.class);
+        return plan.toPredicate(root, query, criteriaBuilder);
+    }
+}
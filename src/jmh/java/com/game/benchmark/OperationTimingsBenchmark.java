@@ -0,0 +1,34 @@
+package com.game.benchmark;
+
+import com.game.metrics.OperationTimings;
+import com.game.metrics.TimedLayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one timing, which a request pays once per handler, service method, repository call and specification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class OperationTimingsBenchmark {
+    private final OperationTimings timings = new OperationTimings(true, false);
+
+    @Benchmark
+    public void record() {
+        long started = System.nanoTime();
+        timings.record(TimedLayer.SERVICE, "PlayerService.findById", System.nanoTime() - started);
+    }
+}
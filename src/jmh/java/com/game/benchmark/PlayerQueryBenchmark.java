@@ -0,0 +1,85 @@
+package com.game.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * {@code GET /rest/players} and {@code GET /rest/players/count} through the dispatcher servlet against H2.
+ * <p>
+ * The 10M rows dataset needs a heap of about 16GB; {@code -Djmh.args="-p rows=10000 PlayerQuery"} runs the small one only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx16g"})
+public class PlayerQueryBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    /**
+     * {@code none}: first page by id, {@code enums}: race and profession, {@code range}: experience range ordered by
+     * experience, {@code name}: name substring.
+     */
+    @Param({"none", "enums", "range", "name"})
+    public String filter;
+
+    private BenchmarkApplication application;
+    private MockMvc mockMvc;
+
+    @Setup
+    public void setup() throws Exception {
+        application = new BenchmarkApplication();
+        application.seed(rows, 42);
+        mockMvc = application.mockMvc();
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public byte[] list() throws Exception {
+        return perform(get("/rest/players").param("pageSize", "20"));
+    }
+
+    @Benchmark
+    public byte[] count() throws Exception {
+        return perform(get("/rest/players/count"));
+    }
+
+    private byte[] perform(MockHttpServletRequestBuilder request) throws Exception {
+        switch (filter) {
+            case "enums":
+                request.param("race", "HUMAN").param("profession", "WARRIOR");
+                break;
+            case "range":
+                request.param("minExperience", "100000").param("maxExperience", "200000").param("order", "EXPERIENCE");
+                break;
+            case "name":
+                request.param("name", "к12");
+                break;
+            default:
+        }
+        return mockMvc.perform(request).andReturn().getResponse().getContentAsByteArray();
+    }
+}
@@ -0,0 +1,118 @@
+package com.game.benchmark;
+
+import com.game.dto.FilterDto;
+import com.game.entity.Player;
+import com.game.repository.PlayerRepository;
+import com.game.service.PlayerQueryPlan;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.QueryHints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A page loaded as entities, as read-only entities and as the {@link com.game.dto.PlayerView} projection,
+ * with the Hibernate caches cold.
+ * <p>
+ * Bytes allocated per page are {@code gc.alloc.rate.norm} of {@code -Djmh.args="-prof gc ProjectionAllocation"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionAllocationBenchmark {
+    private static final int PLAYERS = 2000;
+
+    @Param({"3", "100", "1000"})
+    public int pageSize;
+
+    private BenchmarkApplication application;
+    private PlayerRepository repository;
+    private EntityManager entityManager;
+    private SessionFactory sessionFactory;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private PlayerQueryPlan plan;
+    private Pageable pageable;
+
+    @Setup
+    public void setup() throws Exception {
+        application = new BenchmarkApplication();
+        application.seed(PLAYERS, 42);
+        repository = application.bean(PlayerRepository.class);
+        EntityManagerFactory entityManagerFactory = application.bean(EntityManagerFactory.class);
+        // joins the entity manager of the running transaction, as the repository does
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        readWrite = new TransactionTemplate(application.bean(PlatformTransactionManager.class));
+        readOnly = new TransactionTemplate(application.bean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        plan = PlayerQueryPlan.from(new FilterDto());
+        pageable = PageRequest.of(0, pageSize, Sort.by("id"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public List<?> entities() {
+        sessionFactory.getCache().evictAllRegions();
+        return readWrite.execute(status -> findPageContent());
+    }
+
+    @Benchmark
+    public List<?> readOnlyEntities() {
+        sessionFactory.getCache().evictAllRegions();
+        return readOnly.execute(status -> findPageContent());
+    }
+
+    @Benchmark
+    public List<?> views() {
+        sessionFactory.getCache().evictAllRegions();
+        return readOnly.execute(status -> repository.findPageViews(plan, pageable));
+    }
+
+    /**
+     * @return players of the page loaded as entities, by the criteria query {@code findPageViews} projects
+     */
+    private List<Player> findPageContent() {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Player> query = criteriaBuilder.createQuery(Player.class);
+        Root<Player> root = query.from(Player.class);
+        query.select(root)
+                .where(plan.toPredicate(root, query, criteriaBuilder))
+                .orderBy(criteriaBuilder.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(QueryHints.CACHEABLE, true)
+                .setFirstResult(Math.toIntExact(pageable.getOffset()))
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+}
@@ -0,0 +1,89 @@
+package com.game.benchmark;
+
+import com.game.config.WebConfig;
+import com.game.dto.PlayerView;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.metrics.OperationTimings;
+import com.game.service.PlayerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Players pages written to the response by the Jackson converter of {@link WebConfig}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SerializationBenchmark {
+
+    @Param({"3", "100", "1000"})
+    public int pageSize;
+
+    private MappingJackson2HttpMessageConverter converter;
+    private final List<Player> players = new ArrayList<>();
+    private final List<PlayerView> views = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        // the converters do not use the slow request log
+        new WebConfig(new OperationTimings(false, false), null).configureMessageConverters(converters);
+        converter = (MappingJackson2HttpMessageConverter) converters.get(0);
+
+        Random random = new Random(42);
+        for (int i = 0; i < pageSize; i++) {
+            Player player = new Player();
+            player.setId((long) i + 1);
+            player.setName("Игрок" + i);
+            player.setTitle("Бенчмарк " + i);
+            player.setRace(Race.values()[random.nextInt(Race.values().length)]);
+            player.setProfession(Profession.values()[random.nextInt(Profession.values().length)]);
+            player.setBirthday(new Date(946684800000L + random.nextInt(Integer.MAX_VALUE) * 100L));
+            player.setBanned(random.nextBoolean());
+            PlayerService.applyExperience(player, random.nextInt(10_000_001));
+            players.add(player);
+            views.add(new PlayerView(player.getId(), player.getName(), player.getTitle(), player.getRace(),
+                    player.getProfession(), player.getBirthday(), player.getBanned(), player.getExperience(),
+                    player.getLevel(), player.getUntilNextLevel()));
+        }
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage players() throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(players, MediaType.APPLICATION_JSON, message);
+        return message;
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage views() throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(views, MediaType.APPLICATION_JSON, message);
+        return message;
+    }
+}
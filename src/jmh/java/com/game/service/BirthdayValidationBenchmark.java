@@ -0,0 +1,60 @@
+package com.game.service;
+
+import com.game.dto.PlayerDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PlayerValidationService#isBirthdayValid} over a mix of valid, too early and negative birthdays.
+ * Lives in the service package for the package-private check.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BirthdayValidationBenchmark {
+    private static final int SAMPLES = 1024;
+
+    private final PlayerDto[] playerDtos = new PlayerDto[SAMPLES];
+    // the birthday check touches neither the repository nor the id index
+    private final PlayerValidationService playerValidationService = new PlayerValidationService(null, null);
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            PlayerDto playerDto = new PlayerDto();
+            switch (i % 4) {
+                case 0:
+                    playerDto.setBirthday(-1L - random.nextInt(Integer.MAX_VALUE));
+                    break;
+                case 1:
+                    playerDto.setBirthday((long) random.nextInt(Integer.MAX_VALUE) * 400);
+                    break;
+                default:
+                    playerDto.setBirthday(946684800000L + random.nextInt(Integer.MAX_VALUE) * 100L);
+            }
+            playerDtos[i] = playerDto;
+        }
+    }
+
+    @Benchmark
+    public boolean isBirthdayValid() {
+        next = (next + 1) & (SAMPLES - 1);
+        return playerValidationService.isBirthdayValid(playerDtos[next]);
+    }
+}
@@ -1,67 +1,189 @@
 package com.game.config;
 
+import com.game.entity.Player;
+import com.game.metrics.CapturingDataSource;
+import com.game.metrics.PoolMetrics;
+import com.game.migration.MigrationRunner;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.FilterType;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.env.Environment;
 import org.springframework.dao.annotation.PersistenceExceptionTranslationPostProcessor;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.JpaVendorAdapter;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.stereotype.Controller;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import javax.cache.CacheManager;
+import javax.cache.Caching;
 import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
+import java.net.URI;
+import java.util.OptionalLong;
 import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import static org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType.H2;
 
 @Configuration
 @EnableTransactionManagement
-@ComponentScan("com.game")
+@EnableScheduling
+@ComponentScan(basePackages = "com.game", excludeFilters = {
+        @ComponentScan.Filter(type = FilterType.ANNOTATION, value = Controller.class),
+        @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, value = WebConfig.class)
+})
 @EnableJpaRepositories(basePackages = "com.game.repository")
+@PropertySource("classpath:application.properties")
 public class AppConfig {
+    private final Environment environment;
+
+    @Autowired
+    public AppConfig(Environment environment) {
+        this.environment = environment;
+    }
 
     @Bean
-    public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
+    @DependsOn("migrationRunner")
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource, CacheManager cacheManager) {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
-        em.setDataSource(dataSource());
+        em.setDataSource(dataSource);
         em.setPackagesToScan("com.game.entity");
+        if (isTableIdGenerator()) {
+            syncPlayerIdSequence(dataSource);
+            em.setMappingResources("orm/player-table-id.xml");
+        }
 
         JpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
         em.setJpaVendorAdapter(vendorAdapter);
-        em.setJpaProperties(additionalProperties());
+        em.setJpaProperties(additionalProperties(cacheManager));
 
         return em;
     }
 
+    private boolean isTableIdGenerator() {
+        return "table".equals(environment.getRequiredProperty("player.id.generator"));
+    }
+
+    /**
+     * Moves the table id generator past the ids inserted by AUTO_INCREMENT while it was off.
+     */
+    private static void syncPlayerIdSequence(DataSource dataSource) {
+        new JdbcTemplate(dataSource).update("UPDATE player_id_sequence"
+                + " SET next_val = (SELECT COALESCE(MAX(id), 0) + 1 FROM player)"
+                + " WHERE name = 'player' AND next_val <= (SELECT COALESCE(MAX(id), 0) FROM player)");
+    }
+
+    /**
+     * In-process JCache regions for the Hibernate second-level and query caches.
+     * Each context gets its own manager, so its regions and statistics are not shared.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("rpg-" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(Player.class.getName(), cacheConfig(
+                environment.getRequiredProperty("cache.player.maxSize", Long.class),
+                environment.getRequiredProperty("cache.player.ttlSeconds", Long.class)));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, cacheConfig(
+                environment.getRequiredProperty("cache.query.maxSize", Long.class),
+                environment.getRequiredProperty("cache.query.ttlSeconds", Long.class)));
+        // timestamps decide whether a cached query is stale, so they must never be evicted
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStatisticsEnabled(true);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+        return cacheManager;
+    }
+
+    private static CaffeineConfiguration<Object, Object> cacheConfig(long maxSize, long ttlSeconds) {
+        CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+        config.setMaximumSize(OptionalLong.of(maxSize));
+        config.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        config.setStatisticsEnabled(true);
+        return config;
+    }
+
+    @Bean
+    public PoolMetrics poolMetrics() {
+        return new PoolMetrics();
+    }
+
     @Profile("prod")
     @Bean
-    public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        dataSource.setUrl("jdbc:mysql://localhost:3306/rpg?serverTimezone=UTC&characterEncoding=UTF-8");
-        dataSource.setUsername("root");
-        dataSource.setPassword("root");
-        return dataSource;
+    public DataSource dataSource(PoolMetrics poolMetrics) {
+        HikariConfig config = poolConfig("rpg-pool", poolMetrics);
+        config.setDriverClassName("com.mysql.cj.jdbc.Driver");
+        config.setJdbcUrl("jdbc:mysql://localhost:3306/rpg?serverTimezone=UTC&characterEncoding=UTF-8&useCursorFetch=true&rewriteBatchedStatements=true");
+        config.setUsername("root");
+        config.setPassword("root");
+
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("useServerPrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", environment.getProperty("db.pool.statementCacheSize"));
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", environment.getProperty("db.pool.statementCacheSqlLimit"));
+        return capturing(new HikariDataSource(config));
     }
 
     @Profile("dev")
     @Bean(name = "dataSource")
-    public DataSource dataSourceForTests() {
-
-        return new EmbeddedDatabaseBuilder()
+    public DataSource dataSourceForTests(PoolMetrics poolMetrics) {
+        DataSource embeddedDatabase = new EmbeddedDatabaseBuilder()
                 .generateUniqueName(true)
                 .setType(H2)
                 .setScriptEncoding("UTF-8")
                 .ignoreFailedDrops(true)
                 .addScript("test.sql")
                 .build();
+
+        HikariConfig config = poolConfig("rpg-dev-pool", poolMetrics);
+        config.setDataSource(embeddedDatabase);
+        return capturing(new HikariDataSource(config));
+    }
+
+    /**
+     * Wraps the pool to record the statements of slow requests while the slow request log is on.
+     */
+    private DataSource capturing(HikariDataSource dataSource) {
+        if (environment.getRequiredProperty("slowlog.enabled", Boolean.class)) {
+            return new CapturingDataSource(dataSource);
+        }
+        return dataSource;
+    }
+
+    private HikariConfig poolConfig(String poolName, PoolMetrics poolMetrics) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setMaximumPoolSize(environment.getRequiredProperty("db.pool.maximumPoolSize", Integer.class));
+        config.setMinimumIdle(environment.getRequiredProperty("db.pool.minimumIdle", Integer.class));
+        config.setConnectionTimeout(environment.getRequiredProperty("db.pool.connectionTimeoutMs", Long.class));
+        config.setValidationTimeout(environment.getRequiredProperty("db.pool.validationTimeoutMs", Long.class));
+        config.setIdleTimeout(environment.getRequiredProperty("db.pool.idleTimeoutMs", Long.class));
+        config.setMaxLifetime(environment.getRequiredProperty("db.pool.maxLifetimeMs", Long.class));
+        config.setLeakDetectionThreshold(environment.getRequiredProperty("db.pool.leakDetectionThresholdMs", Long.class));
+        config.setMetricsTrackerFactory(poolMetrics);
+        return config;
+    }
+
+    @Bean(initMethod = "migrate")
+    public MigrationRunner migrationRunner(DataSource dataSource) {
+        return new MigrationRunner(dataSource);
     }
 
     @Bean
@@ -77,9 +199,23 @@ public class AppConfig {
         return new PersistenceExceptionTranslationPostProcessor();
     }
 
-    private Properties additionalProperties() {
+    private Properties additionalProperties(CacheManager cacheManager) {
         Properties properties = new Properties();
         properties.setProperty("hibernate.dialect", "org.hibernate.dialect.MySQL5Dialect");
+        properties.setProperty("hibernate.cache.use_second_level_cache", "true");
+        properties.setProperty("hibernate.cache.use_query_cache", "true");
+        properties.setProperty("hibernate.cache.region.factory_class", "jcache");
+        properties.setProperty("hibernate.javax.cache.missing_cache_strategy", "fail");
+        properties.put("hibernate.javax.cache.cache_manager", cacheManager);
+        properties.setProperty("hibernate.jdbc.batch_size", environment.getRequiredProperty("db.batchSize"));
+        properties.setProperty("hibernate.order_inserts", "true");
+        properties.setProperty("hibernate.order_updates", "true");
+        // a block moves next_val from n to n + allocation size and hands out the ids after n, so next_val is
+        // the last id reserved, as the migration, the startup sync and the importer assume
+        properties.setProperty("hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+        properties.setProperty("hibernate.generate_statistics", environment.getRequiredProperty("metrics.hibernateStatistics"));
+        // statistics are exported as metrics, not logged per session
+        properties.setProperty("hibernate.session.events.log", "false");
 
         return properties;
     }
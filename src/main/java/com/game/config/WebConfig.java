@@ -2,26 +2,45 @@ package com.game.config;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.game.metrics.OperationTimings;
+import com.game.metrics.SlowRequestInterceptor;
+import com.game.metrics.SlowRequestLog;
+import com.game.metrics.TimedLayer;
+import com.game.metrics.TimingInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.servlet.ViewResolver;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.view.InternalResourceViewResolver;
 import org.springframework.web.servlet.view.JstlView;
 
+import java.io.IOException;
+import java.lang.reflect.Type;
 import java.util.List;
 
 @Configuration
 @EnableWebMvc
-@ComponentScan("com.game")
+@ComponentScan("com.game.controller")
 public class WebConfig implements WebMvcConfigurer {
+    private final OperationTimings timings;
+    private final SlowRequestLog slowRequestLog;
 
+    @Autowired
+    public WebConfig(OperationTimings timings, SlowRequestLog slowRequestLog) {
+        this.timings = timings;
+        this.slowRequestLog = slowRequestLog;
+    }
 
     @Bean
     public ViewResolver internalResourceViewResolver() {
@@ -42,11 +61,39 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/resources/**").addResourceLocations("/resources/");
     }
 
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // registered first, so its capture encloses the handler timing
+        registry.addInterceptor(new SlowRequestInterceptor(slowRequestLog));
+        registry.addInterceptor(new TimingInterceptor(timings));
+    }
+
     @Override
     public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
-        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
+        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter() {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                long started = System.nanoTime();
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } finally {
+                    if (timings.isEnabled()) {
+                        timings.record(TimedLayer.SERIALIZATION, operation(object), System.nanoTime() - started);
+                    }
+                }
+            }
+        };
         converter.getObjectMapper().setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
         converter.getObjectMapper().setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
         converters.add(converter);
     }
+
+    /**
+     * @return the handler writing the body, the type of the body outside of a request
+     */
+    private static String operation(Object body) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object handler = attributes == null ? null : attributes.getAttribute(TimingInterceptor.OPERATION, RequestAttributes.SCOPE_REQUEST);
+        return handler == null ? body.getClass().getSimpleName() : (String) handler;
+    }
 }
\ No newline at end of file
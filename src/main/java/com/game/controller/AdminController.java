@@ -0,0 +1,89 @@
+package com.game.controller;
+
+import com.game.dto.ImportProgressDto;
+import com.game.dto.StatsReconciliationDto;
+import com.game.exception.ValidationException;
+import com.game.importer.PlayerImportService;
+import com.game.metrics.SlowRequest;
+import com.game.metrics.SlowRequestLog;
+import com.game.migration.IndexCheck;
+import com.game.migration.IndexUsageVerifier;
+import com.game.service.PlayerStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/rest/admin")
+public class AdminController {
+    private final IndexUsageVerifier indexUsageVerifier;
+    private final PlayerStatsService playerStatsService;
+    private final PlayerImportService playerImportService;
+    private final SlowRequestLog slowRequestLog;
+
+    @Autowired
+    public AdminController(IndexUsageVerifier indexUsageVerifier, PlayerStatsService playerStatsService,
+                           PlayerImportService playerImportService, SlowRequestLog slowRequestLog) {
+        this.indexUsageVerifier = indexUsageVerifier;
+        this.playerStatsService = playerStatsService;
+        this.playerImportService = playerImportService;
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    // == Check index usage of players queries ==
+    @GetMapping("/indexes")
+    public List<IndexCheck> getIndexUsage() throws MetaDataAccessException {
+        return indexUsageVerifier.verify();
+    }
+
+    // == Compare players stats with the table ==
+    @PostMapping("/stats/reconcile")
+    public StatsReconciliationDto reconcileStats() {
+        return playerStatsService.reconcile();
+    }
+
+    // == Import players from a file of the import directory ==
+    @PostMapping("/import")
+    public ImportProgressDto startImport(
+            @RequestParam(value = "file") String file,
+            @RequestParam(value = "format", required = false, defaultValue = "NDJSON") PlayerExportFormat format,
+            @RequestParam(value = "restart", required = false, defaultValue = "false") boolean restart
+    ) throws IOException {
+        return playerImportService.start(file, format, restart);
+    }
+
+    // == Get progress of the imports ==
+    @GetMapping("/import")
+    public List<ImportProgressDto> getImports() {
+        return playerImportService.getAllProgress();
+    }
+
+    // == Get progress of an import ==
+    @GetMapping("/import/{id}")
+    public ImportProgressDto getImport(@PathVariable long id) {
+        return playerImportService.getProgress(id);
+    }
+
+    // == Stop an import, it resumes when started again ==
+    @PostMapping("/import/{id}/cancel")
+    public ImportProgressDto cancelImport(@PathVariable long id) {
+        return playerImportService.cancel(id);
+    }
+
+    // == Get last slow requests, newest first ==
+    @GetMapping("/slow-requests")
+    public List<SlowRequest> getSlowRequests(@RequestParam(value = "limit", defaultValue = "100") int limit) {
+        if (limit <= 0) {
+            throw new ValidationException();
+        }
+        return slowRequestLog.recent(limit);
+    }
+}
@@ -0,0 +1,48 @@
+package com.game.controller;
+
+import com.game.dto.LeaderboardEntryDto;
+import com.game.dto.PlayerRankDto;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.service.LeaderboardService;
+import com.game.service.PlayerValidationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/rest/players")
+public class LeaderboardController {
+    private final LeaderboardService leaderboardService;
+    private final PlayerValidationService playerValidationService;
+
+    @Autowired
+    public LeaderboardController(LeaderboardService leaderboardService, PlayerValidationService playerValidationService) {
+        this.leaderboardService = leaderboardService;
+        this.playerValidationService = playerValidationService;
+    }
+
+    // == Get top players by experience or level ==
+    @GetMapping("/leaderboard")
+    public List<LeaderboardEntryDto> getLeaderboard(
+            @RequestParam(value = "order", required = false, defaultValue = "EXPERIENCE") LeaderboardOrder order,
+            @RequestParam(value = "race", required = false) Race race,
+            @RequestParam(value = "profession", required = false) Profession profession,
+            @RequestParam(value = "limit", required = false, defaultValue = "10") Integer limit
+    ) {
+        return leaderboardService.getTop(order, race, profession, limit);
+    }
+
+    // == Get player rank ==
+    @GetMapping("/{id}/rank")
+    public PlayerRankDto getRank(
+            @PathVariable Long id,
+            @RequestParam(value = "order", required = false, defaultValue = "EXPERIENCE") LeaderboardOrder order,
+            @RequestParam(value = "sameRace", required = false, defaultValue = "false") Boolean sameRace,
+            @RequestParam(value = "sameProfession", required = false, defaultValue = "false") Boolean sameProfession
+    ) {
+        playerValidationService.validateIdExists(id);
+        return leaderboardService.getRank(id, order, sameRace, sameProfession);
+    }
+}
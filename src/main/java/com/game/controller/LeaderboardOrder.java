@@ -0,0 +1,6 @@
+package com.game.controller;
+
+public enum LeaderboardOrder {
+    EXPERIENCE, // default
+    LEVEL
+}
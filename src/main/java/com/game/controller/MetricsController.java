@@ -0,0 +1,68 @@
+package com.game.controller;
+
+import com.game.metrics.CacheMetrics;
+import com.game.metrics.CacheRegionSnapshot;
+import com.game.metrics.CoalescingSnapshot;
+import com.game.metrics.HibernateMetrics;
+import com.game.metrics.OperationTimings;
+import com.game.metrics.PoolMetrics;
+import com.game.metrics.PoolMetricsSnapshot;
+import com.game.metrics.PrometheusWriter;
+import com.game.service.PlayerSearchCoalescer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.management.JMException;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/rest/metrics")
+public class MetricsController {
+    private final PoolMetrics poolMetrics;
+    private final CacheMetrics cacheMetrics;
+    private final PlayerSearchCoalescer playerSearchCoalescer;
+    private final OperationTimings operationTimings;
+    private final HibernateMetrics hibernateMetrics;
+
+    @Autowired
+    public MetricsController(PoolMetrics poolMetrics, CacheMetrics cacheMetrics, PlayerSearchCoalescer playerSearchCoalescer,
+                             OperationTimings operationTimings, HibernateMetrics hibernateMetrics) {
+        this.poolMetrics = poolMetrics;
+        this.cacheMetrics = cacheMetrics;
+        this.playerSearchCoalescer = playerSearchCoalescer;
+        this.operationTimings = operationTimings;
+        this.hibernateMetrics = hibernateMetrics;
+    }
+
+    // == Get connection pool metrics ==
+    @GetMapping("/pool")
+    public PoolMetricsSnapshot getPoolMetrics() {
+        return poolMetrics.snapshot();
+    }
+
+    // == Get Hibernate cache regions metrics ==
+    @GetMapping("/cache")
+    public List<CacheRegionSnapshot> getCacheMetrics() throws JMException {
+        return cacheMetrics.snapshot();
+    }
+
+    // == Get coalescing of identical concurrent searches ==
+    @GetMapping("/coalescing")
+    public CoalescingSnapshot getCoalescingMetrics() {
+        return playerSearchCoalescer.snapshot();
+    }
+
+    // == Get operation timings and Hibernate statistics for Prometheus ==
+    @GetMapping("/prometheus")
+    public void getPrometheusMetrics(HttpServletResponse response) throws IOException {
+        PrometheusWriter writer = new PrometheusWriter();
+        operationTimings.writeTo(writer);
+        hibernateMetrics.writeTo(writer);
+        response.setContentType(PrometheusWriter.CONTENT_TYPE);
+        response.getWriter().write(writer.toString());
+    }
+}
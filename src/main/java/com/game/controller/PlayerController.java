@@ -1,15 +1,29 @@
 package com.game.controller;
 
+import com.game.dto.BulkResultDto;
 import com.game.dto.FilterDto;
 import com.game.dto.PlayerDto;
+import com.game.dto.PlayerStatsDto;
+import com.game.dto.PlayerUpdateDto;
+import com.game.dto.PlayerView;
+import com.game.dto.PlayersPageDto;
+import com.game.dto.PlayersSliceDto;
 import com.game.entity.Player;
 import com.game.entity.Profession;
 import com.game.entity.Race;
+import com.game.metrics.SlowRequestCapture;
+import com.game.service.ExperienceService;
+import com.game.service.PlayerExportService;
+import com.game.service.PlayerQueryPlan;
 import com.game.service.PlayerService;
+import com.game.service.PlayerStatsService;
 import com.game.service.PlayerValidationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -17,11 +31,19 @@ import java.util.List;
 public class PlayerController {
     private final PlayerService playerService;
     private final PlayerValidationService playerValidationService;
+    private final PlayerStatsService playerStatsService;
+    private final PlayerExportService playerExportService;
+    private final ExperienceService experienceService;
 
     @Autowired
-    public PlayerController(PlayerService playerService, PlayerValidationService playerValidationService) {
+    public PlayerController(PlayerService playerService, PlayerValidationService playerValidationService,
+                            PlayerStatsService playerStatsService, PlayerExportService playerExportService,
+                            ExperienceService experienceService) {
         this.playerService = playerService;
         this.playerValidationService = playerValidationService;
+        this.playerStatsService = playerStatsService;
+        this.playerExportService = playerExportService;
+        this.experienceService = experienceService;
     }
 
     // == Get players count ==
@@ -42,21 +64,26 @@ public class PlayerController {
             @RequestParam(value = "pageNumber", required = false, defaultValue = "0") Integer pageNumber,
             @RequestParam(value = "pageSize", required = false, defaultValue = "3") Integer pageSize
     ) {
-        FilterDto filterDto = playerService.mapRequestParamToFilterDto(name, title, race, profession, after, before, banned, minExperience, maxExperience, minLevel, maxLevel, order, pageNumber, pageSize);
+        FilterDto filterDto = captured(playerService.mapRequestParamToFilterDto(name, title, race, profession, after, before, banned, minExperience, maxExperience, minLevel, maxLevel, order, pageNumber, pageSize));
         return playerService.playersCount(filterDto);
     }
 
+    // == Get players stats by race, profession and banned ==
+    @GetMapping("/stats")
+    public List<PlayerStatsDto> getStats() {
+        return playerStatsService.getStats();
+    }
+
     // == Get player ==
     @GetMapping("/{id}")
     public Player getByID(@PathVariable Long id) {
-        playerValidationService.validateId(id);
         return playerService.findById(id);
     }
 
     // == Delete player ==
     @DeleteMapping("/{id}")
     public void deleteById(@PathVariable Long id) {
-        playerValidationService.validateId(id);
+        playerValidationService.validateIdExists(id);
         playerService.deletePlayer(id);
     }
 
@@ -70,13 +97,37 @@ public class PlayerController {
     // == Update player ==
     @PostMapping("/{id}")
     public Player updatePlayer(@RequestBody PlayerDto playerDto, @PathVariable(required = false) Long id) {
-        playerValidationService.validateId(id);
+        playerValidationService.validateIdExists(id);
         return playerService.updatePlayer(id, playerDto);
     }
 
+    // == Add experience to player ==
+    @PostMapping("/{id}/experience")
+    public Player addExperience(@PathVariable Long id, @RequestParam(value = "delta") int delta) {
+        return experienceService.addExperience(id, delta);
+    }
+
+    // == Create players in bulk ==
+    @PostMapping("/bulk")
+    public BulkResultDto createPlayers(@RequestBody List<PlayerDto> playerDtos) {
+        return playerService.createPlayers(playerDtos);
+    }
+
+    // == Update players in bulk ==
+    @PostMapping("/bulk/update")
+    public BulkResultDto updatePlayers(@RequestBody List<PlayerUpdateDto> updates) {
+        return playerService.updatePlayers(updates);
+    }
+
+    // == Delete players in bulk ==
+    @PostMapping("/bulk/delete")
+    public BulkResultDto deletePlayers(@RequestBody List<Long> ids) {
+        return playerService.deletePlayers(ids);
+    }
+
     // == Get players list ==
     @GetMapping
-    public List<Player> getPlayersList(
+    public List<PlayerView> getPlayersList(
             @RequestParam(value = "name", required = false) String name,
             @RequestParam(value = "title", required = false) String title,
             @RequestParam(value = "race", required = false) Race race,
@@ -92,8 +143,91 @@ public class PlayerController {
             @RequestParam(value = "pageNumber", required = false, defaultValue = "0") Integer pageNumber,
             @RequestParam(value = "pageSize", required = false, defaultValue = "3") Integer pageSize
     ) {
-        FilterDto filterDto = playerService.mapRequestParamToFilterDto(name, title, race, profession, after, before, banned, minExperience, maxExperience, minLevel, maxLevel, order, pageSize, pageNumber);
+        FilterDto filterDto = captured(playerService.mapRequestParamToFilterDto(name, title, race, profession, after, before, banned, minExperience, maxExperience, minLevel, maxLevel, order, pageSize, pageNumber));
 
         return playerService.getListPlayers(filterDto).getContent();
     }
-}
\ No newline at end of file
+
+    // == Get players page with total count ==
+    @GetMapping("/page")
+    public PlayersPageDto getPlayersPage(
+            @RequestParam(value = "name", required = false) String name,
+            @RequestParam(value = "title", required = false) String title,
+            @RequestParam(value = "race", required = false) Race race,
+            @RequestParam(value = "profession", required = false) Profession profession,
+            @RequestParam(value = "after", required = false, defaultValue = "0") Long after,
+            @RequestParam(value = "before", required = false, defaultValue = "0") Long before,
+            @RequestParam(value = "banned", required = false) Boolean banned,
+            @RequestParam(value = "minExperience", required = false, defaultValue = "0") Integer minExperience,
+            @RequestParam(value = "maxExperience", required = false, defaultValue = "0") Integer maxExperience,
+            @RequestParam(value = "minLevel", required = false, defaultValue = "0") Integer minLevel,
+            @RequestParam(value = "maxLevel", required = false, defaultValue = "0") Integer maxLevel,
+            @RequestParam(value = "order", required = false, defaultValue = "ID") PlayerOrder order,
+            @RequestParam(value = "pageNumber", required = false, defaultValue = "0") Integer pageNumber,
+            @RequestParam(value = "pageSize", required = false, defaultValue = "3") Integer pageSize
+    ) {
+        FilterDto filterDto = captured(playerService.mapRequestParamToFilterDto(name, title, race, profession, after, before, banned, minExperience, maxExperience, minLevel, maxLevel, order, pageSize, pageNumber));
+
+        return playerService.getPageWithCount(filterDto);
+    }
+
+    // == Get players slice by cursor ==
+    @GetMapping("/seek")
+    public PlayersSliceDto getPlayersSlice(
+            @RequestParam(value = "name", required = false) String name,
+            @RequestParam(value = "title", required = false) String title,
+            @RequestParam(value = "race", required = false) Race race,
+            @RequestParam(value = "profession", required = false) Profession profession,
+            @RequestParam(value = "after", required = false, defaultValue = "0") Long after,
+            @RequestParam(value = "before", required = false, defaultValue = "0") Long before,
+            @RequestParam(value = "banned", required = false) Boolean banned,
+            @RequestParam(value = "minExperience", required = false, defaultValue = "0") Integer minExperience,
+            @RequestParam(value = "maxExperience", required = false, defaultValue = "0") Integer maxExperience,
+            @RequestParam(value = "minLevel", required = false, defaultValue = "0") Integer minLevel,
+            @RequestParam(value = "maxLevel", required = false, defaultValue = "0") Integer maxLevel,
+            @RequestParam(value = "order", required = false, defaultValue = "ID") PlayerOrder order,
+            @RequestParam(value = "pageSize", required = false, defaultValue = "3") Integer pageSize,
+            @RequestParam(value = "cursor", required = false) String cursor
+    ) {
+        FilterDto filterDto = captured(playerService.mapRequestParamToFilterDto(name, title, race, profession, after, before, banned, minExperience, maxExperience, minLevel, maxLevel, order, pageSize, 0));
+
+        return playerService.getPlayersSlice(filterDto, cursor);
+    }
+
+    // == Export all players matching the filter ==
+    @GetMapping("/export")
+    public void exportPlayers(
+            @RequestParam(value = "name", required = false) String name,
+            @RequestParam(value = "title", required = false) String title,
+            @RequestParam(value = "race", required = false) Race race,
+            @RequestParam(value = "profession", required = false) Profession profession,
+            @RequestParam(value = "after", required = false, defaultValue = "0") Long after,
+            @RequestParam(value = "before", required = false, defaultValue = "0") Long before,
+            @RequestParam(value = "banned", required = false) Boolean banned,
+            @RequestParam(value = "minExperience", required = false, defaultValue = "0") Integer minExperience,
+            @RequestParam(value = "maxExperience", required = false, defaultValue = "0") Integer maxExperience,
+            @RequestParam(value = "minLevel", required = false, defaultValue = "0") Integer minLevel,
+            @RequestParam(value = "maxLevel", required = false, defaultValue = "0") Integer maxLevel,
+            @RequestParam(value = "order", required = false, defaultValue = "ID") PlayerOrder order,
+            @RequestParam(value = "pageNumber", required = false, defaultValue = "0") Integer pageNumber,
+            @RequestParam(value = "pageSize", required = false, defaultValue = "3") Integer pageSize,
+            @RequestParam(value = "format", required = false, defaultValue = "NDJSON") PlayerExportFormat format,
+            HttpServletResponse response
+    ) throws IOException {
+        FilterDto filterDto = captured(playerService.mapRequestParamToFilterDto(name, title, race, profession, after, before, banned, minExperience, maxExperience, minLevel, maxLevel, order, pageSize, pageNumber));
+
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition", "attachment; filename=\"players." + format.getExtension() + "\"");
+        playerExportService.export(filterDto, format, response.getWriter());
+    }
+
+    /**
+     * Attaches the normalized filter to the request, described by the slow request log if the request is slow.
+     */
+    private static FilterDto captured(FilterDto filterDto) {
+        SlowRequestCapture.attachFilter(() -> PlayerQueryPlan.from(filterDto) + ", order=" + filterDto.getOrder()
+                + ", pageNumber=" + filterDto.getPageNumber() + ", pageSize=" + filterDto.getPageSize());
+        return filterDto;
+    }
+}
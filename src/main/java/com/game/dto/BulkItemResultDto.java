@@ -0,0 +1,49 @@
+package com.game.dto;
+
+public class BulkItemResultDto {
+    private int index;
+    private Long id;
+    private int status;
+
+    public BulkItemResultDto() {
+    }
+
+    public BulkItemResultDto(int index, Long id, int status) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+    }
+
+    /**
+     * @return position of the item in the request
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    /**
+     * @return id of the player, null if the item was not written
+     */
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * @return HTTP status the item would get as a single request
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+}
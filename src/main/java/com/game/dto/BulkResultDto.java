@@ -0,0 +1,45 @@
+package com.game.dto;
+
+import java.util.List;
+
+public class BulkResultDto {
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResultDto> items;
+
+    public BulkResultDto() {
+    }
+
+    public BulkResultDto(int succeeded, int failed, List<BulkItemResultDto> items) {
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.items = items;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    /**
+     * @return result of every item, in the request order
+     */
+    public List<BulkItemResultDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<BulkItemResultDto> items) {
+        this.items = items;
+    }
+}
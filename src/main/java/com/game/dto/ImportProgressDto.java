@@ -0,0 +1,214 @@
+package com.game.dto;
+
+/**
+ * Progress of a players file import.
+ */
+public class ImportProgressDto {
+    private long id;
+    private String path;
+    private String format;
+    private String state;
+    private String error;
+    private long fileSize;
+    private long offset;
+    private long resumedFrom;
+    private long imported;
+    private long rejected;
+    private long elapsedMs;
+    private double rowsPerSecond;
+    private long readMs;
+    private long readWaitMs;
+    private long parseMs;
+    private long writeMs;
+
+    public ImportProgressDto() {
+    }
+
+    public ImportProgressDto(long id, String path, String format, String state, String error, long fileSize,
+                             long offset, long resumedFrom, long imported, long rejected, long elapsedMs,
+                             double rowsPerSecond, long readMs, long readWaitMs, long parseMs, long writeMs) {
+        this.id = id;
+        this.path = path;
+        this.format = format;
+        this.state = state;
+        this.error = error;
+        this.fileSize = fileSize;
+        this.offset = offset;
+        this.resumedFrom = resumedFrom;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.elapsedMs = elapsedMs;
+        this.rowsPerSecond = rowsPerSecond;
+        this.readMs = readMs;
+        this.readWaitMs = readWaitMs;
+        this.parseMs = parseMs;
+        this.writeMs = writeMs;
+    }
+
+    /**
+     * @return id of the import
+     */
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * @return file, relative to the import directory
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    /**
+     * @return RUNNING, FINISHED or FAILED
+     */
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    /**
+     * @return why the import failed, null if it did not
+     */
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    /**
+     * @return bytes of the file committed so far
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    /**
+     * @return offset the import started from, 0 unless it was resumed
+     */
+    public long getResumedFrom() {
+        return resumedFrom;
+    }
+
+    public void setResumedFrom(long resumedFrom) {
+        this.resumedFrom = resumedFrom;
+    }
+
+    /**
+     * @return players written, including earlier runs of a resumed import
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    /**
+     * @return records that failed parsing or validation
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    /**
+     * @return records processed per second by this run
+     */
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    /**
+     * @return time spent reading records
+     */
+    public long getReadMs() {
+        return readMs;
+    }
+
+    public void setReadMs(long readMs) {
+        this.readMs = readMs;
+    }
+
+    /**
+     * @return time the reader waited for the later stages
+     */
+    public long getReadWaitMs() {
+        return readWaitMs;
+    }
+
+    public void setReadWaitMs(long readWaitMs) {
+        this.readWaitMs = readWaitMs;
+    }
+
+    /**
+     * @return time spent parsing and validating, summed over the workers
+     */
+    public long getParseMs() {
+        return parseMs;
+    }
+
+    public void setParseMs(long parseMs) {
+        this.parseMs = parseMs;
+    }
+
+    /**
+     * @return time spent writing chunks and checkpoints
+     */
+    public long getWriteMs() {
+        return writeMs;
+    }
+
+    public void setWriteMs(long writeMs) {
+        this.writeMs = writeMs;
+    }
+}
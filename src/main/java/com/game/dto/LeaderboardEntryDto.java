@@ -0,0 +1,24 @@
+package com.game.dto;
+
+import com.game.entity.Player;
+
+public class LeaderboardEntryDto {
+    private long rank;
+    private Player player;
+
+    public LeaderboardEntryDto() {
+    }
+
+    public LeaderboardEntryDto(long rank, Player player) {
+        this.rank = rank;
+        this.player = player;
+    }
+
+    public long getRank() {
+        return rank;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+}
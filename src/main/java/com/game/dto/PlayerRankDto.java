@@ -0,0 +1,56 @@
+package com.game.dto;
+
+import com.game.controller.LeaderboardOrder;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+
+/**
+ * Position of a player among the players of the same race and/or profession, or among all when they are null.
+ */
+public class PlayerRankDto {
+    private Long id;
+    private LeaderboardOrder order;
+    private Race race;
+    private Profession profession;
+    private long rank;
+    private long total;
+
+    public PlayerRankDto() {
+    }
+
+    public PlayerRankDto(Long id, LeaderboardOrder order, Race race, Profession profession, long rank, long total) {
+        this.id = id;
+        this.order = order;
+        this.race = race;
+        this.profession = profession;
+        this.rank = rank;
+        this.total = total;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LeaderboardOrder getOrder() {
+        return order;
+    }
+
+    public Race getRace() {
+        return race;
+    }
+
+    public Profession getProfession() {
+        return profession;
+    }
+
+    /**
+     * @return 1 plus the number of players strictly ahead, so players with equal values share a rank
+     */
+    public long getRank() {
+        return rank;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,131 @@
+package com.game.dto;
+
+import com.game.entity.Profession;
+import com.game.entity.Race;
+
+import java.util.Objects;
+
+/**
+ * Aggregates of experience and level for one race, profession and banned combination.
+ */
+public class PlayerStatsDto {
+    private Race race;
+    private Profession profession;
+    private Boolean banned;
+    private long count;
+    private long experienceSum;
+    private double experienceAvg;
+    private Integer experienceMin;
+    private Integer experienceMax;
+    private long levelSum;
+    private double levelAvg;
+    private Integer levelMin;
+    private Integer levelMax;
+
+    public PlayerStatsDto() {
+    }
+
+    public PlayerStatsDto(Race race, Profession profession, Boolean banned, Long count,
+                          Long experienceSum, Integer experienceMin, Integer experienceMax,
+                          Long levelSum, Integer levelMin, Integer levelMax) {
+        this.race = race;
+        this.profession = profession;
+        this.banned = banned;
+        this.count = count;
+        this.experienceSum = experienceSum == null ? 0 : experienceSum;
+        this.experienceMin = experienceMin;
+        this.experienceMax = experienceMax;
+        this.levelSum = levelSum == null ? 0 : levelSum;
+        this.levelMin = levelMin;
+        this.levelMax = levelMax;
+        this.experienceAvg = count == 0 ? 0 : (double) this.experienceSum / count;
+        this.levelAvg = count == 0 ? 0 : (double) this.levelSum / count;
+    }
+
+    public Race getRace() {
+        return race;
+    }
+
+    public Profession getProfession() {
+        return profession;
+    }
+
+    public Boolean getBanned() {
+        return banned;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getExperienceSum() {
+        return experienceSum;
+    }
+
+    public double getExperienceAvg() {
+        return experienceAvg;
+    }
+
+    public Integer getExperienceMin() {
+        return experienceMin;
+    }
+
+    public Integer getExperienceMax() {
+        return experienceMax;
+    }
+
+    public long getLevelSum() {
+        return levelSum;
+    }
+
+    public double getLevelAvg() {
+        return levelAvg;
+    }
+
+    public Integer getLevelMin() {
+        return levelMin;
+    }
+
+    public Integer getLevelMax() {
+        return levelMax;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PlayerStatsDto that = (PlayerStatsDto) o;
+        return count == that.count &&
+                experienceSum == that.experienceSum &&
+                levelSum == that.levelSum &&
+                race == that.race &&
+                profession == that.profession &&
+                Objects.equals(banned, that.banned) &&
+                Objects.equals(experienceMin, that.experienceMin) &&
+                Objects.equals(experienceMax, that.experienceMax) &&
+                Objects.equals(levelMin, that.levelMin) &&
+                Objects.equals(levelMax, that.levelMax);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(race, profession, banned, count, experienceSum, experienceMin, experienceMax,
+                levelSum, levelMin, levelMax);
+    }
+
+    @Override
+    public String toString() {
+        return "PlayerStatsDto{" +
+                "race=" + race +
+                ", profession=" + profession +
+                ", banned=" + banned +
+                ", count=" + count +
+                ", experience=[" + experienceMin + ", " + experienceMax + "], sum=" + experienceSum +
+                ", level=[" + levelMin + ", " + levelMax + "], sum=" + levelSum +
+                '}';
+    }
+}
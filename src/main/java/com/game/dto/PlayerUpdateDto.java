@@ -0,0 +1,16 @@
+package com.game.dto;
+
+/**
+ * Partial update of the player with the id, an item of a bulk update.
+ */
+public class PlayerUpdateDto extends PlayerDto {
+    private Long id;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,86 @@
+package com.game.dto;
+
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+
+import java.util.Date;
+
+/**
+ * Immutable read-only copy of a player row. Serialized the same way as {@link Player}.
+ * <p>
+ * Lists are selected straight into views, so Hibernate neither registers the rows
+ * in the persistence context nor keeps snapshots of them for dirty checking.
+ */
+public final class PlayerView {
+    private final Long id;
+    private final String name;
+    private final String title;
+    private final Race race;
+    private final Profession profession;
+    private final Date birthday;
+    private final Boolean banned;
+    private final Integer experience;
+    private final Integer level;
+    private final Integer untilNextLevel;
+
+    public PlayerView(Long id, String name, String title, Race race, Profession profession, Date birthday,
+                      Boolean banned, Integer experience, Integer level, Integer untilNextLevel) {
+        this.id = id;
+        this.name = name;
+        this.title = title;
+        this.race = race;
+        this.profession = profession;
+        this.birthday = birthday;
+        this.banned = banned;
+        this.experience = experience;
+        this.level = level;
+        this.untilNextLevel = untilNextLevel;
+    }
+
+    public static PlayerView of(Player player) {
+        return new PlayerView(player.getId(), player.getName(), player.getTitle(), player.getRace(),
+                player.getProfession(), player.getBirthday(), player.getBanned(), player.getExperience(),
+                player.getLevel(), player.getUntilNextLevel());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Race getRace() {
+        return race;
+    }
+
+    public Profession getProfession() {
+        return profession;
+    }
+
+    public Date getBirthday() {
+        return birthday;
+    }
+
+    public Boolean getBanned() {
+        return banned;
+    }
+
+    public Integer getExperience() {
+        return experience;
+    }
+
+    public Integer getLevel() {
+        return level;
+    }
+
+    public Integer getUntilNextLevel() {
+        return untilNextLevel;
+    }
+}
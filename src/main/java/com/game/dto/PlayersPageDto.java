@@ -0,0 +1,32 @@
+package com.game.dto;
+
+import java.util.List;
+
+public class PlayersPageDto {
+    private List<PlayerView> players;
+    private long count;
+
+    public PlayersPageDto() {
+    }
+
+    public PlayersPageDto(List<PlayerView> players, long count) {
+        this.players = players;
+        this.count = count;
+    }
+
+    public List<PlayerView> getPlayers() {
+        return players;
+    }
+
+    public void setPlayers(List<PlayerView> players) {
+        this.players = players;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
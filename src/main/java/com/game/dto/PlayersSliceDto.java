@@ -0,0 +1,37 @@
+package com.game.dto;
+
+import com.game.entity.Player;
+
+import java.util.List;
+
+public class PlayersSliceDto {
+    private List<Player> players;
+    private String next;
+
+    public PlayersSliceDto() {
+    }
+
+    public PlayersSliceDto(List<Player> players, String next) {
+        this.players = players;
+        this.next = next;
+    }
+
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    public void setPlayers(List<Player> players) {
+        this.players = players;
+    }
+
+    /**
+     * @return cursor of the next slice, null if this slice is the last one
+     */
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+}
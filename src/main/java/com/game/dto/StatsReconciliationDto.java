@@ -0,0 +1,37 @@
+package com.game.dto;
+
+/**
+ * Outcome of comparing the in-memory player stats with the table.
+ */
+public class StatsReconciliationDto {
+    private boolean checked;
+    private boolean consistent;
+    private int driftedCells;
+
+    public StatsReconciliationDto() {
+    }
+
+    public StatsReconciliationDto(boolean checked, boolean consistent, int driftedCells) {
+        this.checked = checked;
+        this.consistent = consistent;
+        this.driftedCells = driftedCells;
+    }
+
+    /**
+     * @return false if players were written during the check, so it proves nothing
+     */
+    public boolean isChecked() {
+        return checked;
+    }
+
+    public boolean isConsistent() {
+        return consistent;
+    }
+
+    /**
+     * @return number of cells that differed from the table and were rebuilt
+     */
+    public int getDriftedCells() {
+        return driftedCells;
+    }
+}
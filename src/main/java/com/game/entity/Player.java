@@ -1,9 +1,14 @@
 package com.game.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.util.Date;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Player {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -23,6 +28,19 @@ public class Player {
     public Player() {
     }
 
+    public Player(Player player) {
+        this.id = player.id;
+        this.name = player.name;
+        this.title = player.title;
+        this.race = player.race;
+        this.profession = player.profession;
+        this.birthday = player.birthday;
+        this.banned = player.banned;
+        this.experience = player.experience;
+        this.level = player.level;
+        this.untilNextLevel = player.untilNextLevel;
+    }
+
     public Long getId() {
         return id;
     }
@@ -0,0 +1,9 @@
+package com.game.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class NoSuchImportException extends RuntimeException {
+
+}
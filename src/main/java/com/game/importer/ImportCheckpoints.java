@@ -0,0 +1,92 @@
+package com.game.importer;
+
+import com.game.controller.PlayerExportFormat;
+import com.game.exception.ValidationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Rows of the {@code player_import} table, one per imported file.
+ */
+class ImportCheckpoints {
+    private final JdbcTemplate jdbcTemplate;
+
+    ImportCheckpoints(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Starts or resumes the import of the file. An unfinished import of the same file is resumed,
+     * a finished or changed one is started over only on request.
+     *
+     * @param restart true to import the file from the start
+     * @return where to continue from
+     */
+    Checkpoint start(String path, PlayerExportFormat format, long fileSize, boolean restart) {
+        List<Checkpoint> found = jdbcTemplate.query(
+                "SELECT format, file_size, byte_offset, imported, rejected, finished FROM player_import WHERE path = ?",
+                (rs, rowNum) -> new Checkpoint(rs.getLong("byte_offset"), rs.getLong("imported"), rs.getLong("rejected"),
+                        rs.getBoolean("finished"), rs.getLong("file_size"), rs.getString("format")),
+                path);
+
+        if (!found.isEmpty() && !restart) {
+            Checkpoint checkpoint = found.get(0);
+            if (checkpoint.finished || checkpoint.fileSize != fileSize || !checkpoint.format.equals(format.name())) {
+                throw new ValidationException();
+            }
+            return checkpoint;
+        }
+
+        Checkpoint checkpoint = new Checkpoint(0, 0, 0, false, fileSize, format.name());
+        int updated = jdbcTemplate.update("UPDATE player_import SET format = ?, file_size = ?, byte_offset = 0, "
+                + "imported = 0, rejected = 0, finished = false WHERE path = ?", format.name(), fileSize, path);
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO player_import (path, format, file_size, byte_offset, imported, rejected, finished) "
+                    + "VALUES (?, ?, ?, 0, 0, 0, false)", path, format.name(), fileSize);
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Records the rows written so far. Called in the transaction that writes them.
+     */
+    void advance(String path, long offset, long imported, long rejected) {
+        jdbcTemplate.update("UPDATE player_import SET byte_offset = ?, imported = ?, rejected = ? WHERE path = ?",
+                offset, imported, rejected, path);
+    }
+
+    void finish(String path) {
+        jdbcTemplate.update("UPDATE player_import SET finished = true WHERE path = ?", path);
+    }
+
+    static final class Checkpoint {
+        private final long offset;
+        private final long imported;
+        private final long rejected;
+        private final boolean finished;
+        private final long fileSize;
+        private final String format;
+
+        private Checkpoint(long offset, long imported, long rejected, boolean finished, long fileSize, String format) {
+            this.offset = offset;
+            this.imported = imported;
+            this.rejected = rejected;
+            this.finished = finished;
+            this.fileSize = fileSize;
+            this.format = format;
+        }
+
+        long getOffset() {
+            return offset;
+        }
+
+        long getImported() {
+            return imported;
+        }
+
+        long getRejected() {
+            return rejected;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.game.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads lines of a UTF-8 file through a {@link FileChannel} and knows the byte offset after the last line read,
+ * so a later reader can continue from that line boundary. Not thread-safe.
+ */
+final class LineReader implements Closeable {
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private byte[] line = new byte[256];
+    private long offset;
+
+    LineReader(Path path, int bufferSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer.flip();
+    }
+
+    /**
+     * @return byte offset right after the last line read
+     */
+    long offset() {
+        return offset;
+    }
+
+    /**
+     * Continues reading at the offset, which must be a line boundary.
+     */
+    void seek(long offset) throws IOException {
+        channel.position(offset);
+        buffer.clear().flip();
+        this.offset = offset;
+    }
+
+    /**
+     * @return next line without the line break, null at the end of the file
+     */
+    String readLine() throws IOException {
+        int length = 0;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                int read = channel.read(buffer);
+                buffer.flip();
+                if (read < 0) {
+                    if (length == 0) {
+                        return null;
+                    }
+                    offset += length;
+                    return decode(length);
+                }
+            }
+            byte[] bytes = buffer.array();
+            int start = buffer.position();
+            int end = buffer.limit();
+            int lineBreak = start;
+            while (lineBreak < end && bytes[lineBreak] != '\n') {
+                lineBreak++;
+            }
+            length = append(length, bytes, start, lineBreak - start);
+            if (lineBreak < end) {
+                buffer.position(lineBreak + 1);
+                offset += length + 1;
+                return decode(length);
+            }
+            buffer.position(end);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int append(int length, byte[] bytes, int from, int count) {
+        if (length + count > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+        }
+        System.arraycopy(bytes, from, line, length, count);
+        return length + count;
+    }
+
+    private String decode(int length) {
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+}
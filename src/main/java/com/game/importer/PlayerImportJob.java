@@ -0,0 +1,425 @@
+package com.game.importer;
+
+import com.game.controller.PlayerExportFormat;
+import com.game.dto.ImportProgressDto;
+import com.game.dto.PlayerDto;
+import com.game.entity.Player;
+import com.game.exception.ValidationException;
+import com.game.index.PlayerIndexes;
+import com.game.service.PlayerLocks;
+import com.game.service.PlayerService;
+import com.game.service.PlayerValidationService;
+import org.hibernate.Cache;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Import of one file in three stages connected by bounded queues:
+ * <ol>
+ * <li>the reader splits the file into chunks of records,</li>
+ * <li>workers parse and validate the records of a chunk into players,</li>
+ * <li>the writer inserts the rows of every chunk in file order, with the checkpoint in the same transaction,
+ * and passes the committed players to the in-memory indexes.</li>
+ * </ol>
+ * At most {@code queueCapacity} chunks are between the reader and the committed checkpoint, the reader waits otherwise.
+ */
+class PlayerImportJob {
+    private static final String INSERT = "INSERT INTO player (name, title, race, profession, birthday, banned, "
+            + "experience, level, untilNextLevel) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_WITH_ID = "INSERT INTO player (id, name, title, race, profession, birthday, banned, "
+            + "experience, level, untilNextLevel) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    enum State {
+        RUNNING, FINISHED, FAILED
+    }
+
+    private final long id;
+    private final String name;
+    private final Path file;
+    private final PlayerExportFormat format;
+    private final long fileSize;
+    private final ImportCheckpoints.Checkpoint checkpoint;
+    private final ImportCheckpoints checkpoints;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PlayerValidationService playerValidationService;
+    private final PlayerService playerService;
+    private final PlayerIndexes playerIndexes;
+    private final PlayerLocks playerLocks;
+    private final Cache playerCache;
+    private final boolean tableIds;
+    private final int workers;
+    private final int chunkSize;
+
+    private final BlockingQueue<RawChunk> records;
+    private final BlockingQueue<ParsedChunk> rows;
+    private final Semaphore inFlight;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private PlayerRecordParser parser;
+    private volatile ExecutorService stages;
+    private volatile Thread reader;
+
+    private final long started = System.nanoTime();
+    private volatile long finished;
+    private volatile State state = State.RUNNING;
+    private final AtomicLong offset;
+    private final AtomicLong imported;
+    private final AtomicLong rejected;
+    private final AtomicLong processed = new AtomicLong();
+    private final LongAdder readNanos = new LongAdder();
+    private final LongAdder readWaitNanos = new LongAdder();
+    private final LongAdder parseNanos = new LongAdder();
+    private final LongAdder writeNanos = new LongAdder();
+
+    PlayerImportJob(long id, String name, Path file, PlayerExportFormat format, long fileSize,
+                    ImportCheckpoints.Checkpoint checkpoint, ImportCheckpoints checkpoints, JdbcTemplate jdbcTemplate,
+                    TransactionTemplate transactionTemplate, PlayerValidationService playerValidationService,
+                    PlayerService playerService, PlayerIndexes playerIndexes, PlayerLocks playerLocks,
+                    Cache playerCache, boolean tableIds, int workers, int chunkSize, int queueCapacity) {
+        this.id = id;
+        this.name = name;
+        this.file = file;
+        this.format = format;
+        this.fileSize = fileSize;
+        this.checkpoint = checkpoint;
+        this.checkpoints = checkpoints;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.playerValidationService = playerValidationService;
+        this.playerService = playerService;
+        this.playerIndexes = playerIndexes;
+        this.playerLocks = playerLocks;
+        this.playerCache = playerCache;
+        this.tableIds = tableIds;
+        this.workers = workers;
+        this.chunkSize = chunkSize;
+        this.records = new ArrayBlockingQueue<>(queueCapacity + workers);
+        this.rows = new ArrayBlockingQueue<>(queueCapacity + workers);
+        this.inFlight = new Semaphore(queueCapacity);
+        this.offset = new AtomicLong(checkpoint.getOffset());
+        this.imported = new AtomicLong(checkpoint.getImported());
+        this.rejected = new AtomicLong(checkpoint.getRejected());
+    }
+
+    String getName() {
+        return name;
+    }
+
+    boolean isRunning() {
+        return state == State.RUNNING;
+    }
+
+    /**
+     * Runs the import in the calling thread, which becomes the reader. The rows bypass {@link PlayerService},
+     * so each committed chunk is passed to the in-memory indexes under its player locks, as a bulk create does.
+     */
+    void run() {
+        reader = Thread.currentThread();
+        stages = Executors.newFixedThreadPool(workers + 1, new CustomizableThreadFactory("player-import-" + id + "-"));
+        try (LineReader lines = new LineReader(file, READ_BUFFER_SIZE)) {
+            parser = PlayerRecordParser.create(format, format == PlayerExportFormat.CSV ? lines.readLine() : null);
+            if (checkpoint.getOffset() > lines.offset()) {
+                lines.seek(checkpoint.getOffset());
+            }
+
+            for (int i = 0; i < workers; i++) {
+                stages.submit(() -> stage(this::parse));
+            }
+            Future<?> writer = stages.submit(() -> stage(this::write));
+            read(lines);
+            writer.get();
+        } catch (Exception e) {
+            fail(e);
+        } finally {
+            stages.shutdownNow();
+            finished = System.nanoTime();
+            state = failure.get() == null ? State.FINISHED : State.FAILED;
+        }
+    }
+
+    /**
+     * Stops the import, the committed chunks stay.
+     */
+    void cancel() {
+        fail(new InterruptedException("Import was cancelled"));
+    }
+
+    ImportProgressDto progress() {
+        long end = finished == 0 ? System.nanoTime() : finished;
+        long elapsedNanos = Math.max(end - started, 1);
+        Throwable error = failure.get();
+        return new ImportProgressDto(id, name, format.name(), state.name(), error == null ? null : String.valueOf(error),
+                fileSize, offset.get(), checkpoint.getOffset(), imported.get(), rejected.get(),
+                elapsedNanos / 1_000_000, processed.get() * 1e9 / elapsedNanos,
+                readNanos.sum() / 1_000_000, readWaitNanos.sum() / 1_000_000,
+                parseNanos.sum() / 1_000_000, writeNanos.sum() / 1_000_000);
+    }
+
+    private void read(LineReader lines) throws IOException, InterruptedException {
+        long sequence = 0;
+        List<String> chunk = new ArrayList<>(chunkSize);
+        long readStarted = System.nanoTime();
+        String record;
+        while ((record = nextRecord(lines)) != null) {
+            chunk.add(record);
+            if (chunk.size() == chunkSize) {
+                readNanos.add(System.nanoTime() - readStarted);
+                submit(new RawChunk(sequence++, chunk, lines.offset()));
+                chunk = new ArrayList<>(chunkSize);
+                readStarted = System.nanoTime();
+            }
+        }
+        readNanos.add(System.nanoTime() - readStarted);
+        if (!chunk.isEmpty()) {
+            submit(new RawChunk(sequence, chunk, lines.offset()));
+        }
+        for (int i = 0; i < workers; i++) {
+            records.put(RawChunk.END);
+        }
+    }
+
+    private String nextRecord(LineReader lines) throws IOException {
+        String record;
+        do {
+            record = lines.readLine();
+            if (record == null) {
+                return null;
+            }
+        } while (record.isEmpty());
+
+        while (parser.isIncomplete(record)) {
+            String next = lines.readLine();
+            if (next == null) {
+                break;
+            }
+            record = record + "\n" + next;
+        }
+        return record;
+    }
+
+    private void submit(RawChunk chunk) throws InterruptedException {
+        long waitStarted = System.nanoTime();
+        inFlight.acquire();
+        records.put(chunk);
+        readWaitNanos.add(System.nanoTime() - waitStarted);
+    }
+
+    private void parse() throws InterruptedException {
+        while (true) {
+            RawChunk chunk = records.take();
+            if (chunk == RawChunk.END) {
+                rows.put(ParsedChunk.END);
+                return;
+            }
+            long parseStarted = System.nanoTime();
+            List<Player> parsed = new ArrayList<>(chunk.records.size());
+            int invalid = 0;
+            for (String record : chunk.records) {
+                try {
+                    PlayerDto playerDto = parser.parse(record);
+                    playerValidationService.validatePlayerForCreate(playerDto);
+                    parsed.add(playerService.newPlayer(playerDto));
+                } catch (IOException | IllegalArgumentException | ValidationException e) {
+                    invalid++;
+                }
+            }
+            parseNanos.add(System.nanoTime() - parseStarted);
+            rows.put(new ParsedChunk(chunk.sequence, parsed, invalid, chunk.endOffset));
+        }
+    }
+
+    private void write() throws InterruptedException {
+        Map<Long, ParsedChunk> waiting = new HashMap<>();
+        long next = 0;
+        int finishedWorkers = 0;
+        while (finishedWorkers < workers) {
+            ParsedChunk chunk = rows.take();
+            if (chunk == ParsedChunk.END) {
+                finishedWorkers++;
+                continue;
+            }
+            // workers finish chunks out of order, the checkpoint needs them in file order
+            waiting.put(chunk.sequence, chunk);
+            for (ParsedChunk ready = waiting.remove(next); ready != null; ready = waiting.remove(++next)) {
+                commit(ready);
+                inFlight.release();
+            }
+        }
+        checkpoints.finish(name);
+    }
+
+    private void commit(ParsedChunk chunk) {
+        long writeStarted = System.nanoTime();
+        long importedAfter = imported.get() + chunk.players.size();
+        long rejectedAfter = rejected.get() + chunk.rejected;
+        List<Player> players = chunk.players;
+        if (tableIds && !players.isEmpty()) {
+            assignIds(players);
+        }
+        PlayerLocks.Held[] held = new PlayerLocks.Held[1];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!players.isEmpty()) {
+                    insert(players);
+                    List<Long> ids = new ArrayList<>(players.size());
+                    for (Player player : players) {
+                        ids.add(player.getId());
+                    }
+                    // the ids are known once inserted, the locks are held until the hooks ran
+                    held[0] = playerLocks.lock(ids);
+                }
+                checkpoints.advance(name, chunk.endOffset, importedAfter, rejectedAfter);
+            });
+            // cached searches don't see rows inserted through JDBC
+            playerCache.evictQueryRegions();
+            for (Player player : players) {
+                playerIndexes.onCreate(player);
+            }
+        } finally {
+            if (held[0] != null) {
+                held[0].close();
+            }
+        }
+        imported.set(importedAfter);
+        rejected.set(rejectedAfter);
+        offset.set(chunk.endOffset);
+        processed.addAndGet(chunk.players.size() + chunk.rejected);
+        writeNanos.add(System.nanoTime() - writeStarted);
+    }
+
+    /**
+     * Inserts the players as one JDBC batch and sets the ids generated by the table, unless they already have ids.
+     */
+    private void insert(List<Player> players) {
+        if (tableIds) {
+            List<Object[]> batch = new ArrayList<>(players.size());
+            for (Player player : players) {
+                Object[] row = toRow(player);
+                Object[] withId = new Object[row.length + 1];
+                withId[0] = player.getId();
+                System.arraycopy(row, 0, withId, 1, row.length);
+                batch.add(withId);
+            }
+            jdbcTemplate.batchUpdate(INSERT_WITH_ID, batch);
+            return;
+        }
+        jdbcTemplate.execute(connection -> connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS),
+                (PreparedStatement statement) -> {
+                    for (Player player : players) {
+                        new ArgumentPreparedStatementSetter(toRow(player)).setValues(statement);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        for (Player player : players) {
+                            if (!keys.next()) {
+                                throw new IllegalStateException("The database returned fewer ids than inserted rows");
+                            }
+                            player.setId(keys.getLong(1));
+                        }
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Sets ids taken from {@code player_id_sequence}, where the table id generator of Hibernate reserves
+     * its blocks. The AUTO_INCREMENT column would hand out ids of a block Hibernate reserved.
+     */
+    private void assignIds(List<Player> players) {
+        // a block of its own transaction, like the generator takes, so creates don't wait for the chunk;
+        // the generator stores the last id it reserved and starts its next block after it
+        long first = transactionTemplate.execute(status -> {
+            Long last = jdbcTemplate.queryForObject(
+                    "SELECT next_val FROM player_id_sequence WHERE name = 'player' FOR UPDATE", Long.class);
+            jdbcTemplate.update("UPDATE player_id_sequence SET next_val = ? WHERE name = 'player'", last + players.size());
+            return last + 1;
+        });
+        for (int i = 0; i < players.size(); i++) {
+            players.get(i).setId(first + i);
+        }
+    }
+
+    private void stage(Stage stage) {
+        try {
+            stage.run();
+        } catch (Throwable e) {
+            fail(e);
+        }
+    }
+
+    private void fail(Throwable e) {
+        if (failure.compareAndSet(null, e)) {
+            if (stages != null) {
+                stages.shutdownNow();
+            }
+            if (reader != null) {
+                reader.interrupt();
+            }
+        }
+    }
+
+    private static Object[] toRow(Player player) {
+        return new Object[]{player.getName(), player.getTitle(), player.getRace().name(), player.getProfession().name(),
+                new Date(player.getBirthday().getTime()), player.getBanned(), player.getExperience(),
+                player.getLevel(), player.getUntilNextLevel()};
+    }
+
+    @FunctionalInterface
+    private interface Stage {
+        void run() throws Exception;
+    }
+
+    private static final class RawChunk {
+        private static final RawChunk END = new RawChunk(-1, null, -1);
+
+        private final long sequence;
+        private final List<String> records;
+        private final long endOffset;
+
+        private RawChunk(long sequence, List<String> records, long endOffset) {
+            this.sequence = sequence;
+            this.records = records;
+            this.endOffset = endOffset;
+        }
+    }
+
+    private static final class ParsedChunk {
+        private static final ParsedChunk END = new ParsedChunk(-1, null, 0, -1);
+
+        private final long sequence;
+        private final List<Player> players;
+        private final int rejected;
+        private final long endOffset;
+
+        private ParsedChunk(long sequence, List<Player> players, int rejected, long endOffset) {
+            this.sequence = sequence;
+            this.players = players;
+            this.rejected = rejected;
+            this.endOffset = endOffset;
+        }
+    }
+}
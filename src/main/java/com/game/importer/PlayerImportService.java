@@ -0,0 +1,163 @@
+package com.game.importer;
+
+import com.game.controller.PlayerExportFormat;
+import com.game.dto.ImportProgressDto;
+import com.game.exception.NoSuchImportException;
+import com.game.exception.ValidationException;
+import com.game.index.PlayerIndexes;
+import com.game.service.PlayerLocks;
+import com.game.service.PlayerService;
+import com.game.service.PlayerValidationService;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports players from CSV or NDJSON files of the import directory, in the layout written by the players export.
+ * Progress is kept in the {@code player_import} table, an interrupted import is resumed by starting it again.
+ */
+@Service
+public class PlayerImportService implements DisposableBean {
+    private final PlayerValidationService playerValidationService;
+    private final PlayerService playerService;
+    private final PlayerIndexes playerIndexes;
+    private final PlayerLocks playerLocks;
+    private final Cache playerCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ImportCheckpoints checkpoints;
+    private final Path directory;
+    private final boolean tableIds;
+    private final int workers;
+    private final int chunkSize;
+    private final int queueCapacity;
+
+    private final ExecutorService jobs = Executors.newCachedThreadPool(new CustomizableThreadFactory("player-import-"));
+    private final Map<Long, PlayerImportJob> imports = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    @Autowired
+    public PlayerImportService(PlayerValidationService playerValidationService, PlayerService playerService,
+                               PlayerIndexes playerIndexes, PlayerLocks playerLocks, DataSource dataSource,
+                               EntityManagerFactory entityManagerFactory,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${player.id.generator}") String idGenerator,
+                               @Value("${import.directory}") String directory,
+                               @Value("${import.workers}") int workers,
+                               @Value("${import.chunkSize}") int chunkSize,
+                               @Value("${import.queueCapacity}") int queueCapacity) {
+        this.playerValidationService = playerValidationService;
+        this.playerService = playerService;
+        this.playerIndexes = playerIndexes;
+        this.playerLocks = playerLocks;
+        this.playerCache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.checkpoints = new ImportCheckpoints(jdbcTemplate);
+        this.tableIds = "table".equals(idGenerator);
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.workers = workers;
+        this.chunkSize = chunkSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Starts the import of the file, or resumes it from the last checkpoint if an earlier import was interrupted.
+     *
+     * @param name    file name, relative to the import directory
+     * @param format  format of the file
+     * @param restart true to import the file from the start even if it was imported before
+     * @return progress of the started import
+     */
+    public synchronized ImportProgressDto start(String name, PlayerExportFormat format, boolean restart) throws IOException {
+        Path file = resolve(name);
+        String key = directory.relativize(file).toString();
+        for (PlayerImportJob job : imports.values()) {
+            if (job.isRunning() && job.getName().equals(key)) {
+                throw new ValidationException();
+            }
+        }
+
+        long fileSize = Files.size(file);
+        ImportCheckpoints.Checkpoint checkpoint = checkpoints.start(key, format, fileSize, restart);
+        long id = ids.incrementAndGet();
+        PlayerImportJob job = new PlayerImportJob(id, key, file, format, fileSize, checkpoint, checkpoints,
+                jdbcTemplate, transactionTemplate, playerValidationService, playerService, playerIndexes, playerLocks,
+                playerCache, tableIds, workers, chunkSize, queueCapacity);
+        imports.put(id, job);
+        jobs.submit(job::run);
+        return job.progress();
+    }
+
+    public ImportProgressDto getProgress(long id) {
+        return find(id).progress();
+    }
+
+    public List<ImportProgressDto> getAllProgress() {
+        List<ImportProgressDto> progress = new ArrayList<>();
+        for (PlayerImportJob job : imports.values()) {
+            progress.add(job.progress());
+        }
+        return progress;
+    }
+
+    /**
+     * Stops the import, it can be resumed later by starting it again.
+     */
+    public ImportProgressDto cancel(long id) {
+        PlayerImportJob job = find(id);
+        job.cancel();
+        return job.progress();
+    }
+
+    @Override
+    public void destroy() {
+        for (PlayerImportJob job : imports.values()) {
+            job.cancel();
+        }
+        jobs.shutdownNow();
+    }
+
+    private PlayerImportJob find(long id) {
+        PlayerImportJob job = imports.get(id);
+        if (job == null) {
+            throw new NoSuchImportException();
+        }
+        return job;
+    }
+
+    /**
+     * @return the file, which must be a regular file inside the import directory
+     */
+    private Path resolve(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new ValidationException();
+        }
+        Path file = directory.resolve(name).normalize();
+        if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+            throw new ValidationException();
+        }
+        return file;
+    }
+}
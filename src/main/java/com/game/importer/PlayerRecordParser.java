@@ -0,0 +1,167 @@
+package com.game.importer;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.game.controller.PlayerExportFormat;
+import com.game.dto.PlayerDto;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses import records in the layout written by the players export. Ids, levels and experience
+ * until the next level in a record are ignored, imported players get new ids and computed levels.
+ * Thread-safe.
+ */
+abstract class PlayerRecordParser {
+    private static final String[] REQUIRED_COLUMNS = {"name", "title", "race", "profession", "birthday", "experience"};
+
+    /**
+     * @param header first line of the file, null for NDJSON
+     */
+    static PlayerRecordParser create(PlayerExportFormat format, String header) {
+        if (format == PlayerExportFormat.CSV) {
+            return new Csv(header);
+        }
+        return new Ndjson();
+    }
+
+    /**
+     * @return the player, not validated yet
+     * @throws IOException              if the record is malformed
+     * @throws IllegalArgumentException if a value is not of the column type
+     */
+    abstract PlayerDto parse(String record) throws IOException;
+
+    /**
+     * @return true if the record ends inside a quoted value, so the next line continues it
+     */
+    abstract boolean isIncomplete(String record);
+
+    private static final class Ndjson extends PlayerRecordParser {
+        private final ObjectReader reader = new ObjectMapper()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readerFor(PlayerDto.class);
+
+        @Override
+        PlayerDto parse(String record) throws IOException {
+            return reader.readValue(record);
+        }
+
+        @Override
+        boolean isIncomplete(String record) {
+            return false;
+        }
+    }
+
+    private static final class Csv extends PlayerRecordParser {
+        private final int name;
+        private final int title;
+        private final int race;
+        private final int profession;
+        private final int birthday;
+        private final int banned;
+        private final int experience;
+
+        private Csv(String header) {
+            if (header == null) {
+                throw new IllegalArgumentException("CSV file has no header");
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> names = split(header);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim(), i);
+            }
+            for (String column : REQUIRED_COLUMNS) {
+                if (!columns.containsKey(column)) {
+                    throw new IllegalArgumentException("CSV header has no " + column + " column");
+                }
+            }
+            this.name = columns.get("name");
+            this.title = columns.get("title");
+            this.race = columns.get("race");
+            this.profession = columns.get("profession");
+            this.birthday = columns.get("birthday");
+            this.banned = columns.getOrDefault("banned", -1);
+            this.experience = columns.get("experience");
+        }
+
+        @Override
+        PlayerDto parse(String record) throws IOException {
+            List<String> values = split(record);
+            PlayerDto playerDto = new PlayerDto();
+            playerDto.setName(value(values, name));
+            playerDto.setTitle(value(values, title));
+            String raceValue = value(values, race);
+            playerDto.setRace(raceValue == null ? null : Race.valueOf(raceValue));
+            String professionValue = value(values, profession);
+            playerDto.setProfession(professionValue == null ? null : Profession.valueOf(professionValue));
+            String birthdayValue = value(values, birthday);
+            playerDto.setBirthday(birthdayValue == null ? null : Long.valueOf(birthdayValue));
+            String bannedValue = value(values, banned);
+            playerDto.setBanned(bannedValue == null ? null : Boolean.valueOf(bannedValue));
+            String experienceValue = value(values, experience);
+            playerDto.setExperience(experienceValue == null ? null : Integer.valueOf(experienceValue));
+            return playerDto;
+        }
+
+        @Override
+        boolean isIncomplete(String record) {
+            boolean quoted = false;
+            for (int i = 0; i < record.length(); i++) {
+                if (record.charAt(i) == '"') {
+                    quoted = !quoted;
+                }
+            }
+            return quoted;
+        }
+
+        private static String value(List<String> values, int column) throws IOException {
+            if (column < 0) {
+                return null;
+            }
+            if (column >= values.size()) {
+                throw new IOException("Record has " + values.size() + " values, column " + column + " is missing");
+            }
+            String value = values.get(column);
+            return value.isEmpty() ? null : value;
+        }
+
+        /**
+         * Splits a record on commas outside of quotes, a doubled quote inside quotes stands for a quote.
+         */
+        private static List<String> split(String record) {
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < record.length(); i++) {
+                char c = record.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        value.append(c);
+                    } else if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        value.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else {
+                    value.append(c);
+                }
+            }
+            values.add(value.toString());
+            return values;
+        }
+    }
+}
@@ -0,0 +1,501 @@
+package com.game.index;
+
+import com.game.controller.PlayerOrder;
+import com.game.dto.PlayerView;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.service.PlayerQueryPlan;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process copy of the player table stored column by column.
+ * <p>
+ * Enabled with {@code query.engine=columnar}. Filters and sorts are evaluated over primitive arrays,
+ * so list and count requests don't touch JDBC. Rows are kept dense: a deleted row is replaced by the last one.
+ * Names and titles are matched and ordered with the {@link TextCollation} of the database, so both engines
+ * return the same players in the same order.
+ */
+@Component
+public class ColumnarPlayerStore implements PlayerIndex {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final byte NULL_CODE = -1;
+    private static final Race[] RACES = Race.values();
+    private static final Profession[] PROFESSIONS = Profession.values();
+
+    private final boolean enabled;
+    private final TextCollation collation;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Integer> rowById = new HashMap<>();
+    private BitSet banned = new BitSet();
+    private BitSet bannedNull = new BitSet();
+    private int size;
+    private long[] ids;
+    private String[] names;
+    private String[] nameKeys;
+    private String[] titles;
+    private String[] titleKeys;
+    private byte[] races;
+    private byte[] professions;
+    private long[] birthdays;
+    private int[] experiences;
+    private int[] levels;
+    private int[] untilNextLevels;
+
+    @Autowired
+    public ColumnarPlayerStore(@Value("${query.engine}") String engine, DataSource dataSource) {
+        this("columnar".equalsIgnoreCase(engine), dataSource);
+    }
+
+    private ColumnarPlayerStore(boolean enabled, DataSource dataSource) {
+        this(enabled, enabled ? TextCollation.of(dataSource) : TextCollation.BINARY, enabled ? INITIAL_CAPACITY : 0);
+    }
+
+    private ColumnarPlayerStore(boolean enabled, TextCollation collation, int capacity) {
+        this.enabled = enabled;
+        this.collation = collation;
+        allocate(capacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int count(PlayerQueryPlan plan) {
+        RowFilter filter = new RowFilter(plan);
+        lock.readLock().lock();
+        try {
+            int found = 0;
+            for (int row = 0; row < size; row++) {
+                if (filter.matches(row)) {
+                    found++;
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Page<PlayerView> findPage(PlayerQueryPlan plan, PlayerOrder order, Pageable pageable) {
+        RowFilter filter = new RowFilter(plan);
+        RowOrder rowOrder = new RowOrder(order);
+        lock.readLock().lock();
+        try {
+            long from = pageable.getOffset();
+            TopRows top = new TopRows((int) Math.min(from + pageable.getPageSize(), size), rowOrder);
+            int found = 0;
+            for (int row = 0; row < size; row++) {
+                if (filter.matches(row)) {
+                    top.offer(row);
+                    found++;
+                }
+            }
+
+            List<PlayerView> content = new ArrayList<>(pageable.getPageSize());
+            int[] sorted = top.sorted();
+            for (int i = (int) Math.min(from, sorted.length); i < sorted.length; i++) {
+                content.add(toView(sorted[i]));
+            }
+            return new PageImpl<>(content, pageable, found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The filter of a plan evaluated row by row, so no array of the matching rows is built.
+     */
+    private final class RowFilter {
+        private final Pattern namePattern;
+        private final Pattern titlePattern;
+        private final byte race;
+        private final byte profession;
+        private final int minExperience;
+        private final int maxExperience;
+        private final int minLevel;
+        private final int maxLevel;
+        private final long after;
+        private final long before;
+        private final Boolean bannedValue;
+
+        private RowFilter(PlayerQueryPlan plan) {
+            namePattern = plan.getName() == null ? null : likePattern(collation.normalize(plan.getName()));
+            titlePattern = plan.getTitle() == null ? null : likePattern(collation.normalize(plan.getTitle()));
+            race = plan.getRace() == null ? NULL_CODE : (byte) plan.getRace().ordinal();
+            profession = plan.getProfession() == null ? NULL_CODE : (byte) plan.getProfession().ordinal();
+            minExperience = plan.getMinExperience() == null ? Integer.MIN_VALUE : plan.getMinExperience();
+            maxExperience = plan.getMaxExperience() == null ? Integer.MAX_VALUE : plan.getMaxExperience();
+            minLevel = plan.getMinLevel() == null ? Integer.MIN_VALUE : plan.getMinLevel();
+            maxLevel = plan.getMaxLevel() == null ? Integer.MAX_VALUE : plan.getMaxLevel();
+            after = plan.getAfter() == null ? Long.MIN_VALUE : plan.getAfter();
+            before = plan.getBefore() == null ? Long.MAX_VALUE : plan.getBefore();
+            bannedValue = plan.getBanned();
+        }
+
+        private boolean matches(int row) {
+            if (race != NULL_CODE && races[row] != race) {
+                return false;
+            }
+            if (profession != NULL_CODE && professions[row] != profession) {
+                return false;
+            }
+            if (bannedValue != null && (bannedNull.get(row) || banned.get(row) != bannedValue)) {
+                return false;
+            }
+            if (experiences[row] < minExperience || experiences[row] > maxExperience) {
+                return false;
+            }
+            if (levels[row] < minLevel || levels[row] > maxLevel) {
+                return false;
+            }
+            if (birthdays[row] < after || birthdays[row] > before) {
+                return false;
+            }
+            if (namePattern != null && (nameKeys[row] == null || !namePattern.matcher(nameKeys[row]).matches())) {
+                return false;
+            }
+            return titlePattern == null || (titleKeys[row] != null && titlePattern.matcher(titleKeys[row]).matches());
+        }
+    }
+
+    /**
+     * Order of the rows, ties broken by id.
+     */
+    private final class RowOrder {
+        private final PlayerOrder order;
+        private final Comparator<String> nameOrder;
+
+        private RowOrder(PlayerOrder order) {
+            this.order = order == null ? PlayerOrder.ID : order;
+            this.nameOrder = this.order == PlayerOrder.NAME ? collation.comparator() : null;
+        }
+
+        private int compare(int left, int right) {
+            int result;
+            switch (order) {
+                case NAME:
+                    result = compareNames(names[left], names[right]);
+                    break;
+                case EXPERIENCE:
+                    result = Integer.compare(experiences[left], experiences[right]);
+                    break;
+                case BIRTHDAY:
+                    result = Long.compare(birthdays[left], birthdays[right]);
+                    break;
+                case LEVEL:
+                    result = Integer.compare(levels[left], levels[right]);
+                    break;
+                default:
+                    result = 0;
+            }
+            return result != 0 ? result : Long.compare(ids[left], ids[right]);
+        }
+
+        private int compareNames(String left, String right) {
+            if (left == null || right == null) {
+                return left == null ? (right == null ? 0 : -1) : 1;
+            }
+            return nameOrder.compare(left, right);
+        }
+    }
+
+    /**
+     * The first rows in an order, kept in a bounded max-heap of row indexes, so a page costs
+     * {@code O(n log count)} instead of sorting every match.
+     */
+    private static final class TopRows {
+        private final int[] heap;
+        private final RowOrder order;
+        private int heapSize;
+
+        private TopRows(int count, RowOrder order) {
+            this.heap = new int[count];
+            this.order = order;
+        }
+
+        private void offer(int row) {
+            if (heapSize < heap.length) {
+                heap[heapSize] = row;
+                siftUp(heapSize++);
+            } else if (heapSize > 0 && order.compare(row, heap[0]) < 0) {
+                heap[0] = row;
+                siftDown(heapSize);
+            }
+        }
+
+        /**
+         * @return the rows in order, emptying the heap
+         */
+        private int[] sorted() {
+            // pops the greatest row to the end until the heap is empty
+            for (int size = heapSize; size > 1; ) {
+                int greatest = heap[0];
+                heap[0] = heap[--size];
+                heap[size] = greatest;
+                siftDown(size);
+            }
+            int[] result = Arrays.copyOf(heap, heapSize);
+            heapSize = 0;
+            return result;
+        }
+
+        private void siftUp(int index) {
+            int row = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (order.compare(heap[parent], row) >= 0) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = row;
+        }
+
+        private void siftDown(int size) {
+            int row = heap[0];
+            int index = 0;
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && order.compare(heap[child + 1], heap[child]) > 0) {
+                    child++;
+                }
+                if (order.compare(row, heap[child]) >= 0) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = row;
+        }
+    }
+
+    /**
+     * @return pattern with the semantics of {@code LIKE '%text%'}
+     */
+    private static Pattern likePattern(String text) {
+        StringBuilder regex = new StringBuilder(".*");
+        StringBuilder literal = new StringBuilder();
+        for (char c : text.toCharArray()) {
+            if (c == '%' || c == '_') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '%' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.append(".*").toString(), Pattern.DOTALL);
+    }
+
+    private PlayerView toView(int row) {
+        return new PlayerView(ids[row], names[row], titles[row],
+                races[row] == NULL_CODE ? null : RACES[races[row]],
+                professions[row] == NULL_CODE ? null : PROFESSIONS[professions[row]],
+                new Date(birthdays[row]),
+                bannedNull.get(row) ? null : banned.get(row),
+                experiences[row], levels[row], untilNextLevels[row]);
+    }
+
+    @Override
+    public Reload reload() {
+        // the current size only presizes the columns
+        int capacity = enabled ? Math.max(INITIAL_CAPACITY, size) : 0;
+        ColumnarPlayerStore loaded = new ColumnarPlayerStore(enabled, collation, capacity);
+        return new Reload() {
+            @Override
+            public void add(Player player) {
+                if (enabled) {
+                    loaded.append(player);
+                }
+            }
+
+            @Override
+            public void swap() {
+                if (!enabled) {
+                    return;
+                }
+                lock.writeLock().lock();
+                try {
+                    take(loaded);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        };
+    }
+
+    @Override
+    public void onCreate(Player player) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            append(player);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onUpdate(Player before, Player after) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer row = rowById.get(after.getId());
+            if (row == null) {
+                append(after);
+            } else {
+                write(row, after);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onDelete(Player player) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer row = rowById.remove(player.getId());
+            if (row == null) {
+                return;
+            }
+            int last = size - 1;
+            if (row != last) {
+                move(last, row);
+                rowById.put(ids[row], row);
+            }
+            names[last] = null;
+            nameKeys[last] = null;
+            titles[last] = null;
+            titleKeys[last] = null;
+            banned.clear(last);
+            bannedNull.clear(last);
+            size = last;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void append(Player player) {
+        if (size == ids.length) {
+            grow(size * 2);
+        }
+        int row = size++;
+        rowById.put(player.getId(), row);
+        write(row, player);
+    }
+
+    private void write(int row, Player player) {
+        ids[row] = player.getId();
+        names[row] = player.getName();
+        nameKeys[row] = player.getName() == null ? null : collation.normalize(player.getName());
+        titles[row] = player.getTitle();
+        titleKeys[row] = player.getTitle() == null ? null : collation.normalize(player.getTitle());
+        races[row] = player.getRace() == null ? NULL_CODE : (byte) player.getRace().ordinal();
+        professions[row] = player.getProfession() == null ? NULL_CODE : (byte) player.getProfession().ordinal();
+        birthdays[row] = player.getBirthday() == null ? 0 : player.getBirthday().getTime();
+        banned.set(row, Boolean.TRUE.equals(player.getBanned()));
+        bannedNull.set(row, player.getBanned() == null);
+        experiences[row] = player.getExperience() == null ? 0 : player.getExperience();
+        levels[row] = player.getLevel() == null ? 0 : player.getLevel();
+        untilNextLevels[row] = player.getUntilNextLevel() == null ? 0 : player.getUntilNextLevel();
+    }
+
+    private void move(int from, int to) {
+        ids[to] = ids[from];
+        names[to] = names[from];
+        nameKeys[to] = nameKeys[from];
+        titles[to] = titles[from];
+        titleKeys[to] = titleKeys[from];
+        races[to] = races[from];
+        professions[to] = professions[from];
+        birthdays[to] = birthdays[from];
+        banned.set(to, banned.get(from));
+        bannedNull.set(to, bannedNull.get(from));
+        experiences[to] = experiences[from];
+        levels[to] = levels[from];
+        untilNextLevels[to] = untilNextLevels[from];
+    }
+
+    private void take(ColumnarPlayerStore other) {
+        rowById = other.rowById;
+        banned = other.banned;
+        bannedNull = other.bannedNull;
+        size = other.size;
+        ids = other.ids;
+        names = other.names;
+        nameKeys = other.nameKeys;
+        titles = other.titles;
+        titleKeys = other.titleKeys;
+        races = other.races;
+        professions = other.professions;
+        birthdays = other.birthdays;
+        experiences = other.experiences;
+        levels = other.levels;
+        untilNextLevels = other.untilNextLevels;
+    }
+
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        names = new String[capacity];
+        nameKeys = new String[capacity];
+        titles = new String[capacity];
+        titleKeys = new String[capacity];
+        races = new byte[capacity];
+        professions = new byte[capacity];
+        birthdays = new long[capacity];
+        experiences = new int[capacity];
+        levels = new int[capacity];
+        untilNextLevels = new int[capacity];
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        nameKeys = Arrays.copyOf(nameKeys, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        titleKeys = Arrays.copyOf(titleKeys, capacity);
+        races = Arrays.copyOf(races, capacity);
+        professions = Arrays.copyOf(professions, capacity);
+        birthdays = Arrays.copyOf(birthdays, capacity);
+        experiences = Arrays.copyOf(experiences, capacity);
+        levels = Arrays.copyOf(levels, capacity);
+        untilNextLevels = Arrays.copyOf(untilNextLevels, capacity);
+    }
+}
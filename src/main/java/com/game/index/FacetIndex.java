@@ -0,0 +1,190 @@
+package com.game.index;
+
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.service.PlayerQueryPlan;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmaps of player ids per race, profession and banned flag.
+ * <p>
+ * A filter made only of these facets is counted by intersecting the bitmaps,
+ * without a {@code SELECT COUNT(*)}.
+ */
+@Component
+public class FacetIndex implements PlayerIndex {
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Facets facets = new Facets();
+
+    @Autowired
+    public FacetIndex(@Value("${search.facets.enabled}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @param plan players filter
+     * @return true if the plan filters by race, profession and banned only
+     */
+    public boolean canCount(PlayerQueryPlan plan) {
+        return enabled
+                && plan.getName() == null && plan.getTitle() == null
+                && plan.getMinExperience() == null && plan.getMaxExperience() == null
+                && plan.getMinLevel() == null && plan.getMaxLevel() == null
+                && plan.getAfter() == null && plan.getBefore() == null;
+    }
+
+    /**
+     * @param plan players filter accepted by {@link #canCount(PlayerQueryPlan)}
+     * @return number of players matching the filter
+     */
+    public int count(PlayerQueryPlan plan) {
+        lock.readLock().lock();
+        try {
+            List<RoaringBitmap> matched = new ArrayList<>(3);
+            if (plan.getRace() != null) {
+                matched.add(facets.byRace.get(plan.getRace()));
+            }
+            if (plan.getProfession() != null) {
+                matched.add(facets.byProfession.get(plan.getProfession()));
+            }
+            if (plan.getBanned() != null) {
+                matched.add(plan.getBanned() ? facets.banned : facets.notBanned);
+            }
+            switch (matched.size()) {
+                case 0:
+                    return facets.all.getCardinality();
+                case 1:
+                    return matched.get(0).getCardinality();
+                case 2:
+                    return RoaringBitmap.andCardinality(matched.get(0), matched.get(1));
+                default:
+                    return RoaringBitmap.andCardinality(RoaringBitmap.and(matched.get(0), matched.get(1)), matched.get(2));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Reload reload() {
+        Facets loaded = new Facets();
+        return new Reload() {
+            @Override
+            public void add(Player player) {
+                if (enabled) {
+                    loaded.add(player);
+                }
+            }
+
+            @Override
+            public void swap() {
+                if (!enabled) {
+                    return;
+                }
+                lock.writeLock().lock();
+                try {
+                    facets = loaded;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        };
+    }
+
+    @Override
+    public void onCreate(Player player) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            facets.add(player);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onUpdate(Player before, Player after) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            facets.remove(before);
+            facets.add(after);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onDelete(Player player) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            facets.remove(player);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static final class Facets {
+        private final RoaringBitmap all = new RoaringBitmap();
+        private final Map<Race, RoaringBitmap> byRace = new EnumMap<>(Race.class);
+        private final Map<Profession, RoaringBitmap> byProfession = new EnumMap<>(Profession.class);
+        private final RoaringBitmap banned = new RoaringBitmap();
+        private final RoaringBitmap notBanned = new RoaringBitmap();
+
+        Facets() {
+            for (Race race : Race.values()) {
+                byRace.put(race, new RoaringBitmap());
+            }
+            for (Profession profession : Profession.values()) {
+                byProfession.put(profession, new RoaringBitmap());
+            }
+        }
+
+        void add(Player player) {
+            int id = Math.toIntExact(player.getId());
+            all.add(id);
+            if (player.getRace() != null) {
+                byRace.get(player.getRace()).add(id);
+            }
+            if (player.getProfession() != null) {
+                byProfession.get(player.getProfession()).add(id);
+            }
+            if (player.getBanned() != null) {
+                (player.getBanned() ? banned : notBanned).add(id);
+            }
+        }
+
+        void remove(Player player) {
+            int id = Math.toIntExact(player.getId());
+            all.remove(id);
+            if (player.getRace() != null) {
+                byRace.get(player.getRace()).remove(id);
+            }
+            if (player.getProfession() != null) {
+                byProfession.get(player.getProfession()).remove(id);
+            }
+            if (player.getBanned() != null) {
+                (player.getBanned() ? banned : notBanned).remove(id);
+            }
+        }
+    }
+}
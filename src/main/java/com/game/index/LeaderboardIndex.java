@@ -0,0 +1,222 @@
+package com.game.index;
+
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Players ordered by experience, overall and per race, profession and their combination.
+ * <p>
+ * Level grows with experience, so the same trees answer level rankings too. Only the ranking keys
+ * of a player are kept, the rest of the row is read from the table when a ranking is shown.
+ */
+@Component
+public class LeaderboardIndex implements PlayerIndex {
+    private static final int PROFESSION_SLOTS = Profession.values().length + 1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Ranking ranking = new Ranking();
+
+    /**
+     * @param race       race of the players, null for any
+     * @param profession profession of the players, null for any
+     * @param limit      max number of players
+     * @return ranking keys of the players with the most experience, best first
+     */
+    public List<Ranked> top(Race race, Profession profession, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Ranked> result = new ArrayList<>();
+            for (Long id : ranking.tree(race, profession).top(limit)) {
+                result.add(ranking.players.get(id));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of the players with more experience than given
+     */
+    public int countAbove(Race race, Profession profession, int experience) {
+        lock.readLock().lock();
+        try {
+            return ranking.tree(race, profession).countAbove(experience);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size(Race race, Profession profession) {
+        lock.readLock().lock();
+        try {
+            return ranking.tree(race, profession).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return ranking keys of the player, null if the player is not ranked
+     */
+    public Ranked find(Long id) {
+        lock.readLock().lock();
+        try {
+            return ranking.players.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Reload reload() {
+        Ranking loaded = new Ranking();
+        return new Reload() {
+            @Override
+            public void add(Player player) {
+                loaded.add(player);
+            }
+
+            @Override
+            public void swap() {
+                lock.writeLock().lock();
+                try {
+                    ranking = loaded;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        };
+    }
+
+    @Override
+    public void onCreate(Player player) {
+        lock.writeLock().lock();
+        try {
+            ranking.add(player);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onUpdate(Player before, Player after) {
+        lock.writeLock().lock();
+        try {
+            ranking.remove(before);
+            ranking.add(after);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onDelete(Player player) {
+        lock.writeLock().lock();
+        try {
+            ranking.remove(player);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranking keys of a player.
+     */
+    public static final class Ranked {
+        private final long id;
+        private final int experience;
+        private final int level;
+        private final Race race;
+        private final Profession profession;
+
+        private Ranked(Player player) {
+            this.id = player.getId();
+            this.experience = player.getExperience();
+            this.level = player.getLevel() == null ? 0 : player.getLevel();
+            this.race = player.getRace();
+            this.profession = player.getProfession();
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public int getExperience() {
+            return experience;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+
+        public Race getRace() {
+            return race;
+        }
+
+        public Profession getProfession() {
+            return profession;
+        }
+    }
+
+    private static final class Ranking {
+        private final OrderStatisticTree[] trees = new OrderStatisticTree[(Race.values().length + 1) * PROFESSION_SLOTS];
+        private final Map<Long, Ranked> players = new HashMap<>();
+
+        Ranking() {
+            for (int i = 0; i < trees.length; i++) {
+                trees[i] = new OrderStatisticTree();
+            }
+        }
+
+        void add(Player player) {
+            if (player.getExperience() == null) {
+                return;
+            }
+            Ranked ranked = new Ranked(player);
+            players.put(ranked.id, ranked);
+            for (OrderStatisticTree tree : treesOf(ranked)) {
+                tree.insert(ranked.experience, ranked.id);
+            }
+        }
+
+        void remove(Player player) {
+            Ranked ranked = players.remove(player.getId());
+            if (ranked == null) {
+                return;
+            }
+            for (OrderStatisticTree tree : treesOf(ranked)) {
+                tree.remove(ranked.experience, ranked.id);
+            }
+        }
+
+        private OrderStatisticTree[] treesOf(Ranked ranked) {
+            if (ranked.race == null && ranked.profession == null) {
+                return new OrderStatisticTree[]{tree(null, null)};
+            }
+            if (ranked.race == null || ranked.profession == null) {
+                return new OrderStatisticTree[]{tree(null, null), tree(ranked.race, ranked.profession)};
+            }
+            return new OrderStatisticTree[]{
+                    tree(null, null),
+                    tree(ranked.race, null),
+                    tree(null, ranked.profession),
+                    tree(ranked.race, ranked.profession)};
+        }
+
+        OrderStatisticTree tree(Race race, Profession profession) {
+            int raceSlot = race == null ? 0 : race.ordinal() + 1;
+            int professionSlot = profession == null ? 0 : profession.ordinal() + 1;
+            return trees[raceSlot * PROFESSION_SLOTS + professionSlot];
+        }
+    }
+}
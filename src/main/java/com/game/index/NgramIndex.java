@@ -0,0 +1,269 @@
+package com.game.index;
+
+import com.game.entity.Player;
+import com.game.service.PlayerQueryPlan;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Trigram posting lists over player names and titles.
+ * <p>
+ * Substring filters compile to {@code lower(name) LIKE '%x%'}, which no B-tree index can serve.
+ * The index narrows such a filter to the ids of players whose text holds every trigram of the
+ * searched substring; the database still applies the original {@code LIKE} to that candidate set.
+ * <p>
+ * Texts are lower-cased and stripped of diacritics before indexing, so that candidates stay a superset
+ * of what an accent-insensitive collation matches (MySQL {@code utf8mb4_unicode_ci} treats {@code ё} as
+ * {@code е} and {@code й} as {@code и}). Texts are padded with boundary markers, so one and two character
+ * substrings are answered from the trigram dictionary as well.
+ */
+@Component
+public class NgramIndex implements PlayerIndex {
+    private static final char START = '\u0002';
+    private static final char END = '\u0003';
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern LIKE_WILDCARDS = Pattern.compile("[%_\\\\]");
+
+    private final boolean enabled;
+    private final int maxCandidates;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, RoaringBitmap> nameGrams = new HashMap<>();
+    private Map<Long, RoaringBitmap> titleGrams = new HashMap<>();
+
+    @Autowired
+    public NgramIndex(@Value("${search.ngram.enabled}") boolean enabled,
+                      @Value("${search.ngram.maxCandidates}") int maxCandidates) {
+        this.enabled = enabled;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * @param plan players filter
+     * @return the plan restricted to the candidate ids of its name and title filters,
+     * or the plan itself if the index can't narrow it
+     */
+    public Specification<Player> narrow(PlayerQueryPlan plan) {
+        if (!enabled || (plan.getName() == null && plan.getTitle() == null)) {
+            return plan;
+        }
+        List<Long> ids;
+        lock.readLock().lock();
+        try {
+            RoaringBitmap candidates = null;
+            if (plan.getName() != null) {
+                candidates = intersect(candidates, find(nameGrams, plan.getName()));
+            }
+            if (plan.getTitle() != null) {
+                candidates = intersect(candidates, find(titleGrams, plan.getTitle()));
+            }
+            if (candidates == null || candidates.getLongCardinality() > maxCandidates) {
+                return plan;
+            }
+            ids = new ArrayList<>(candidates.getCardinality());
+            candidates.forEach((int id) -> ids.add((long) id));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (ids.isEmpty()) {
+            return plan.and((root, query, cb) -> cb.disjunction());
+        }
+        return plan.and((root, query, cb) -> root.get("id").in(ids));
+    }
+
+    @Override
+    public Reload reload() {
+        Map<Long, RoaringBitmap> loadedNames = new HashMap<>();
+        Map<Long, RoaringBitmap> loadedTitles = new HashMap<>();
+        return new Reload() {
+            @Override
+            public void add(Player player) {
+                if (enabled) {
+                    int id = Math.toIntExact(player.getId());
+                    addText(loadedNames, player.getName(), id);
+                    addText(loadedTitles, player.getTitle(), id);
+                }
+            }
+
+            @Override
+            public void swap() {
+                if (!enabled) {
+                    return;
+                }
+                for (RoaringBitmap bitmap : loadedNames.values()) {
+                    bitmap.runOptimize();
+                }
+                for (RoaringBitmap bitmap : loadedTitles.values()) {
+                    bitmap.runOptimize();
+                }
+                lock.writeLock().lock();
+                try {
+                    nameGrams = loadedNames;
+                    titleGrams = loadedTitles;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        };
+    }
+
+    @Override
+    public void onCreate(Player player) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            add(player);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onUpdate(Player before, Player after) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove(before);
+            add(after);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onDelete(Player player) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove(player);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Player player) {
+        int id = Math.toIntExact(player.getId());
+        addText(nameGrams, player.getName(), id);
+        addText(titleGrams, player.getTitle(), id);
+    }
+
+    private void remove(Player player) {
+        int id = Math.toIntExact(player.getId());
+        removeText(nameGrams, player.getName(), id);
+        removeText(titleGrams, player.getTitle(), id);
+    }
+
+    private static void addText(Map<Long, RoaringBitmap> grams, String text, int id) {
+        if (text == null) {
+            return;
+        }
+        String padded = START + fold(text) + END;
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.computeIfAbsent(gram(padded, i), key -> new RoaringBitmap()).add(id);
+        }
+    }
+
+    private static void removeText(Map<Long, RoaringBitmap> grams, String text, int id) {
+        if (text == null) {
+            return;
+        }
+        String padded = START + fold(text) + END;
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            long key = gram(padded, i);
+            RoaringBitmap bitmap = grams.get(key);
+            if (bitmap != null) {
+                bitmap.remove(id);
+                if (bitmap.isEmpty()) {
+                    grams.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return ids of players whose text may contain the substring, null if any player may match
+     */
+    private static RoaringBitmap find(Map<Long, RoaringBitmap> grams, String substring) {
+        if (substring.isEmpty() || LIKE_WILDCARDS.matcher(substring).find()) {
+            return null;
+        }
+        String folded = fold(substring);
+        if (folded.isEmpty()) {
+            return null;
+        }
+        if (folded.length() >= 3) {
+            List<RoaringBitmap> postings = new ArrayList<>();
+            for (int i = 0; i + 3 <= folded.length(); i++) {
+                RoaringBitmap bitmap = grams.get(gram(folded, i));
+                if (bitmap == null) {
+                    return new RoaringBitmap();
+                }
+                postings.add(bitmap);
+            }
+            return FastAggregation.and(postings.iterator());
+        }
+
+        List<RoaringBitmap> postings = new ArrayList<>();
+        for (Map.Entry<Long, RoaringBitmap> entry : grams.entrySet()) {
+            if (contains(entry.getKey(), folded)) {
+                postings.add(entry.getValue());
+            }
+        }
+        return FastAggregation.or(postings.iterator());
+    }
+
+    private static RoaringBitmap intersect(RoaringBitmap left, RoaringBitmap right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        return RoaringBitmap.and(left, right);
+    }
+
+    private static boolean contains(long gram, String substring) {
+        char first = (char) (gram >>> 32);
+        char second = (char) (gram >>> 16);
+        char third = (char) gram;
+        if (substring.length() == 1) {
+            char c = substring.charAt(0);
+            return first == c || second == c || third == c;
+        }
+        char c0 = substring.charAt(0);
+        char c1 = substring.charAt(1);
+        return (first == c0 && second == c1) || (second == c0 && third == c1);
+    }
+
+    private static long gram(String text, int from) {
+        return ((long) text.charAt(from) << 32) | ((long) text.charAt(from + 1) << 16) | text.charAt(from + 2);
+    }
+
+    /**
+     * @return the text lower-cased and stripped of diacritics, as an accent-insensitive collation compares it
+     */
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("");
+    }
+}
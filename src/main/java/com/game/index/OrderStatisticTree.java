@@ -0,0 +1,149 @@
+package com.game.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Treap of {@code (score, id)} pairs ordered by score descending, then id ascending.
+ * <p>
+ * Every node knows the size of its subtree, so rank and k-th element lookups take O(log n).
+ * Not thread-safe.
+ */
+class OrderStatisticTree {
+    private Node root;
+
+    int size() {
+        return size(root);
+    }
+
+    void insert(int score, long id) {
+        Node[] parts = split(root, score, id);
+        root = merge(merge(parts[0], new Node(score, id)), parts[1]);
+    }
+
+    void remove(int score, long id) {
+        root = remove(root, score, id);
+    }
+
+    void clear() {
+        root = null;
+    }
+
+    /**
+     * @return number of entries with a score strictly greater than the given one
+     */
+    int countAbove(int score) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.score > score) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return ids of the first {@code limit} entries
+     */
+    List<Long> top(int limit) {
+        List<Long> result = new ArrayList<>(Math.min(limit, size()));
+        collect(root, limit, result);
+        return result;
+    }
+
+    private static void collect(Node node, int limit, List<Long> result) {
+        if (node == null || result.size() >= limit) {
+            return;
+        }
+        collect(node.left, limit, result);
+        if (result.size() < limit) {
+            result.add(node.id);
+            collect(node.right, limit, result);
+        }
+    }
+
+    private static int compare(int score, long id, Node node) {
+        if (score != node.score) {
+            return score > node.score ? -1 : 1;
+        }
+        return Long.compare(id, node.id);
+    }
+
+    /**
+     * @return entries before the key and entries from the key on
+     */
+    private static Node[] split(Node node, int score, long id) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (compare(score, id, node) > 0) {
+            Node[] parts = split(node.right, score, id);
+            node.right = parts[0];
+            parts[0] = node.update();
+            return parts;
+        }
+        Node[] parts = split(node.left, score, id);
+        node.left = parts[1];
+        parts[1] = node.update();
+        return parts;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return left.update();
+        }
+        right.left = merge(left, right.left);
+        return right.update();
+    }
+
+    private static Node remove(Node node, int score, long id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(score, id, node);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = remove(node.left, score, id);
+        } else {
+            node.right = remove(node.right, score, id);
+        }
+        return node.update();
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node {
+        private final int score;
+        private final long id;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        Node(int score, long id) {
+            this.score = score;
+            this.id = id;
+        }
+
+        Node update() {
+            size = size(left) + size(right) + 1;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.game.index;
+
+import com.game.entity.Player;
+import com.game.service.PlayerQueryPlan;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Bounded cache of players counts keyed by the query plan, so paging and ordering don't split entries.
+ * <p>
+ * A write drops only the counts it may change. Name and title conditions are not evaluated in memory,
+ * a plan with them is treated as matching whenever its other conditions match.
+ */
+@Component
+public class PlayerCountCache implements PlayerIndex {
+    private final Cache<PlayerQueryPlan, Integer> counts;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public PlayerCountCache(@Value("${cache.count.maxSize}") long maxSize) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @param plan    players filter
+     * @param counter computes the count on a miss
+     * @return cached or computed count
+     */
+    public int get(PlayerQueryPlan plan, IntSupplier counter) {
+        Integer cached = counts.getIfPresent(plan);
+        if (cached != null) {
+            return cached;
+        }
+        long started = generation.get();
+        int count = counter.getAsInt();
+        counts.put(plan, count);
+        // a write committed while counting may have invalidated before the put
+        if (generation.get() != started) {
+            counts.invalidate(plan);
+        }
+        return count;
+    }
+
+    public CacheStats stats() {
+        return counts.stats();
+    }
+
+    public long size() {
+        return counts.estimatedSize();
+    }
+
+    /**
+     * @return number of entries dropped by writes
+     */
+    public long invalidations() {
+        return invalidations.get();
+    }
+
+    @Override
+    public Reload reload() {
+        return new Reload() {
+            @Override
+            public void add(Player player) {
+            }
+
+            @Override
+            public void swap() {
+                generation.incrementAndGet();
+                invalidations.addAndGet(counts.estimatedSize());
+                counts.invalidateAll();
+            }
+        };
+    }
+
+    @Override
+    public void onCreate(Player player) {
+        generation.incrementAndGet();
+        invalidateIf(plan -> plan.matchesExceptText(player));
+    }
+
+    @Override
+    public void onUpdate(Player before, Player after) {
+        generation.incrementAndGet();
+        boolean nameChanged = !Objects.equals(before.getName(), after.getName());
+        boolean titleChanged = !Objects.equals(before.getTitle(), after.getTitle());
+        invalidateIf(plan -> {
+            boolean matchedBefore = plan.matchesExceptText(before);
+            boolean matchesAfter = plan.matchesExceptText(after);
+            if (!matchedBefore && !matchesAfter) {
+                return false;
+            }
+            boolean textChanged = (plan.getName() != null && nameChanged) || (plan.getTitle() != null && titleChanged);
+            return textChanged || matchedBefore != matchesAfter;
+        });
+    }
+
+    @Override
+    public void onDelete(Player player) {
+        generation.incrementAndGet();
+        invalidateIf(plan -> plan.matchesExceptText(player));
+    }
+
+    private void invalidateIf(Predicate<PlayerQueryPlan> affected) {
+        for (PlayerQueryPlan plan : counts.asMap().keySet()) {
+            if (affected.test(plan)) {
+                counts.invalidate(plan);
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.game.index;
+
+import com.game.entity.Player;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap of the ids of live players.
+ * <p>
+ * Unlike a Bloom filter it is exact and supports deletes, so an unknown id is rejected without a query.
+ */
+@Component
+public class PlayerIdIndex implements PlayerIndex {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private RoaringBitmap ids = new RoaringBitmap();
+
+    public boolean contains(long id) {
+        if (id <= 0 || id > Integer.MAX_VALUE) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return ids.contains((int) id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Reload reload() {
+        RoaringBitmap loaded = new RoaringBitmap();
+        return new Reload() {
+            @Override
+            public void add(Player player) {
+                loaded.add(Math.toIntExact(player.getId()));
+            }
+
+            @Override
+            public void swap() {
+                loaded.runOptimize();
+                lock.writeLock().lock();
+                try {
+                    ids = loaded;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        };
+    }
+
+    @Override
+    public void onCreate(Player player) {
+        lock.writeLock().lock();
+        try {
+            ids.add(Math.toIntExact(player.getId()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onUpdate(Player before, Player after) {
+    }
+
+    @Override
+    public void onDelete(Player player) {
+        lock.writeLock().lock();
+        try {
+            ids.remove(Math.toIntExact(player.getId()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
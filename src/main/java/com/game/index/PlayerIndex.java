@@ -0,0 +1,43 @@
+package com.game.index;
+
+import com.game.entity.Player;
+
+/**
+ * In-memory structure derived from the player table.
+ * <p>
+ * {@link PlayerIndexes} loads every index at startup and passes on each committed write
+ * made through {@link com.game.service.PlayerService}. Implementations must be thread-safe.
+ */
+public interface PlayerIndex {
+
+    /**
+     * Starts a rebuild. The current content keeps serving reads and writes until {@link Reload#swap()}.
+     */
+    Reload reload();
+
+    void onCreate(Player player);
+
+    /**
+     * @param before state of the player before the update
+     * @param after  state of the player after the update
+     */
+    void onUpdate(Player before, Player after);
+
+    void onDelete(Player player);
+
+    /**
+     * Content of an index being rebuilt from a scan of the table, used by one thread.
+     */
+    interface Reload {
+
+        /**
+         * @param player row of the table, not kept after the call
+         */
+        void add(Player player);
+
+        /**
+         * Replaces the content of the index with the added players.
+         */
+        void swap();
+    }
+}
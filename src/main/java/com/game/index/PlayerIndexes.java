@@ -0,0 +1,172 @@
+package com.game.index;
+
+import com.game.dto.PlayerView;
+import com.game.entity.Player;
+import com.game.repository.PlayerRepository;
+import com.game.service.PlayerLocks;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Keeps all {@link PlayerIndex} beans in sync with the player table.
+ */
+@Component
+public class PlayerIndexes implements SmartInitializingSingleton {
+    private static final Specification<Player> ALL_PLAYERS = (root, query, cb) -> cb.conjunction();
+
+    private final PlayerRepository playerRepository;
+    private final List<PlayerIndex> indexes;
+    private final EntityManagerFactory entityManagerFactory;
+    private final PlayerLocks playerLocks;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+    // writes committed after the scan of the running rebuild started, applied again to the rebuilt indexes
+    private volatile Queue<Consumer<PlayerIndex>> missed;
+
+    @Autowired
+    public PlayerIndexes(PlayerRepository playerRepository, List<PlayerIndex> indexes,
+                         EntityManagerFactory entityManagerFactory, PlayerLocks playerLocks,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${index.reload.fetchSize}") int fetchSize) {
+        this.playerRepository = playerRepository;
+        this.indexes = indexes;
+        this.entityManagerFactory = entityManagerFactory;
+        this.playerLocks = playerLocks;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    /**
+     * Rebuilds every index from the table and drops the Hibernate caches. Needed after the table was changed
+     * bypassing {@link com.game.service.PlayerService}.
+     * <p>
+     * The rows are streamed from a forward-only cursor while the indexes keep serving and writers keep writing.
+     * Writers are stopped only while the cursor is opened and while the rebuilt content is swapped in,
+     * together with the writes committed during the scan.
+     */
+    public void reload() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        rebuild(indexes);
+    }
+
+    /**
+     * Rebuilds one index from the table the same way as {@link #reload()}, for an index that drifted from it.
+     */
+    public void reload(PlayerIndex index) {
+        rebuild(Collections.singletonList(index));
+    }
+
+    private synchronized void rebuild(List<PlayerIndex> rebuilt) {
+        List<PlayerIndex.Reload> reloads = new ArrayList<>();
+        for (PlayerIndex index : rebuilt) {
+            reloads.add(index.reload());
+        }
+        Queue<Consumer<PlayerIndex>> writes = new ConcurrentLinkedQueue<>();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                Stream<PlayerView> scan;
+                // a writer commits and runs its hooks under its player lock,
+                // so each write is either seen by the cursor or queued
+                try (PlayerLocks.Held ignored = playerLocks.lockAll()) {
+                    scan = playerRepository.streamViews(ALL_PLAYERS, Sort.unsorted(), fetchSize);
+                    missed = writes;
+                }
+                try (Stream<PlayerView> rows = scan) {
+                    int[] read = {0};
+                    rows.forEach(view -> {
+                        Player player = toPlayer(view);
+                        for (PlayerIndex.Reload reload : reloads) {
+                            reload.add(player);
+                        }
+                        if (++read[0] % fetchSize == 0) {
+                            playerRepository.flushAndClear();
+                        }
+                    });
+                }
+            });
+            try (PlayerLocks.Held ignored = playerLocks.lockAll()) {
+                for (PlayerIndex.Reload reload : reloads) {
+                    reload.swap();
+                }
+                for (Consumer<PlayerIndex> write : writes) {
+                    for (PlayerIndex index : rebuilt) {
+                        write.accept(index);
+                    }
+                }
+            }
+        } finally {
+            missed = null;
+        }
+    }
+
+    public void onCreate(Player player) {
+        for (PlayerIndex index : indexes) {
+            index.onCreate(player);
+        }
+        Queue<Consumer<PlayerIndex>> writes = missed;
+        if (writes != null) {
+            Player created = new Player(player);
+            writes.add(index -> index.onCreate(created));
+        }
+    }
+
+    public void onUpdate(Player before, Player after) {
+        for (PlayerIndex index : indexes) {
+            index.onUpdate(before, after);
+        }
+        Queue<Consumer<PlayerIndex>> writes = missed;
+        if (writes != null) {
+            Player updatedFrom = new Player(before);
+            Player updatedTo = new Player(after);
+            writes.add(index -> index.onUpdate(updatedFrom, updatedTo));
+        }
+    }
+
+    public void onDelete(Player player) {
+        for (PlayerIndex index : indexes) {
+            index.onDelete(player);
+        }
+        Queue<Consumer<PlayerIndex>> writes = missed;
+        if (writes != null) {
+            Player deleted = new Player(player);
+            writes.add(index -> index.onDelete(deleted));
+        }
+    }
+
+    private static Player toPlayer(PlayerView view) {
+        Player player = new Player();
+        player.setId(view.getId());
+        player.setName(view.getName());
+        player.setTitle(view.getTitle());
+        player.setRace(view.getRace());
+        player.setProfession(view.getProfession());
+        player.setBirthday(view.getBirthday());
+        player.setBanned(view.getBanned());
+        player.setExperience(view.getExperience());
+        player.setLevel(view.getLevel());
+        player.setUntilNextLevel(view.getUntilNextLevel());
+        return player;
+    }
+}
@@ -0,0 +1,209 @@
+package com.game.index;
+
+import com.game.dto.PlayerStatsDto;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Count, sum, min and max of experience and level per race, profession and banned value.
+ * <p>
+ * Cells change by one player per write, so reading all aggregates costs O(cells).
+ * Min and max survive deletes because each cell keeps its values as a sorted multiset.
+ */
+@Component
+public class PlayerStatsIndex implements PlayerIndex {
+    public static final Comparator<PlayerStatsDto> CELL_ORDER = Comparator
+            .comparing(PlayerStatsDto::getRace, Comparator.nullsFirst(Comparator.<Race>naturalOrder()))
+            .thenComparing(PlayerStatsDto::getProfession, Comparator.nullsFirst(Comparator.<Profession>naturalOrder()))
+            .thenComparing(PlayerStatsDto::getBanned, Comparator.nullsFirst(Comparator.<Boolean>naturalOrder()));
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<CellKey, Cell> cells = new HashMap<>();
+    private volatile long version;
+
+    /**
+     * @return aggregates of every non-empty cell, ordered by race, profession and banned
+     */
+    public List<PlayerStatsDto> snapshot() {
+        List<PlayerStatsDto> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<CellKey, Cell> entry : cells.entrySet()) {
+                result.add(entry.getValue().toDto(entry.getKey()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(CELL_ORDER);
+        return result;
+    }
+
+    /**
+     * @return number of changes applied so far, to detect writes racing with a reconciliation
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public Reload reload() {
+        Map<CellKey, Cell> loaded = new HashMap<>();
+        return new Reload() {
+            @Override
+            public void add(Player player) {
+                PlayerStatsIndex.add(loaded, player);
+            }
+
+            @Override
+            public void swap() {
+                lock.writeLock().lock();
+                try {
+                    cells = loaded;
+                    version++;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        };
+    }
+
+    @Override
+    public void onCreate(Player player) {
+        lock.writeLock().lock();
+        try {
+            add(cells, player);
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onUpdate(Player before, Player after) {
+        lock.writeLock().lock();
+        try {
+            remove(cells, before);
+            add(cells, after);
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onDelete(Player player) {
+        lock.writeLock().lock();
+        try {
+            remove(cells, player);
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void add(Map<CellKey, Cell> cells, Player player) {
+        cells.computeIfAbsent(CellKey.of(player), key -> new Cell()).add(player);
+    }
+
+    private static void remove(Map<CellKey, Cell> cells, Player player) {
+        CellKey key = CellKey.of(player);
+        Cell cell = cells.get(key);
+        if (cell != null) {
+            cell.remove(player);
+            if (cell.count == 0) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private static final class CellKey {
+        private final Race race;
+        private final Profession profession;
+        private final Boolean banned;
+
+        private CellKey(Race race, Profession profession, Boolean banned) {
+            this.race = race;
+            this.profession = profession;
+            this.banned = banned;
+        }
+
+        static CellKey of(Player player) {
+            return new CellKey(player.getRace(), player.getProfession(), player.getBanned());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CellKey that = (CellKey) o;
+            return race == that.race && profession == that.profession && Objects.equals(banned, that.banned);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(race, profession, banned);
+        }
+    }
+
+    private static final class Cell {
+        private final TreeMap<Integer, Integer> experiences = new TreeMap<>();
+        private final TreeMap<Integer, Integer> levels = new TreeMap<>();
+        private long count;
+        private long experienceSum;
+        private long levelSum;
+
+        void add(Player player) {
+            count++;
+            if (player.getExperience() != null) {
+                experienceSum += player.getExperience();
+                experiences.merge(player.getExperience(), 1, Integer::sum);
+            }
+            if (player.getLevel() != null) {
+                levelSum += player.getLevel();
+                levels.merge(player.getLevel(), 1, Integer::sum);
+            }
+        }
+
+        void remove(Player player) {
+            count--;
+            if (player.getExperience() != null) {
+                experienceSum -= player.getExperience();
+                decrement(experiences, player.getExperience());
+            }
+            if (player.getLevel() != null) {
+                levelSum -= player.getLevel();
+                decrement(levels, player.getLevel());
+            }
+        }
+
+        private static void decrement(TreeMap<Integer, Integer> values, Integer value) {
+            values.computeIfPresent(value, (key, times) -> times == 1 ? null : times - 1);
+        }
+
+        PlayerStatsDto toDto(CellKey key) {
+            return new PlayerStatsDto(key.race, key.profession, key.banned, count,
+                    experienceSum,
+                    experiences.isEmpty() ? null : experiences.firstKey(),
+                    experiences.isEmpty() ? null : experiences.lastKey(),
+                    levelSum,
+                    levels.isEmpty() ? null : levels.firstKey(),
+                    levels.isEmpty() ? null : levels.lastKey());
+        }
+    }
+}
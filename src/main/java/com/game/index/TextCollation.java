@@ -0,0 +1,67 @@
+package com.game.index;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.text.Collator;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Text order and {@code lower(text) LIKE} semantics of the database, for filters evaluated in memory.
+ */
+enum TextCollation {
+    /**
+     * H2 without a collation: code point order, matching of the lower-cased text.
+     */
+    BINARY {
+        @Override
+        String normalize(String text) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+
+        @Override
+        Comparator<String> comparator() {
+            return Comparator.naturalOrder();
+        }
+    },
+    /**
+     * MySQL {@code utf8mb4_unicode_ci}: case and accent insensitive, {@code ё} equal to {@code е}.
+     */
+    UNICODE_CI {
+        @Override
+        String normalize(String text) {
+            return NgramIndex.fold(text);
+        }
+
+        @Override
+        Comparator<String> comparator() {
+            Collator collator = Collator.getInstance(Locale.ROOT);
+            collator.setStrength(Collator.PRIMARY);
+            // decomposed, so marks such as the breve of й are ignored at the primary strength
+            collator.setDecomposition(Collator.CANONICAL_DECOMPOSITION);
+            return collator::compare;
+        }
+    };
+
+    /**
+     * @return text in the form the {@code LIKE} of the database compares
+     */
+    abstract String normalize(String text);
+
+    /**
+     * @return order of the texts, not shared between threads
+     */
+    abstract Comparator<String> comparator();
+
+    static TextCollation of(DataSource dataSource) {
+        try {
+            String product = (String) JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return product.toLowerCase(Locale.ROOT).contains("mysql") ? UNICODE_CI : BINARY;
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Cannot detect the database of the columnar store", e);
+        }
+    }
+}
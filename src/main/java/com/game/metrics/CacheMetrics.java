@@ -0,0 +1,64 @@
+package com.game.metrics;
+
+import com.game.index.PlayerCountCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the standard JCache statistics MBeans of the Hibernate cache regions and the stats of the count cache.
+ */
+@Component
+public class CacheMetrics {
+    public static final String COUNT_REGION = "players-count";
+
+    private final CacheManager cacheManager;
+    private final PlayerCountCache playerCountCache;
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    @Autowired
+    public CacheMetrics(CacheManager cacheManager, PlayerCountCache playerCountCache) {
+        this.cacheManager = cacheManager;
+        this.playerCountCache = playerCountCache;
+    }
+
+    public List<CacheRegionSnapshot> snapshot() throws JMException {
+        List<CacheRegionSnapshot> result = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache<Object, Object> cache = cacheManager.getCache(name);
+            ObjectName objectName = new ObjectName("javax.cache:type=CacheStatistics"
+                    + ",CacheManager=" + sanitize(cacheManager.getURI().toString())
+                    + ",Cache=" + sanitize(name));
+            long size = cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+            result.add(new CacheRegionSnapshot(name, size,
+                    (Long) mBeanServer.getAttribute(objectName, "CacheHits"),
+                    (Long) mBeanServer.getAttribute(objectName, "CacheMisses"),
+                    (Float) mBeanServer.getAttribute(objectName, "CacheHitPercentage"),
+                    (Long) mBeanServer.getAttribute(objectName, "CachePuts"),
+                    (Long) mBeanServer.getAttribute(objectName, "CacheRemovals"),
+                    (Long) mBeanServer.getAttribute(objectName, "CacheEvictions")));
+        }
+
+        CacheStats counts = playerCountCache.stats();
+        result.add(new CacheRegionSnapshot(COUNT_REGION, playerCountCache.size(),
+                counts.hitCount(), counts.missCount(), (float) (counts.hitRate() * 100),
+                counts.missCount(), playerCountCache.invalidations(), counts.evictionCount()));
+        return result;
+    }
+
+    /**
+     * Same escaping as the JCache provider uses for the MBean name.
+     */
+    private static String sanitize(String name) {
+        return name.replaceAll("[,:=\n]", ".");
+    }
+}
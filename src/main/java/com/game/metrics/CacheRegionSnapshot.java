@@ -0,0 +1,65 @@
+package com.game.metrics;
+
+public class CacheRegionSnapshot {
+    private final String region;
+    private final long size;
+    private final long hits;
+    private final long misses;
+    private final float hitPercentage;
+    private final long puts;
+    private final long removals;
+    private final long evictions;
+
+    public CacheRegionSnapshot(String region, long size, long hits, long misses, float hitPercentage,
+                               long puts, long removals, long evictions) {
+        this.region = region;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.hitPercentage = hitPercentage;
+        this.puts = puts;
+        this.removals = removals;
+        this.evictions = evictions;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    /**
+     * @return approximate number of entries
+     */
+    public long getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public float getHitPercentage() {
+        return hitPercentage;
+    }
+
+    public long getPuts() {
+        return puts;
+    }
+
+    /**
+     * @return entries invalidated by writes or evicted explicitly
+     */
+    public long getRemovals() {
+        return removals;
+    }
+
+    /**
+     * @return entries dropped by the size limit or expiration
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+}
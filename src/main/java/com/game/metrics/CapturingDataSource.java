@@ -0,0 +1,203 @@
+package com.game.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Data source recording the statements, bind values, times and row counts of captured requests.
+ * <p>
+ * Connections taken on a thread without a {@link SlowRequestCapture} are returned as is.
+ */
+public class CapturingDataSource extends DelegatingDataSource implements Closeable {
+
+    public CapturingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return capture(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return capture(super.getConnection(username, password));
+    }
+
+    private static Connection capture(Connection connection) {
+        SlowRequestCapture capture = SlowRequestCapture.current();
+        if (capture == null) {
+            return connection;
+        }
+        return proxy(Connection.class, new ConnectionHandler(connection, capture));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (getTargetDataSource() instanceof Closeable) {
+            ((Closeable) getTargetDataSource()).close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<?> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(CapturingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private abstract static class Handler implements InvocationHandler {
+        private final Object target;
+
+        Handler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return handle(method, args);
+            }
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static final class ConnectionHandler extends Handler {
+        private final SlowRequestCapture capture;
+
+        ConnectionHandler(Connection target, SlowRequestCapture capture) {
+            super(target);
+            this.capture = capture;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = call(method, args);
+            if (result instanceof Statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return proxy(method.getReturnType(), new StatementHandler((Statement) result, sql, capture));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler extends Handler {
+        private final String sql;
+        private final SlowRequestCapture capture;
+        private final Map<Integer, Object> binds = new TreeMap<>();
+        private Object[] firstBatch;
+        private String batchSql;
+        private SlowStatement last;
+
+        StatementHandler(Statement target, String sql, SlowRequestCapture capture) {
+            super(target);
+            this.sql = sql;
+            this.capture = capture;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                binds.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                binds.clear();
+            } else if (name.equals("addBatch")) {
+                if (firstBatch == null) {
+                    firstBatch = binds.values().toArray();
+                    batchSql = args != null && args.length > 0 ? (String) args[0] : sql;
+                }
+            } else if (name.equals("getResultSet")) {
+                return resultSet(call(method, args));
+            }
+            return call(method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            boolean batch = method.getName().endsWith("Batch");
+            if (batch) {
+                last = capture.statement(batchSql, firstBatch == null ? new Object[0] : firstBatch);
+                firstBatch = null;
+            } else {
+                String executed = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+                last = capture.statement(executed, binds.values().toArray());
+            }
+            long started = System.nanoTime();
+            Object result = call(method, args);
+            last.executed(System.nanoTime() - started, affectedRows(result));
+            return resultSet(result);
+        }
+
+        private static long affectedRows(Object result) {
+            if (result instanceof Number) {
+                return ((Number) result).longValue();
+            }
+            long rows = 0;
+            if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    rows += Math.max(count, 0);
+                }
+            } else if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    rows += Math.max(count, 0);
+                }
+            }
+            return rows;
+        }
+
+        private Object resultSet(Object result) {
+            if (result instanceof ResultSet && last != null) {
+                return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, last));
+            }
+            return result;
+        }
+    }
+
+    private static final class ResultSetHandler extends Handler {
+        private final SlowStatement statement;
+
+        ResultSetHandler(ResultSet target, SlowStatement statement) {
+            super(target);
+            this.statement = statement;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            if (!method.getName().equals("next")) {
+                return call(method, args);
+            }
+            long started = System.nanoTime();
+            Object result = call(method, args);
+            statement.fetched(System.nanoTime() - started, (Boolean) result);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.game.metrics;
+
+public class CoalescingKeySnapshot {
+    private final String key;
+    private final long executions;
+    private final long coalesced;
+    private final LatencySnapshot latency;
+
+    public CoalescingKeySnapshot(String key, long executions, long coalesced, LatencySnapshot latency) {
+        this.key = key;
+        this.executions = executions;
+        this.coalesced = coalesced;
+        this.latency = latency;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getExecutions() {
+        return executions;
+    }
+
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * @return duration of the queries run for the key
+     */
+    public LatencySnapshot getLatency() {
+        return latency;
+    }
+}
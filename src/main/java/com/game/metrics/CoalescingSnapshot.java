@@ -0,0 +1,52 @@
+package com.game.metrics;
+
+import java.util.List;
+
+public class CoalescingSnapshot {
+    private final long executions;
+    private final long coalesced;
+    private final long timedOut;
+    private final double dedupRatio;
+    private final List<CoalescingKeySnapshot> keys;
+
+    public CoalescingSnapshot(long executions, long coalesced, long timedOut, List<CoalescingKeySnapshot> keys) {
+        this.executions = executions;
+        this.coalesced = coalesced;
+        this.timedOut = timedOut;
+        long requests = executions + coalesced - timedOut;
+        this.dedupRatio = requests == 0 ? 0 : (double) (coalesced - timedOut) / requests;
+        this.keys = keys;
+    }
+
+    /**
+     * @return number of queries actually run
+     */
+    public long getExecutions() {
+        return executions;
+    }
+
+    /**
+     * @return number of requests that waited for a query of a concurrent request
+     */
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * @return number of waiting requests that gave up and ran their own query
+     */
+    public long getTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * @return share of requests that didn't run their own query
+     */
+    public double getDedupRatio() {
+        return dedupRatio;
+    }
+
+    public List<CoalescingKeySnapshot> getKeys() {
+        return keys;
+    }
+}
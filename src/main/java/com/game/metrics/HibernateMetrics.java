@@ -0,0 +1,46 @@
+package com.game.metrics;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Hibernate session factory statistics, collected with {@code metrics.hibernateStatistics}.
+ * <p>
+ * Only totals are exported: Hibernate keys its per-query statistics by the query string, which inlines
+ * criteria literals, so a series per query would grow with every distinct filter value.
+ */
+@Component
+public class HibernateMetrics {
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    public HibernateMetrics(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void writeTo(PrometheusWriter writer) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return;
+        }
+        writer.metric("rpg_hibernate_sessions_opened_total", "Sessions opened.", "counter", statistics.getSessionOpenCount());
+        writer.metric("rpg_hibernate_transactions_total", "Transactions completed.", "counter", statistics.getTransactionCount());
+        writer.metric("rpg_hibernate_statements_prepared_total", "JDBC statements prepared.", "counter", statistics.getPrepareStatementCount());
+        writer.metric("rpg_hibernate_flushes_total", "Session flushes.", "counter", statistics.getFlushCount());
+        writer.metric("rpg_hibernate_entity_loads_total", "Entities loaded.", "counter", statistics.getEntityLoadCount());
+        writer.metric("rpg_hibernate_entity_fetches_total", "Entities fetched by a separate query.", "counter", statistics.getEntityFetchCount());
+        writer.metric("rpg_hibernate_entity_inserts_total", "Entities inserted.", "counter", statistics.getEntityInsertCount());
+        writer.metric("rpg_hibernate_entity_updates_total", "Entities updated.", "counter", statistics.getEntityUpdateCount());
+        writer.metric("rpg_hibernate_entity_deletes_total", "Entities deleted.", "counter", statistics.getEntityDeleteCount());
+        writer.metric("rpg_hibernate_queries_total", "Queries executed.", "counter", statistics.getQueryExecutionCount());
+        writer.metric("rpg_hibernate_query_max_seconds", "Slowest query execution.", "gauge", statistics.getQueryExecutionMaxTime() / 1e3);
+        writer.metric("rpg_hibernate_second_level_cache_hits_total", "Second-level cache hits.", "counter", statistics.getSecondLevelCacheHitCount());
+        writer.metric("rpg_hibernate_second_level_cache_misses_total", "Second-level cache misses.", "counter", statistics.getSecondLevelCacheMissCount());
+        writer.metric("rpg_hibernate_query_cache_hits_total", "Query cache hits.", "counter", statistics.getQueryCacheHitCount());
+        writer.metric("rpg_hibernate_query_cache_misses_total", "Query cache misses.", "counter", statistics.getQueryCacheMissCount());
+    }
+}
@@ -0,0 +1,59 @@
+package com.game.metrics;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe latency histogram with microsecond resolution.
+ * Recording does not take locks, so it can sit on hot paths.
+ */
+public class LatencyHistogram {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final ConcurrentHistogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+
+    public void recordNanos(long nanos) {
+        recordMicros(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    public void recordMillis(long millis) {
+        recordMicros(TimeUnit.MILLISECONDS.toMicros(millis));
+    }
+
+    private void recordMicros(long micros) {
+        histogram.recordValue(Math.min(Math.max(micros, 0), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    public LatencySnapshot snapshot() {
+        Histogram copy = histogram.copy();
+        return new LatencySnapshot(
+                copy.getTotalCount(),
+                copy.getMean(),
+                copy.getValueAtPercentile(50),
+                copy.getValueAtPercentile(90),
+                copy.getValueAtPercentile(99),
+                copy.getValueAtPercentile(99.9),
+                copy.getMaxValue());
+    }
+
+    /**
+     * @param boundsMicros increasing upper bounds of the buckets
+     * @return number of latencies up to each bound, followed by the count of all of them
+     */
+    public long[] cumulativeCounts(long[] boundsMicros) {
+        Histogram copy = histogram.copy();
+        long[] counts = new long[boundsMicros.length + 1];
+        for (int i = 0; i < boundsMicros.length; i++) {
+            counts[i] = copy.getCountBetweenValues(0, boundsMicros[i]);
+        }
+        counts[boundsMicros.length] = copy.getTotalCount();
+        return counts;
+    }
+
+    public void reset() {
+        histogram.reset();
+    }
+}
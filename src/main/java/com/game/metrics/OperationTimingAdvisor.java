@@ -0,0 +1,89 @@
+package com.game.metrics;
+
+import com.game.repository.PlayerRepository;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Times the public methods of the services and of {@link PlayerRepository}, and the specifications passed to the
+ * repository. An infrastructure advisor, so the proxies that already apply transactions take it on, rather than
+ * wrapping the beans once more.
+ */
+@Component
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class OperationTimingAdvisor extends StaticMethodMatcherPointcutAdvisor {
+    private final OperationTimings timings;
+    private final ConcurrentMap<Method, String> names = new ConcurrentHashMap<>();
+
+    @Autowired
+    public OperationTimingAdvisor(OperationTimings timings) {
+        this.timings = timings;
+        setAdvice((MethodInterceptor) this::invoke);
+        setClassFilter(type -> timings.isEnabled() && (isService(type) || isRepository(type)));
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class;
+    }
+
+    private Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        boolean repository = invocation.getThis() instanceof PlayerRepository;
+        if (repository) {
+            Object[] arguments = invocation.getArguments();
+            for (int i = 0; i < arguments.length; i++) {
+                if (arguments[i] instanceof Specification) {
+                    arguments[i] = timed((Specification<?>) arguments[i]);
+                }
+            }
+        }
+        long started = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            timings.record(repository ? TimedLayer.REPOSITORY : TimedLayer.SERVICE,
+                    names.computeIfAbsent(method, m -> name(m, repository)), System.nanoTime() - started);
+        }
+    }
+
+    private <T> Specification<T> timed(Specification<T> specification) {
+        // compositions of specifications are lambdas
+        String name = specification.getClass().isSynthetic() ? "Specification" : specification.getClass().getSimpleName();
+        return (root, query, criteriaBuilder) -> {
+            long started = System.nanoTime();
+            try {
+                return specification.toPredicate(root, query, criteriaBuilder);
+            } finally {
+                timings.record(TimedLayer.SPECIFICATION, name, System.nanoTime() - started);
+            }
+        };
+    }
+
+    private static String name(Method method, boolean repository) {
+        // repository methods are declared all over the Spring Data interfaces
+        String owner = repository ? PlayerRepository.class.getSimpleName() : method.getDeclaringClass().getSimpleName();
+        return owner + "." + method.getName();
+    }
+
+    private static boolean isService(Class<?> type) {
+        return AnnotatedElementUtils.hasAnnotation(type, Service.class);
+    }
+
+    private static boolean isRepository(Class<?> type) {
+        return PlayerRepository.class.isAssignableFrom(type);
+    }
+}
@@ -0,0 +1,68 @@
+package com.game.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms of handlers, service methods, repository calls and specifications, by operation name.
+ * <p>
+ * Exported as cumulative Prometheus buckets, so recent quantiles come from the rate of the buckets rather than
+ * from the histograms, which hold every latency since startup.
+ */
+@Component
+public class OperationTimings {
+    private static final long[] BUCKET_MICROS = {
+            100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000,
+            1_000_000, 2_500_000, 5_000_000, 10_000_000};
+
+    private final boolean enabled;
+    // the layer timings of a slow request are captured only while the slow request log is on
+    private final boolean slowRequestsCaptured;
+    private final Map<TimedLayer, ConcurrentMap<String, Timer>> timers = new EnumMap<>(TimedLayer.class);
+
+    @Autowired
+    public OperationTimings(@Value("${metrics.enabled}") boolean enabled,
+                            @Value("${slowlog.enabled}") boolean slowRequestsCaptured) {
+        this.enabled = enabled;
+        this.slowRequestsCaptured = slowRequestsCaptured;
+        for (TimedLayer layer : TimedLayer.values()) {
+            timers.put(layer, new ConcurrentHashMap<>());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(TimedLayer layer, String operation, long nanos) {
+        Timer timer = timers.get(layer).computeIfAbsent(operation, name -> new Timer());
+        timer.latency.recordNanos(nanos);
+        timer.totalNanos.add(nanos);
+        if (slowRequestsCaptured) {
+            SlowRequestCapture.recordLayer(layer, nanos);
+        }
+    }
+
+    public void writeTo(PrometheusWriter writer) {
+        writer.type("rpg_operation_duration_seconds", "Time spent in an operation, by layer.", "histogram");
+        for (Map.Entry<TimedLayer, ConcurrentMap<String, Timer>> layer : timers.entrySet()) {
+            for (Map.Entry<String, Timer> entry : layer.getValue().entrySet()) {
+                writer.histogram("rpg_operation_duration_seconds", BUCKET_MICROS,
+                        entry.getValue().latency.cumulativeCounts(BUCKET_MICROS), entry.getValue().totalNanos.sum() / 1e9,
+                        "layer", layer.getKey().label(), "operation", entry.getKey());
+            }
+        }
+    }
+
+    private static final class Timer {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder totalNanos = new LongAdder();
+    }
+}
@@ -0,0 +1,65 @@
+package com.game.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects connection pool statistics reported by Hikari.
+ */
+public class PoolMetrics implements MetricsTrackerFactory {
+    private final LatencyHistogram borrowLatency = new LatencyHistogram();
+    private final LatencyHistogram usageTime = new LatencyHistogram();
+    private final LatencyHistogram creationTime = new LatencyHistogram();
+    private final LongAdder timeouts = new LongAdder();
+    private volatile String poolName;
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolName = poolName;
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                creationTime.recordMillis(connectionCreatedMillis);
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                borrowLatency.recordNanos(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usageTime.recordMillis(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    public PoolMetricsSnapshot snapshot() {
+        PoolStats stats = poolStats;
+        if (stats == null) {
+            return new PoolMetricsSnapshot(poolName, 0, 0, 0, 0, 0, timeouts.sum(),
+                    borrowLatency.snapshot(), usageTime.snapshot(), creationTime.snapshot());
+        }
+        return new PoolMetricsSnapshot(
+                poolName,
+                stats.getActiveConnections(),
+                stats.getIdleConnections(),
+                stats.getTotalConnections(),
+                stats.getPendingThreads(),
+                stats.getMaxConnections(),
+                timeouts.sum(),
+                borrowLatency.snapshot(),
+                usageTime.snapshot(),
+                creationTime.snapshot());
+    }
+}
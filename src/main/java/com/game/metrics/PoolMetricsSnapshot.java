@@ -0,0 +1,68 @@
+package com.game.metrics;
+
+public class PoolMetricsSnapshot {
+    private final String poolName;
+    private final int active;
+    private final int idle;
+    private final int total;
+    private final int pending;
+    private final int max;
+    private final long timeouts;
+    private final LatencySnapshot borrowLatency;
+    private final LatencySnapshot usageTime;
+    private final LatencySnapshot creationTime;
+
+    public PoolMetricsSnapshot(String poolName, int active, int idle, int total, int pending, int max, long timeouts,
+                               LatencySnapshot borrowLatency, LatencySnapshot usageTime, LatencySnapshot creationTime) {
+        this.poolName = poolName;
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.pending = pending;
+        this.max = max;
+        this.timeouts = timeouts;
+        this.borrowLatency = borrowLatency;
+        this.usageTime = usageTime;
+        this.creationTime = creationTime;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public LatencySnapshot getBorrowLatency() {
+        return borrowLatency;
+    }
+
+    public LatencySnapshot getUsageTime() {
+        return usageTime;
+    }
+
+    public LatencySnapshot getCreationTime() {
+        return creationTime;
+    }
+}
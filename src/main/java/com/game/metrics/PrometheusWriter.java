@@ -0,0 +1,96 @@
+package com.game.metrics;
+
+import java.math.BigDecimal;
+
+/**
+ * Builds the Prometheus text exposition format, version 0.0.4.
+ */
+public class PrometheusWriter {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final StringBuilder text = new StringBuilder();
+
+    public void type(String name, String help, String type) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * @param labels label names and values, alternating
+     */
+    public void sample(String name, double value, String... labels) {
+        text.append(name);
+        if (labels.length > 0) {
+            text.append('{');
+            for (int i = 0; i < labels.length; i += 2) {
+                if (i > 0) {
+                    text.append(',');
+                }
+                text.append(labels[i]).append("=\"");
+                escape(labels[i + 1]);
+                text.append('"');
+            }
+            text.append('}');
+        }
+        text.append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            text.append((long) value);
+        } else {
+            text.append(value);
+        }
+        text.append('\n');
+    }
+
+    public void metric(String name, String help, String type, double value) {
+        type(name, help, type);
+        sample(name, value);
+    }
+
+    /**
+     * Cumulative buckets in seconds, with the total and the count. Quantiles over any recent window come from
+     * {@code histogram_quantile} on the rate of the buckets.
+     *
+     * @param cumulativeCounts counts up to each bound and the count of all latencies, see
+     *                         {@link LatencyHistogram#cumulativeCounts}
+     */
+    public void histogram(String name, long[] boundsMicros, long[] cumulativeCounts, double sumSeconds,
+                          String... labels) {
+        for (int i = 0; i < boundsMicros.length; i++) {
+            sample(name + "_bucket", cumulativeCounts[i], withLabel(labels, "le", seconds(boundsMicros[i])));
+        }
+        long count = cumulativeCounts[boundsMicros.length];
+        sample(name + "_bucket", count, withLabel(labels, "le", "+Inf"));
+        sample(name + "_sum", sumSeconds, labels);
+        sample(name + "_count", count, labels);
+    }
+
+    private static String seconds(long micros) {
+        return BigDecimal.valueOf(micros).movePointLeft(6).stripTrailingZeros().toPlainString();
+    }
+
+    private static String[] withLabel(String[] labels, String name, String value) {
+        String[] result = new String[labels.length + 2];
+        System.arraycopy(labels, 0, result, 0, labels.length);
+        result[labels.length] = name;
+        result[labels.length + 1] = value;
+        return result;
+    }
+
+    private void escape(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                text.append('\\').append(c);
+            } else if (c == '\n') {
+                text.append("\\n");
+            } else {
+                text.append(c);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return text.toString();
+    }
+}
@@ -0,0 +1,108 @@
+package com.game.metrics;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request that took longer than the slow request threshold. Times are in microseconds.
+ */
+public class SlowRequest {
+    private final long id;
+    private final long timestamp;
+    private final String method;
+    private final String uri;
+    private final String handler;
+    private final int status;
+    private final String filter;
+    private final long totalMicros;
+    private final long sqlMicros;
+    private final long rows;
+    private final Map<String, Long> layerMicros;
+    private final List<SlowStatement> statements;
+    private final int omittedStatements;
+    private volatile Integer explainedStatement;
+    private volatile String explain;
+
+    public SlowRequest(long id, long timestamp, String method, String uri, String handler, int status, String filter,
+                       long totalMicros, long sqlMicros, long rows, Map<String, Long> layerMicros,
+                       List<SlowStatement> statements, int omittedStatements) {
+        this.id = id;
+        this.timestamp = timestamp;
+        this.method = method;
+        this.uri = uri;
+        this.handler = handler;
+        this.status = status;
+        this.filter = filter;
+        this.totalMicros = totalMicros;
+        this.sqlMicros = sqlMicros;
+        this.rows = rows;
+        this.layerMicros = layerMicros;
+        this.statements = statements;
+        this.omittedStatements = omittedStatements;
+    }
+
+    void explained(int statement, String plan) {
+        this.explainedStatement = statement;
+        this.explain = plan;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public String getHandler() {
+        return handler;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    public long getTotalMicros() {
+        return totalMicros;
+    }
+
+    public long getSqlMicros() {
+        return sqlMicros;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public Map<String, Long> getLayerMicros() {
+        return layerMicros;
+    }
+
+    public List<SlowStatement> getStatements() {
+        return statements;
+    }
+
+    public int getOmittedStatements() {
+        return omittedStatements;
+    }
+
+    public Integer getExplainedStatement() {
+        return explainedStatement;
+    }
+
+    public String getExplain() {
+        return explain;
+    }
+}
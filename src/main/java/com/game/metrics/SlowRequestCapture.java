@@ -0,0 +1,103 @@
+package com.game.metrics;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Statements, filter and layer timings of the request handled by the current thread.
+ * <p>
+ * Exists only while the slow request log is on; every hook is a no-op on threads without a capture.
+ */
+public final class SlowRequestCapture {
+    private static final ThreadLocal<SlowRequestCapture> CURRENT = new ThreadLocal<>();
+    private static final Object[] NO_VALUES = new Object[0];
+
+    private final long started = System.nanoTime();
+    private final int maxStatements;
+    private final List<SlowStatement> statements = new ArrayList<>();
+    private final Map<TimedLayer, Long> layerNanos = new EnumMap<>(TimedLayer.class);
+    // sums the statements past the limit
+    private SlowStatement omitted;
+    private int omittedCount;
+    private Supplier<String> filter;
+
+    private SlowRequestCapture(int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+
+    static void start(int maxStatements) {
+        CURRENT.set(new SlowRequestCapture(maxStatements));
+    }
+
+    /**
+     * @return capture of the current thread, null if it had none
+     */
+    static SlowRequestCapture stop() {
+        SlowRequestCapture capture = CURRENT.get();
+        CURRENT.remove();
+        return capture;
+    }
+
+    static SlowRequestCapture current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Remembers the filter of the current request, if it is captured.
+     *
+     * @param filter normalized filter, described only if the request turns out slow
+     */
+    public static void attachFilter(Supplier<String> filter) {
+        SlowRequestCapture capture = CURRENT.get();
+        if (capture != null) {
+            capture.filter = filter;
+        }
+    }
+
+    static void recordLayer(TimedLayer layer, long nanos) {
+        SlowRequestCapture capture = CURRENT.get();
+        if (capture != null) {
+            capture.layerNanos.merge(layer, nanos, Long::sum);
+        }
+    }
+
+    SlowStatement statement(String sql, Object[] values) {
+        if (statements.size() < maxStatements) {
+            SlowStatement statement = new SlowStatement(sql, values);
+            statements.add(statement);
+            return statement;
+        }
+        omittedCount++;
+        if (omitted == null) {
+            omitted = new SlowStatement(null, NO_VALUES);
+        }
+        return omitted;
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - started;
+    }
+
+    List<SlowStatement> getStatements() {
+        return statements;
+    }
+
+    SlowStatement getOmitted() {
+        return omitted;
+    }
+
+    int getOmittedCount() {
+        return omittedCount;
+    }
+
+    Map<TimedLayer, Long> getLayerNanos() {
+        return layerNanos;
+    }
+
+    String describeFilter() {
+        return filter == null ? null : filter.get();
+    }
+}
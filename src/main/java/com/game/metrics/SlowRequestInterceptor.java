@@ -0,0 +1,40 @@
+package com.game.metrics;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Captures the controller handlers for the {@link SlowRequestLog}.
+ */
+public class SlowRequestInterceptor implements HandlerInterceptor {
+    private final SlowRequestLog slowRequestLog;
+
+    public SlowRequestInterceptor(SlowRequestLog slowRequestLog) {
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (slowRequestLog.isEnabled() && handler instanceof HandlerMethod) {
+            slowRequestLog.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!slowRequestLog.isEnabled() || !(handler instanceof HandlerMethod)) {
+            return;
+        }
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        String uri = request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+        slowRequestLog.finish(request.getMethod(), uri,
+                handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName(),
+                response.getStatus());
+    }
+}
@@ -0,0 +1,255 @@
+package com.game.metrics;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Requests slower than {@code slowlog.thresholdMs} with their filter, statements and layer timings.
+ * <p>
+ * The last {@code slowlog.capacity} requests are kept in memory. Each one is also appended as a JSON line
+ * to {@code slowlog.directory/slow-requests.log}, rolled over at {@code slowlog.file.maxBytes}, after the plan
+ * of its slowest query has been explained when {@code slowlog.explain} is on.
+ */
+@Component
+public class SlowRequestLog implements DisposableBean {
+    private static final Logger LOG = LoggerFactory.getLogger(SlowRequestLog.class);
+    private static final String FILE = "slow-requests.log";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final int maxStatements;
+    private final boolean explain;
+    private final Path file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final SlowRequest[] ring;
+    private long recorded;
+    // explains the plans and writes the file off the request threads, drops the writes it cannot keep up with
+    private final ThreadPoolExecutor writer;
+
+    @Autowired
+    public SlowRequestLog(DataSource dataSource,
+                          @Value("${slowlog.enabled}") boolean enabled,
+                          @Value("${slowlog.thresholdMs}") long thresholdMs,
+                          @Value("${slowlog.capacity}") int capacity,
+                          @Value("${slowlog.maxStatements}") int maxStatements,
+                          @Value("${slowlog.explain}") boolean explain,
+                          @Value("${slowlog.directory}") String directory,
+                          @Value("${slowlog.file.maxBytes}") long maxFileBytes,
+                          @Value("${slowlog.file.count}") int maxFiles) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.enabled = enabled;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.maxStatements = maxStatements;
+        this.explain = explain;
+        this.file = Paths.get(directory, FILE);
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        this.ring = new SlowRequest[capacity];
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(capacity),
+                new CustomizableThreadFactory("slow-request-log-"),
+                (task, executor) -> LOG.warn("Slow request log is behind, a request is not written to {}", file));
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts capturing the request handled by the current thread.
+     */
+    public void start() {
+        SlowRequestCapture.start(maxStatements);
+    }
+
+    /**
+     * Ends the capture of the current thread and records the request if it was slow.
+     */
+    public void finish(String method, String uri, String handler, int status) {
+        SlowRequestCapture capture = SlowRequestCapture.stop();
+        if (capture == null) {
+            return;
+        }
+        long totalNanos = capture.elapsedNanos();
+        if (totalNanos < thresholdNanos) {
+            return;
+        }
+
+        List<SlowStatement> statements = capture.getStatements();
+        long sqlNanos = 0;
+        long rows = 0;
+        int slowestQuery = -1;
+        for (int i = 0; i < statements.size(); i++) {
+            SlowStatement statement = statements.get(i);
+            statement.complete();
+            sqlNanos += statement.getTotalNanos();
+            rows += statement.getRows();
+            if (statement.isQuery() && (slowestQuery < 0
+                    || statement.getTotalNanos() > statements.get(slowestQuery).getTotalNanos())) {
+                slowestQuery = i;
+            }
+        }
+        if (capture.getOmitted() != null) {
+            sqlNanos += capture.getOmitted().getTotalNanos();
+            rows += capture.getOmitted().getRows();
+        }
+        Map<String, Long> layerMicros = new LinkedHashMap<>();
+        for (Map.Entry<TimedLayer, Long> layer : capture.getLayerNanos().entrySet()) {
+            layerMicros.put(layer.getKey().label(), layer.getValue() / 1000);
+        }
+
+        SlowRequest request;
+        synchronized (ring) {
+            request = new SlowRequest(recorded + 1, System.currentTimeMillis(), method, uri, handler, status,
+                    capture.describeFilter(), totalNanos / 1000, sqlNanos / 1000, rows, layerMicros,
+                    statements, capture.getOmittedCount());
+            ring[(int) (recorded % ring.length)] = request;
+            recorded++;
+        }
+
+        int explained = explain ? slowestQuery : -1;
+        Object[] values = explained < 0 ? null : statements.get(explained).takeValues();
+        for (SlowStatement statement : statements) {
+            statement.takeValues();
+        }
+        writer.execute(() -> {
+            if (values != null) {
+                request.explained(explained, explain(statements.get(explained).getSql(), values));
+            }
+            append(request);
+        });
+    }
+
+    /**
+     * @return last slow requests, newest first
+     */
+    public List<SlowRequest> recent(int limit) {
+        synchronized (ring) {
+            int count = (int) Math.min(Math.min(limit, recorded), ring.length);
+            List<SlowRequest> result = new ArrayList<>(count);
+            for (long i = recorded - 1; result.size() < count; i--) {
+                result.add(ring[(int) (i % ring.length)]);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Waits until the requests recorded so far are written to the file.
+     *
+     * @return {@code false} if they were not written in time or the log is too far behind
+     */
+    public boolean awaitWritten(long timeout, TimeUnit unit) throws InterruptedException {
+        // the writer is a single thread, so the marker runs after all the writes queued before it
+        Future<?> marker = writer.submit(() -> {
+        });
+        try {
+            marker.get(timeout, unit);
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    private String explain(String sql, Object[] values) {
+        try {
+            return jdbcTemplate.query("EXPLAIN " + sql, statement -> {
+                for (int i = 0; i < values.length; i++) {
+                    statement.setObject(i + 1, values[i]);
+                }
+            }, resultSet -> {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                StringBuilder plan = new StringBuilder();
+                while (resultSet.next()) {
+                    if (plan.length() > 0) {
+                        plan.append('\n');
+                    }
+                    for (int column = 1; column <= metaData.getColumnCount(); column++) {
+                        if (metaData.getColumnCount() > 1) {
+                            plan.append(column > 1 ? ", " : "").append(metaData.getColumnLabel(column)).append('=');
+                        }
+                        plan.append(resultSet.getString(column));
+                    }
+                }
+                return plan.toString();
+            });
+        } catch (DataAccessException e) {
+            return "EXPLAIN failed: " + e.getMostSpecificCause().getMessage();
+        }
+    }
+
+    private void append(SlowRequest request) {
+        try {
+            byte[] line = (mapper.writeValueAsString(request) + '\n').getBytes(StandardCharsets.UTF_8);
+            Files.createDirectories(file.getParent());
+            if (Files.exists(file) && Files.size(file) + line.length > maxFileBytes) {
+                roll();
+            }
+            Files.write(file, line, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOG.warn("Cannot write slow request {} to {}", request.getId(), file, e);
+        }
+    }
+
+    /**
+     * Shifts {@code slow-requests.log.N} to {@code N + 1}, dropping the oldest one, and the current file to {@code .1}.
+     */
+    private void roll() throws IOException {
+        if (maxFiles == 0) {
+            Files.delete(file);
+            return;
+        }
+        Files.deleteIfExists(rolled(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            if (Files.exists(rolled(i))) {
+                Files.move(rolled(i), rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path rolled(int number) {
+        return file.resolveSibling(FILE + "." + number);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,103 @@
+package com.game.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC statement run by a slow request. Times are in microseconds.
+ */
+public class SlowStatement {
+    private static final int MAX_BIND_LENGTH = 200;
+
+    private final String sql;
+    private final List<String> binds;
+    // values as bound, kept until the statement is explained
+    private transient Object[] values;
+    private transient long executionNanos;
+    private transient long fetchNanos;
+    private int executions;
+    private long executionMicros;
+    private long fetchMicros;
+    private long rows;
+
+    SlowStatement(String sql, Object[] values) {
+        this.sql = sql;
+        this.values = values;
+        this.binds = new ArrayList<>(values.length);
+        for (Object value : values) {
+            binds.add(render(value));
+        }
+    }
+
+    private static String render(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof byte[]) {
+            return "<" + ((byte[]) value).length + " bytes>";
+        }
+        String text = String.valueOf(value);
+        return text.length() <= MAX_BIND_LENGTH ? text : text.substring(0, MAX_BIND_LENGTH) + "...";
+    }
+
+    void executed(long nanos, long affectedRows) {
+        executions++;
+        executionNanos += nanos;
+        if (affectedRows > 0) {
+            rows += affectedRows;
+        }
+    }
+
+    void fetched(long nanos, boolean row) {
+        fetchNanos += nanos;
+        if (row) {
+            rows++;
+        }
+    }
+
+    /**
+     * Moves the summed times to the reported fields once the request has completed.
+     */
+    void complete() {
+        executionMicros = executionNanos / 1000;
+        fetchMicros = fetchNanos / 1000;
+    }
+
+    long getTotalNanos() {
+        return executionNanos + fetchNanos;
+    }
+
+    boolean isQuery() {
+        return sql != null && sql.trim().regionMatches(true, 0, "select", 0, 6);
+    }
+
+    Object[] takeValues() {
+        Object[] result = values;
+        values = null;
+        return result;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public List<String> getBinds() {
+        return binds;
+    }
+
+    public int getExecutions() {
+        return executions;
+    }
+
+    public long getExecutionMicros() {
+        return executionMicros;
+    }
+
+    public long getFetchMicros() {
+        return fetchMicros;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+}
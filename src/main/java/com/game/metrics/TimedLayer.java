@@ -0,0 +1,28 @@
+package com.game.metrics;
+
+/**
+ * Where a timed operation runs, from the outermost to the innermost.
+ */
+public enum TimedLayer {
+    /**
+     * Controller handler, serialization of the response included.
+     */
+    HTTP,
+    /**
+     * Jackson writing the response body.
+     */
+    SERIALIZATION,
+    SERVICE,
+    /**
+     * Repository call, SQL execution and entity hydration included.
+     */
+    REPOSITORY,
+    /**
+     * {@code Specification} turned into a JPA predicate.
+     */
+    SPECIFICATION;
+
+    public String label() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,42 @@
+package com.game.metrics;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Times the controller handlers from the dispatch to the written response.
+ */
+public class TimingInterceptor implements HandlerInterceptor {
+    /**
+     * Request attribute with the name of the handler, for the timings recorded while it runs.
+     */
+    public static final String OPERATION = TimingInterceptor.class.getName() + ".operation";
+    private static final String STARTED = TimingInterceptor.class.getName() + ".started";
+
+    private final OperationTimings timings;
+
+    public TimingInterceptor(OperationTimings timings) {
+        this.timings = timings;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (timings.isEnabled() && handler instanceof HandlerMethod) {
+            HandlerMethod handlerMethod = (HandlerMethod) handler;
+            request.setAttribute(OPERATION, handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName());
+            request.setAttribute(STARTED, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object started = request.getAttribute(STARTED);
+        if (started != null) {
+            timings.record(TimedLayer.HTTP, (String) request.getAttribute(OPERATION), System.nanoTime() - (Long) started);
+        }
+    }
+}
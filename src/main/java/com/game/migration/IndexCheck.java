@@ -0,0 +1,40 @@
+package com.game.migration;
+
+public class IndexCheck {
+    private final String query;
+    private final String sql;
+    private final String index;
+    private final boolean indexUsed;
+    private final String plan;
+
+    public IndexCheck(String query, String sql, String index, String plan) {
+        this.query = query;
+        this.sql = sql;
+        this.index = index;
+        this.indexUsed = index != null;
+        this.plan = plan;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return name of the index chosen by the database, null for a full table scan
+     */
+    public String getIndex() {
+        return index;
+    }
+
+    public boolean isIndexUsed() {
+        return indexUsed;
+    }
+
+    public String getPlan() {
+        return plan;
+    }
+}
@@ -0,0 +1,271 @@
+package com.game.migration;
+
+import com.game.controller.PlayerOrder;
+import com.game.dto.FilterDto;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.index.NgramIndex;
+import com.game.repository.PlayerRepository;
+import com.game.service.PlayerQueryPlan;
+import com.game.service.PlayerService;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the count and list queries of the players endpoints for sample filters, records the SQL Hibernate sends
+ * with its bind values, and reports which index the database picks for each statement.
+ * <p>
+ * The queries go through the repository calls of {@link PlayerService}, narrowed by the {@link NgramIndex}
+ * as there, in a session that bypasses the query cache.
+ */
+@Component
+public class IndexUsageVerifier {
+    private static final Pattern H2_INDEX = Pattern.compile("/\\* PUBLIC\\.(\\w+)");
+    private static final List<Sample> SAMPLES = new ArrayList<>();
+
+    static {
+        SAMPLES.add(new Sample("count by race, profession and banned", true, filter -> {
+            filter.setRace(Race.ELF);
+            filter.setProfession(Profession.SORCERER);
+            filter.setBanned(false);
+        }));
+        SAMPLES.add(new Sample("count by race and experience range", true, filter -> {
+            filter.setRace(Race.ELF);
+            filter.setMinExperience(50000);
+            filter.setMaxExperience(150000);
+        }));
+        SAMPLES.add(new Sample("count by profession and level", true, filter -> {
+            filter.setProfession(Profession.WARRIOR);
+            filter.setMinLevel(40);
+        }));
+        SAMPLES.add(new Sample("count by banned and level range", true, filter -> {
+            filter.setBanned(false);
+            filter.setMinLevel(10);
+            filter.setMaxLevel(30);
+        }));
+        SAMPLES.add(new Sample("count by name", true, filter -> filter.setName("ар")));
+        SAMPLES.add(new Sample("list by experience range", false, filter -> {
+            filter.setMinExperience(30000);
+            filter.setMaxExperience(100000);
+            filter.setOrder(PlayerOrder.EXPERIENCE);
+        }));
+        SAMPLES.add(new Sample("list by birthday range", false, filter -> {
+            filter.setAfter(1104537600000L);
+            filter.setBefore(1230768000000L);
+            filter.setOrder(PlayerOrder.BIRTHDAY);
+        }));
+        SAMPLES.add(new Sample("list by race ordered by id", false, filter -> {
+            filter.setRace(Race.HUMAN);
+            filter.setProfession(Profession.WARRIOR);
+            filter.setOrder(PlayerOrder.ID);
+        }));
+        SAMPLES.add(new Sample("list by minimal level", false, filter -> {
+            filter.setMinLevel(42);
+            filter.setOrder(PlayerOrder.LEVEL);
+        }));
+        SAMPLES.add(new Sample("list ordered by name", false, filter -> filter.setOrder(PlayerOrder.NAME)));
+        SAMPLES.add(new Sample("list by name ordered by name", false, filter -> {
+            filter.setName("ар");
+            filter.setOrder(PlayerOrder.NAME);
+        }));
+    }
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final PlayerRepository playerRepository;
+    private final NgramIndex ngramIndex;
+
+    public IndexUsageVerifier(DataSource dataSource, EntityManagerFactory entityManagerFactory,
+                              PlayerRepository playerRepository, NgramIndex ngramIndex) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.entityManagerFactory = entityManagerFactory;
+        this.playerRepository = playerRepository;
+        this.ngramIndex = ngramIndex;
+    }
+
+    public List<IndexCheck> verify() throws MetaDataAccessException {
+        String product = (String) JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        boolean mysql = product.toLowerCase().contains("mysql");
+
+        List<IndexCheck> checks = new ArrayList<>();
+        for (Sample sample : SAMPLES) {
+            for (RecordedStatement statement : record(sample)) {
+                checks.add(mysql
+                        ? explainMySql(sample.name, statement.sql, statement.values)
+                        : explainH2(sample.name, statement.sql, statement.values));
+            }
+        }
+        return checks;
+    }
+
+    /**
+     * @return statements sent while running the query of the sample
+     */
+    private List<RecordedStatement> record(Sample sample) {
+        FilterDto filterDto = new FilterDto();
+        sample.filter.accept(filterDto);
+        Specification<Player> specification = ngramIndex.narrow(PlayerQueryPlan.from(filterDto));
+
+        List<RecordedStatement> statements = new ArrayList<>();
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        try (Connection connection = dataSource.getConnection();
+             Session session = sessionFactory.withOptions().connection(recording(connection, statements)).openSession()) {
+            session.setCacheMode(CacheMode.IGNORE);
+            // the repository joins the session bound to the thread, like in an open session in view
+            TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(session));
+            try {
+                if (sample.count) {
+                    playerRepository.count(specification);
+                } else {
+                    playerRepository.findPageViews(specification,
+                            PageRequest.of(0, 3, PlayerService.sortBy(filterDto.getOrder())));
+                }
+            } finally {
+                TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot record the statements of '" + sample.name + "'", e);
+        }
+        return statements;
+    }
+
+    private IndexCheck explainH2(String name, String sql, Object[] values) {
+        String plan = jdbcTemplate.query("EXPLAIN " + sql, statement -> bind(statement, values),
+                rs -> rs.next() ? rs.getString(1) : "");
+        Matcher matcher = H2_INDEX.matcher(plan);
+        String index = null;
+        if (matcher.find() && !matcher.group(1).equalsIgnoreCase("player")) {
+            index = matcher.group(1);
+        }
+        return new IndexCheck(name, sql, index, plan);
+    }
+
+    private IndexCheck explainMySql(String name, String sql, Object[] values) {
+        return jdbcTemplate.query("EXPLAIN " + sql, statement -> bind(statement, values), rs -> {
+            StringBuilder plan = new StringBuilder();
+            String index = null;
+            ResultSetMetaData metaData = rs.getMetaData();
+            while (rs.next()) {
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    plan.append(metaData.getColumnLabel(i)).append('=').append(rs.getString(i)).append(' ');
+                }
+                if ("player".equalsIgnoreCase(rs.getString("table")) && !"ALL".equals(rs.getString("type"))) {
+                    index = rs.getString("key");
+                }
+            }
+            return new IndexCheck(name, sql, index, plan.toString().trim());
+        });
+    }
+
+    private static void bind(PreparedStatement statement, Object[] values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            statement.setObject(i + 1, values[i]);
+        }
+    }
+
+    /**
+     * @return the connection recording every prepared statement it executes with its bind values
+     */
+    private static Connection recording(Connection connection, List<RecordedStatement> statements) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof PreparedStatement) {
+                return proxy(method.getReturnType(),
+                        new StatementRecorder((PreparedStatement) result, (String) args[0], statements));
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<?> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(IndexUsageVerifier.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class StatementRecorder implements InvocationHandler {
+        private final PreparedStatement target;
+        private final String sql;
+        private final List<RecordedStatement> statements;
+        private final Map<Integer, Object> binds = new TreeMap<>();
+
+        StatementRecorder(PreparedStatement target, String sql, List<RecordedStatement> statements) {
+            this.target = target;
+            this.sql = sql;
+            this.statements = statements;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                binds.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                binds.clear();
+            } else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                statements.add(new RecordedStatement(sql, binds.values().toArray()));
+            }
+            return IndexUsageVerifier.invoke(target, method, args);
+        }
+    }
+
+    private static final class RecordedStatement {
+        private final String sql;
+        private final Object[] values;
+
+        RecordedStatement(String sql, Object[] values) {
+            this.sql = sql;
+            this.values = values;
+        }
+    }
+
+    private static final class Sample {
+        private final String name;
+        private final boolean count;
+        private final Consumer<FilterDto> filter;
+
+        Sample(String name, boolean count, Consumer<FilterDto> filter) {
+            this.name = name;
+            this.count = count;
+            this.filter = filter;
+        }
+    }
+}
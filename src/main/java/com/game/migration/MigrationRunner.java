@@ -0,0 +1,114 @@
+package com.game.migration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.util.FileCopyUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Applies versioned SQL scripts from {@code db/migration} in version order.
+ * <p>
+ * Script names follow {@code V<version>__<description>.sql}. Applied versions are recorded in the
+ * {@code schema_version} table together with a checksum; editing an applied script stops the startup.
+ */
+public class MigrationRunner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MigrationRunner.class);
+    private static final String LOCATION = "classpath*:db/migration/V*__*.sql";
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public MigrationRunner(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public void migrate() throws IOException, SQLException {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                "version INT NOT NULL PRIMARY KEY, " +
+                "description VARCHAR(200) NOT NULL, " +
+                "checksum BIGINT NOT NULL, " +
+                "installed_on TIMESTAMP NOT NULL)");
+
+        Map<Integer, Long> applied = new HashMap<>();
+        jdbcTemplate.query("SELECT version, checksum FROM schema_version",
+                rs -> {
+                    applied.put(rs.getInt(1), rs.getLong(2));
+                });
+
+        for (Migration migration : findMigrations()) {
+            Long checksum = applied.get(migration.version);
+            if (checksum == null) {
+                apply(migration);
+            } else if (checksum != migration.checksum) {
+                throw new IllegalStateException("Migration V" + migration.version + " was changed after it had been applied");
+            }
+        }
+    }
+
+    private void apply(Migration migration) throws SQLException {
+        LOGGER.info("Applying migration V{} {}", migration.version, migration.description);
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new EncodedResource(migration.resource, StandardCharsets.UTF_8));
+        }
+        jdbcTemplate.update("INSERT INTO schema_version (version, description, checksum, installed_on) VALUES (?, ?, ?, ?)",
+                migration.version, migration.description, migration.checksum, new Timestamp(System.currentTimeMillis()));
+    }
+
+    private List<Migration> findMigrations() throws IOException {
+        List<Migration> migrations = new ArrayList<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+            Matcher matcher = FILE_NAME.matcher(resource.getFilename());
+            if (!matcher.matches()) {
+                continue;
+            }
+            String script = FileCopyUtils.copyToString(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8));
+            CRC32 crc32 = new CRC32();
+            crc32.update(script.getBytes(StandardCharsets.UTF_8));
+            migrations.add(new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '),
+                    crc32.getValue(), resource));
+        }
+        migrations.sort(Comparator.comparingInt(migration -> migration.version));
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version == migrations.get(i - 1).version) {
+                throw new IllegalStateException("Duplicate migration version V" + migrations.get(i).version);
+            }
+        }
+        return migrations;
+    }
+
+    private static class Migration {
+        private final int version;
+        private final String description;
+        private final long checksum;
+        private final Resource resource;
+
+        private Migration(int version, String description, long checksum, Resource resource) {
+            this.version = version;
+            this.description = description;
+            this.checksum = checksum;
+            this.resource = resource;
+        }
+    }
+}
@@ -1,11 +1,53 @@
 package com.game.repository;
 
+import com.game.dto.PlayerStatsDto;
 import com.game.entity.Player;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface PlayerRepository extends JpaRepository<Player, Long>, JpaSpecificationExecutor<Player>, CrudRepository<Player, Long> {
+public interface PlayerRepository extends JpaRepository<Player, Long>, JpaSpecificationExecutor<Player>, CrudRepository<Player, Long>, PlayerRepositoryCustom {
+
+    @Override
+    @QueryHints(value = @QueryHint(name = "org.hibernate.cacheable", value = "true"), forCounting = true)
+    Page<Player> findAll(Specification<Player> spec, Pageable pageable);
+
+    @Override
+    @QueryHints(value = @QueryHint(name = "org.hibernate.cacheable", value = "true"), forCounting = true)
+    long count(Specification<Player> spec);
+
+    /**
+     * Loads the player locking its row until the end of the transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Player p where p.id = :id")
+    Optional<Player> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Loads the players locking their rows until the end of the transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Player p where p.id in :ids")
+    List<Player> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.game.dto.PlayerStatsDto(p.race, p.profession, p.banned, count(p), " +
+            "sum(p.experience), min(p.experience), max(p.experience), sum(p.level), min(p.level), max(p.level)) " +
+            "from Player p group by p.race, p.profession, p.banned")
+    List<PlayerStatsDto> aggregateStats();
 }
@@ -0,0 +1,66 @@
+package com.game.repository;
+
+import com.game.dto.PlayerView;
+import com.game.entity.Player;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public interface PlayerRepositoryCustom {
+
+    /**
+     * @param specification filter
+     * @param sort          order of the result
+     * @param limit         max number of rows, no offset and no count query are issued
+     * @return first {@code limit} players matching the filter
+     */
+    List<Player> findSlice(Specification<Player> specification, Sort sort, int limit);
+
+    /**
+     * @param specification filter
+     * @param pageable      page of the result, no count query is issued
+     * @return read-only views of the players of the page, selected without loading entities
+     */
+    List<PlayerView> findPageViews(Specification<Player> specification, Pageable pageable);
+
+    /**
+     * Walks the players matching the filter with a forward-only cursor. Rows are fetched {@code fetchSize}
+     * at a time and are not kept after the action, so memory use doesn't depend on the number of rows.
+     *
+     * @param specification filter
+     * @param sort          order of the rows
+     * @param fetchSize     number of rows fetched from the database at a time
+     * @param action        called for every row in order
+     */
+    void scrollViews(Specification<Player> specification, Sort sort, int fetchSize, Consumer<PlayerView> action);
+
+    /**
+     * Opens the forward-only cursor of {@link #scrollViews} and returns its rows as a stream. The query is executed
+     * before the method returns, so the rows are those committed by then. Must run in a transaction,
+     * the stream must be closed.
+     *
+     * @param specification filter
+     * @param sort          order of the rows
+     * @param fetchSize     number of rows fetched from the database at a time
+     * @return rows of the cursor in order
+     */
+    Stream<PlayerView> streamViews(Specification<Player> specification, Sort sort, int fetchSize);
+
+    /**
+     * Persists the players, flushing and clearing the session every {@code batchSize} players,
+     * so the inserts are sent as JDBC batches. Must run in a transaction.
+     *
+     * @param players   new players, get their ids
+     * @param batchSize number of players per flush
+     */
+    void persistAll(List<Player> players, int batchSize);
+
+    /**
+     * Sends the pending changes and detaches all loaded players. Must run in a transaction.
+     */
+    void flushAndClear();
+}
@@ -0,0 +1,120 @@
+package com.game.repository;
+
+import com.game.dto.PlayerView;
+import com.game.entity.Player;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.query.Query;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+public class PlayerRepositoryImpl implements PlayerRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Player> findSlice(Specification<Player> specification, Sort sort, int limit) {
+        return createQuery(specification, sort)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<PlayerView> findPageViews(Specification<Player> specification, Pageable pageable) {
+        return createViewQuery(specification, pageable.getSort())
+                .setHint(QueryHints.CACHEABLE, true)
+                .setFirstResult(Math.toIntExact(pageable.getOffset()))
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public void scrollViews(Specification<Player> specification, Sort sort, int fetchSize, Consumer<PlayerView> action) {
+        try (Stream<PlayerView> rows = streamViews(specification, sort, fetchSize)) {
+            rows.forEach(action);
+        }
+    }
+
+    @Override
+    public Stream<PlayerView> streamViews(Specification<Player> specification, Sort sort, int fetchSize) {
+        Query<?> query = createViewQuery(specification, sort).unwrap(Query.class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE);
+
+        ScrollableResults rows = query.scroll(ScrollMode.FORWARD_ONLY);
+        Spliterator<PlayerView> cursor = new Spliterators.AbstractSpliterator<PlayerView>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super PlayerView> action) {
+                if (!rows.next()) {
+                    return false;
+                }
+                action.accept((PlayerView) rows.get(0));
+                return true;
+            }
+        };
+        return StreamSupport.stream(cursor, false).onClose(rows::close);
+    }
+
+    @Override
+    public void persistAll(List<Player> players, int batchSize) {
+        for (int i = 0; i < players.size(); i++) {
+            entityManager.persist(players.get(i));
+            if ((i + 1) % batchSize == 0) {
+                flushAndClear();
+            }
+        }
+        flushAndClear();
+    }
+
+    @Override
+    public void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private TypedQuery<PlayerView> createViewQuery(Specification<Player> specification, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PlayerView> query = criteriaBuilder.createQuery(PlayerView.class);
+        Root<Player> root = query.from(Player.class);
+        query.select(criteriaBuilder.construct(PlayerView.class,
+                root.get("id"), root.get("name"), root.get("title"), root.get("race"), root.get("profession"),
+                root.get("birthday"), root.get("banned"), root.get("experience"), root.get("level"),
+                root.get("untilNextLevel")))
+                .where(specification.toPredicate(root, query, criteriaBuilder))
+                .orderBy(toOrders(sort, root, criteriaBuilder));
+
+        return entityManager.createQuery(query);
+    }
+
+    private TypedQuery<Player> createQuery(Specification<Player> specification, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Player> query = criteriaBuilder.createQuery(Player.class);
+        Root<Player> root = query.from(Player.class);
+        query.select(root)
+                .where(specification.toPredicate(root, query, criteriaBuilder))
+                .orderBy(toOrders(sort, root, criteriaBuilder));
+
+        return entityManager.createQuery(query)
+                .setHint(QueryHints.CACHEABLE, true);
+    }
+}
@@ -0,0 +1,161 @@
+package com.game.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only log of buffered experience deltas, split into numbered segments.
+ * <p>
+ * A flush of the buffer rotates to a new segment; once the flushed deltas are committed, the segments
+ * up to the rotated one are deleted. Records are {@code (player id, delta)} pairs of longs,
+ * a torn record at the end of a segment is ignored.
+ */
+final class ExperienceJournal implements Closeable {
+    private static final String PREFIX = "experience-";
+    private static final String SUFFIX = ".journal";
+    private static final int RECORD_SIZE = 2 * Long.BYTES;
+
+    enum Durability {
+        /**
+         * No journal, deltas of the current flush interval are lost on a crash.
+         */
+        NONE,
+        /**
+         * Every delta is written to the file, which survives a crash of the process.
+         */
+        WRITE,
+        /**
+         * Every delta is also forced to the disk, which survives a crash of the machine.
+         */
+        FSYNC
+    }
+
+    private final Path directory;
+    private final Durability durability;
+    private FileChannel active;
+    private long segment;
+
+    ExperienceJournal(Path directory, Durability durability) {
+        this.directory = directory;
+        this.durability = durability;
+    }
+
+    /**
+     * Reads the deltas not flushed yet and starts a new segment after all existing ones.
+     *
+     * @param flushedSegment last segment whose deltas are committed to the table
+     * @return not flushed delta of every player
+     */
+    Map<Long, Long> open(long flushedSegment) throws IOException {
+        Map<Long, Long> deltas = new HashMap<>();
+        segment = flushedSegment;
+        if (durability == Durability.NONE) {
+            return deltas;
+        }
+        Files.createDirectories(directory);
+        for (long existing : segments()) {
+            segment = Math.max(segment, existing);
+            if (existing > flushedSegment) {
+                read(file(existing), deltas);
+            }
+        }
+        startSegment(++segment);
+        return deltas;
+    }
+
+    void append(long id, long delta) throws IOException {
+        if (durability == Durability.NONE) {
+            return;
+        }
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE).putLong(id).putLong(delta);
+        record.flip();
+        while (record.hasRemaining()) {
+            active.write(record);
+        }
+        if (durability == Durability.FSYNC) {
+            active.force(false);
+        }
+    }
+
+    /**
+     * Starts a new segment. The caller makes sure nothing is appended meanwhile.
+     *
+     * @return the segment that was active
+     */
+    long rotate() throws IOException {
+        long rotated = segment;
+        if (durability != Durability.NONE) {
+            active.close();
+            startSegment(rotated + 1);
+        }
+        segment = rotated + 1;
+        return rotated;
+    }
+
+    /**
+     * Deletes the segments whose deltas are committed.
+     */
+    void deleteUpTo(long committed) throws IOException {
+        if (durability == Durability.NONE) {
+            return;
+        }
+        for (long existing : segments()) {
+            if (existing <= committed) {
+                Files.deleteIfExists(file(existing));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (active != null) {
+            active.close();
+        }
+    }
+
+    private void startSegment(long number) throws IOException {
+        active = FileChannel.open(file(number), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private List<Long> segments() throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    segments.add(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    // not a segment of this journal
+                }
+            }
+        }
+        return segments;
+    }
+
+    private Path file(long number) {
+        return directory.resolve(PREFIX + number + SUFFIX);
+    }
+
+    private static void read(Path file, Map<Long, Long> deltas) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 1024);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_SIZE) {
+                    deltas.merge(buffer.getLong(), buffer.getLong(), Long::sum);
+                }
+                buffer.compact();
+            }
+        }
+    }
+}
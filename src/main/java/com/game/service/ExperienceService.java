@@ -0,0 +1,129 @@
+package com.game.service;
+
+import com.game.entity.Player;
+import com.game.exception.NoSuchPlayerException;
+import com.game.exception.ValidationException;
+import com.game.index.PlayerIndexes;
+import com.game.repository.PlayerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Atomic experience increments.
+ * <p>
+ * Increments of a player queue up while an earlier batch of the same player is being written. The thread that
+ * gets the player's {@link PlayerLocks} stripe writes all queued increments in one transaction, reading the row with a
+ * {@code SELECT ... FOR UPDATE}, so a hot player costs one row update per batch rather than per increment,
+ * and increments from other application instances are not lost either.
+ * <p>
+ * With {@code experience.writeBehind.enabled} the increments go to {@link ExperienceWriteBehind} instead.
+ */
+@Service
+public class ExperienceService {
+    private final PlayerRepository playerRepository;
+    private final PlayerValidationService playerValidationService;
+    private final PlayerIndexes playerIndexes;
+    private final ExperienceWriteBehind experienceWriteBehind;
+    private final PlayerLocks playerLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentMap<Long, List<Increment>> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ExperienceService(PlayerRepository playerRepository, PlayerValidationService playerValidationService,
+                             PlayerIndexes playerIndexes, ExperienceWriteBehind experienceWriteBehind,
+                             PlayerLocks playerLocks, PlatformTransactionManager transactionManager) {
+        this.playerRepository = playerRepository;
+        this.playerValidationService = playerValidationService;
+        this.playerIndexes = playerIndexes;
+        this.experienceWriteBehind = experienceWriteBehind;
+        this.playerLocks = playerLocks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @param id    player id
+     * @param delta experience to add, negative to take away
+     * @return the player after the batch with the increment was written, or buffered with write-behind enabled
+     */
+    public Player addExperience(Long id, int delta) {
+        if (experienceWriteBehind.isEnabled()) {
+            return experienceWriteBehind.add(id, delta);
+        }
+        playerValidationService.validateIdExists(id);
+        Increment increment = new Increment(delta);
+        pending.compute(id, (key, increments) -> {
+            List<Increment> queued = increments == null ? new ArrayList<>() : increments;
+            queued.add(increment);
+            return queued;
+        });
+
+        try (PlayerLocks.Held ignored = playerLocks.lock(id)) {
+            // a batch is written under the lock, so an increment not done yet is still queued
+            if (!increment.result.isDone()) {
+                write(id, pending.remove(id));
+            }
+        }
+        return increment.join();
+    }
+
+    private void write(Long id, List<Increment> batch) {
+        Player[] before = new Player[1];
+        Player updated;
+        try {
+            updated = transactionTemplate.execute(status -> {
+                Player player = playerRepository.findByIdForUpdate(id).orElseThrow(NoSuchPlayerException::new);
+                before[0] = new Player(player);
+                long experience = player.getExperience() == null ? 0 : player.getExperience();
+                for (Increment increment : batch) {
+                    if (playerValidationService.isExperienceValid(experience + increment.delta)) {
+                        experience += increment.delta;
+                        increment.applied = true;
+                    }
+                }
+                PlayerService.applyExperience(player, (int) experience);
+                return player;
+            });
+        } catch (RuntimeException e) {
+            for (Increment increment : batch) {
+                increment.result.completeExceptionally(e);
+            }
+            return;
+        }
+
+        playerIndexes.onUpdate(before[0], updated);
+        for (Increment increment : batch) {
+            if (increment.applied) {
+                increment.result.complete(new Player(updated));
+            } else {
+                increment.result.completeExceptionally(new ValidationException());
+            }
+        }
+    }
+
+    private static final class Increment {
+        private final int delta;
+        private final CompletableFuture<Player> result = new CompletableFuture<>();
+        private boolean applied;
+
+        private Increment(int delta) {
+            this.delta = delta;
+        }
+
+        private Player join() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                throw (RuntimeException) e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package com.game.service;
+
+import com.game.entity.Player;
+import com.game.exception.ValidationException;
+import com.game.index.PlayerIndexes;
+import com.game.repository.PlayerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional write-behind buffer of experience increments.
+ * <p>
+ * Deltas are summed per player and written in batches every {@code experience.writeBehind.flushIntervalMs},
+ * or earlier once {@code experience.writeBehind.maxPendingPlayers} players have pending deltas.
+ * Every delta is appended to the {@link ExperienceJournal} first, so the deltas of a crashed process
+ * are written after the restart. Single players read through {@link PlayerService#findById} see the pending
+ * deltas, lists and counts see them after the flush.
+ * <p>
+ * The row of a player and its deltas are read and written under the player's {@link PlayerLocks} stripe, which a
+ * flush holds from writing the player until its deltas leave the buffer, so nobody sees a delta twice or not at all.
+ */
+@Component
+public class ExperienceWriteBehind implements InitializingBean, DisposableBean {
+    private static final Logger LOG = LoggerFactory.getLogger(ExperienceWriteBehind.class);
+    private static final int MAX_EXPERIENCE = 10000000;
+
+    private final PlayerRepository playerRepository;
+    private final PlayerValidationService playerValidationService;
+    private final PlayerIndexes playerIndexes;
+    private final PlayerLocks playerLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int maxPendingPlayers;
+    private final int batchSize;
+    private final ExperienceJournal journal;
+
+    private final ConcurrentHashMap<Long, Long> pending = new ConcurrentHashMap<>();
+    private volatile Map<Long, Long> flushing = Collections.emptyMap();
+    // appends take the read lock, the rotation of the journal together with the drain of the buffer the write lock
+    private final ReadWriteLock rotation = new ReentrantReadWriteLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Autowired
+    public ExperienceWriteBehind(PlayerRepository playerRepository, PlayerValidationService playerValidationService,
+                                 PlayerIndexes playerIndexes, PlayerLocks playerLocks, PlatformTransactionManager transactionManager, DataSource dataSource,
+                                 @Value("${experience.writeBehind.enabled}") boolean enabled,
+                                 @Value("${experience.writeBehind.maxPendingPlayers}") int maxPendingPlayers,
+                                 @Value("${db.batchSize}") int batchSize,
+                                 @Value("${experience.journal.durability}") String durability,
+                                 @Value("${experience.journal.directory}") String journalDirectory) {
+        this.playerRepository = playerRepository;
+        this.playerValidationService = playerValidationService;
+        this.playerIndexes = playerIndexes;
+        this.playerLocks = playerLocks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.enabled = enabled;
+        this.maxPendingPlayers = maxPendingPlayers;
+        this.batchSize = batchSize;
+        this.journal = new ExperienceJournal(Paths.get(journalDirectory),
+                ExperienceJournal.Durability.valueOf(durability.toUpperCase(Locale.ROOT)));
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Long flushedSegment = jdbcTemplate.queryForObject(
+                "SELECT flushed_segment FROM experience_journal WHERE name = 'experience'", Long.class);
+        Map<Long, Long> recovered = journal.open(flushedSegment);
+        pending.putAll(recovered);
+        if (!recovered.isEmpty()) {
+            LOG.info("Recovered experience deltas of {} players from the journal", recovered.size());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Buffers the delta.
+     *
+     * @param id    player id
+     * @param delta experience to add, negative to take away
+     * @return the player with the pending deltas
+     */
+    public Player add(Long id, int delta) {
+        Player merged;
+        try (PlayerLocks.Held ignored = playerLocks.lock(id)) {
+            Player player = playerValidationService.validateId(id);
+            if (!isExperienceValid(experienceOf(player) + pendingOf(id) + delta)) {
+                throw new ValidationException();
+            }
+            rotation.readLock().lock();
+            try {
+                journal.append(id, delta);
+                pending.merge(id, (long) delta, Long::sum);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                rotation.readLock().unlock();
+            }
+            merged = merge(player);
+        }
+
+        // outside the lock, the flush takes the locks of all its players in order
+        if (pending.size() >= maxPendingPlayers && flushLock.tryLock()) {
+            try {
+                flushPending();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * @return the player with the pending deltas applied
+     */
+    public Player find(Long id) {
+        if (!enabled) {
+            return playerValidationService.validateId(id);
+        }
+        try (PlayerLocks.Held ignored = playerLocks.lock(id)) {
+            return merge(playerValidationService.validateId(id));
+        }
+    }
+
+    /**
+     * @return copy of the player with the pending deltas applied, the player itself if it has none
+     */
+    private Player merge(Player player) {
+        long delta = pendingOf(player.getId());
+        if (delta == 0) {
+            return player;
+        }
+        Player merged = new Player(player);
+        applyDelta(merged, delta);
+        return merged;
+    }
+
+    /**
+     * Adds the delta to the experience of the player, keeping it within the valid range.
+     */
+    static void applyDelta(Player player, long delta) {
+        // concurrent increments may have passed the bounds together
+        PlayerService.applyExperience(player, clamp(experienceOf(player) + delta));
+    }
+
+    /**
+     * Locks the players and takes over their pending deltas, for a write that saves the players itself.
+     * Waits for a running flush that holds deltas of theirs.
+     *
+     * @return the taken deltas, put back on {@link Taken#close()} unless {@link Taken#saved()} was called
+     */
+    public Taken take(Collection<Long> ids) {
+        while (true) {
+            PlayerLocks.Held held = playerLocks.lock(ids);
+            Map<Long, Long> deltas;
+            try {
+                deltas = enabled ? takePending(ids) : Collections.emptyMap();
+            } catch (RuntimeException | Error e) {
+                held.close();
+                throw e;
+            }
+            if (deltas != null) {
+                return new Taken(held, deltas);
+            }
+            // the flush waits for these locks to write the deltas, taking them from under it would write them twice
+            held.close();
+            flushLock.lock();
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * @return the removed deltas, {@code null} if a flush is writing deltas of the players
+     */
+    private Map<Long, Long> takePending(Collection<Long> ids) {
+        Map<Long, Long> taken = new HashMap<>();
+        rotation.readLock().lock();
+        try {
+            Map<Long, Long> written = flushing;
+            for (Long id : ids) {
+                if (written.containsKey(id)) {
+                    return null;
+                }
+            }
+            for (Long id : ids) {
+                Long delta = pending.get(id);
+                if (delta != null) {
+                    // cancels the journaled deltas, the write takes them over
+                    journal.append(id, -delta);
+                    pending.remove(id);
+                    taken.put(id, delta);
+                }
+            }
+            return taken;
+        } catch (IOException e) {
+            restore(taken);
+            throw new UncheckedIOException(e);
+        } finally {
+            rotation.readLock().unlock();
+        }
+    }
+
+    /**
+     * Puts back deltas taken by a write that failed.
+     */
+    private void restore(Map<Long, Long> taken) {
+        if (taken.isEmpty()) {
+            return;
+        }
+        rotation.readLock().lock();
+        try {
+            for (Map.Entry<Long, Long> entry : taken.entrySet()) {
+                try {
+                    journal.append(entry.getKey(), entry.getValue());
+                } catch (IOException e) {
+                    LOG.warn("Restored experience delta of player {} is not journaled", entry.getKey(), e);
+                }
+                pending.merge(entry.getKey(), entry.getValue(), Long::sum);
+            }
+        } finally {
+            rotation.readLock().unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${experience.writeBehind.flushIntervalMs}",
+            fixedDelayString = "${experience.writeBehind.flushIntervalMs}")
+    public void scheduledFlush() {
+        if (enabled) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the pending deltas in batches.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        flush();
+        journal.close();
+    }
+
+    private void flushPending() {
+        Map<Long, Long> snapshot;
+        long segment;
+        rotation.writeLock().lock();
+        try {
+            segment = journal.rotate();
+            snapshot = new HashMap<>(pending);
+            pending.clear();
+            flushing = snapshot;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            rotation.writeLock().unlock();
+        }
+
+        // the hooks of the players run in commit order with their other writes
+        try (PlayerLocks.Held ignored = playerLocks.lock(snapshot.keySet())) {
+            Map<Long, Player> before = new HashMap<>();
+            List<Player> updated = new ArrayList<>();
+            try {
+                if (!snapshot.isEmpty()) {
+                    transactionTemplate.executeWithoutResult(status -> write(snapshot, segment, before, updated));
+                }
+            } catch (RuntimeException e) {
+                LOG.warn("Experience deltas of {} players were not written, retrying with the next flush", snapshot.size(), e);
+                rotation.readLock().lock();
+                try {
+                    snapshot.forEach((id, delta) -> pending.merge(id, delta, Long::sum));
+                } finally {
+                    rotation.readLock().unlock();
+                }
+                return;
+            } finally {
+                flushing = Collections.emptyMap();
+            }
+
+            try {
+                journal.deleteUpTo(segment);
+            } catch (IOException e) {
+                // the committed checkpoint keeps the segments from being replayed
+                LOG.warn("Flushed journal segments were not deleted", e);
+            }
+            for (Player player : updated) {
+                playerIndexes.onUpdate(before.get(player.getId()), player);
+            }
+        }
+    }
+
+    private void write(Map<Long, Long> deltas, long segment, Map<Long, Player> before, List<Player> updated) {
+        List<Long> ids = new ArrayList<>(deltas.keySet());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            for (Player player : playerRepository.findAllByIdForUpdate(chunk)) {
+                before.put(player.getId(), new Player(player));
+                applyDelta(player, deltas.get(player.getId()));
+                updated.add(player);
+            }
+            playerRepository.flushAndClear();
+        }
+        jdbcTemplate.update("UPDATE experience_journal SET flushed_segment = ? WHERE name = 'experience'", segment);
+    }
+
+    /**
+     * Deltas taken over by a write, with the locks of its players held.
+     */
+    public final class Taken implements AutoCloseable {
+        private final PlayerLocks.Held held;
+        private final Map<Long, Long> deltas;
+        private boolean saved;
+
+        private Taken(PlayerLocks.Held held, Map<Long, Long> deltas) {
+            this.held = held;
+            this.deltas = deltas;
+        }
+
+        /**
+         * @return the taken delta of the player, 0 if there was none
+         */
+        public long delta(Long id) {
+            return deltas.getOrDefault(id, 0L);
+        }
+
+        /**
+         * Marks the deltas as committed with the write, or dropped with the deleted players.
+         */
+        public void saved() {
+            saved = true;
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (!saved) {
+                    restore(deltas);
+                }
+            } finally {
+                held.close();
+            }
+        }
+    }
+
+    private long pendingOf(Long id) {
+        return pending.getOrDefault(id, 0L) + flushing.getOrDefault(id, 0L);
+    }
+
+    private static long experienceOf(Player player) {
+        return player.getExperience() == null ? 0 : player.getExperience();
+    }
+
+    private static boolean isExperienceValid(long experience) {
+        return experience >= 0 && experience <= MAX_EXPERIENCE;
+    }
+
+    private static int clamp(long experience) {
+        return (int) Math.max(0, Math.min(MAX_EXPERIENCE, experience));
+    }
+}
@@ -0,0 +1,91 @@
+package com.game.service;
+
+import com.game.controller.LeaderboardOrder;
+import com.game.dto.LeaderboardEntryDto;
+import com.game.dto.PlayerRankDto;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.exception.NoSuchPlayerException;
+import com.game.exception.ValidationException;
+import com.game.index.LeaderboardIndex;
+import com.game.repository.PlayerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class LeaderboardService {
+    private static final int MAX_LIMIT = 100;
+
+    private final LeaderboardIndex leaderboardIndex;
+    private final PlayerRepository playerRepository;
+
+    @Autowired
+    public LeaderboardService(LeaderboardIndex leaderboardIndex, PlayerRepository playerRepository) {
+        this.leaderboardIndex = leaderboardIndex;
+        this.playerRepository = playerRepository;
+    }
+
+    // == Get top players ==
+    public List<LeaderboardEntryDto> getTop(LeaderboardOrder order, Race race, Profession profession, int limit) {
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new ValidationException();
+        }
+        List<LeaderboardIndex.Ranked> ranking = leaderboardIndex.top(race, profession, limit);
+        List<Long> ids = new ArrayList<>(ranking.size());
+        for (LeaderboardIndex.Ranked ranked : ranking) {
+            ids.add(ranked.getId());
+        }
+        Map<Long, Player> players = new HashMap<>();
+        for (Player player : playerRepository.findAllById(ids)) {
+            players.put(player.getId(), player);
+        }
+
+        // the list is a prefix of the ranking, so a player is either tied with the previous one or ranked by position
+        List<LeaderboardEntryDto> result = new ArrayList<>(ranking.size());
+        long rank = 0;
+        int previous = -1;
+        for (int i = 0; i < ranking.size(); i++) {
+            int value = valueOf(order, ranking.get(i));
+            if (i == 0 || value != previous) {
+                rank = i + 1;
+            }
+            previous = value;
+            Player player = players.get(ranking.get(i).getId());
+            // deleted since the ranking was read
+            if (player != null) {
+                result.add(new LeaderboardEntryDto(rank, player));
+            }
+        }
+        return result;
+    }
+
+    // == Get player rank ==
+    public PlayerRankDto getRank(Long id, LeaderboardOrder order, boolean sameRace, boolean sameProfession) {
+        LeaderboardIndex.Ranked ranked = leaderboardIndex.find(id);
+        if (ranked == null) {
+            throw new NoSuchPlayerException();
+        }
+        Race race = sameRace ? ranked.getRace() : null;
+        Profession profession = sameProfession ? ranked.getProfession() : null;
+
+        // level only grows with experience: players above the level are those who reached the next one
+        int threshold = order == LeaderboardOrder.LEVEL
+                ? PlayerService.experienceForLevel(valueOf(order, ranked) + 1) - 1
+                : ranked.getExperience();
+        long rank = leaderboardIndex.countAbove(race, profession, threshold) + 1;
+        return new PlayerRankDto(id, order, race, profession, rank, leaderboardIndex.size(race, profession));
+    }
+
+    private static int valueOf(LeaderboardOrder order, LeaderboardIndex.Ranked ranked) {
+        if (order == LeaderboardOrder.LEVEL) {
+            return ranked.getLevel();
+        }
+        return ranked.getExperience();
+    }
+}
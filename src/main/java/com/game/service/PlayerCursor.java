@@ -0,0 +1,126 @@
+package com.game.service;
+
+import com.game.controller.PlayerOrder;
+import com.game.entity.Player;
+import com.game.exception.ValidationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Position of the last player returned by a keyset page.
+ * <p>
+ * The next page starts strictly after {@code (sort key, id)} of that player, so it is found
+ * through the index on the sort column instead of skipping {@code OFFSET} rows.
+ * Clients receive the cursor as an opaque url-safe token.
+ */
+public final class PlayerCursor {
+    private static final char SEPARATOR = '|';
+
+    private final PlayerOrder order;
+    private final long id;
+    private final Comparable<?> key;
+
+    private PlayerCursor(PlayerOrder order, long id, Comparable<?> key) {
+        this.order = order;
+        this.id = id;
+        this.key = key;
+    }
+
+    public static PlayerCursor after(PlayerOrder order, Player player) {
+        return new PlayerCursor(order, player.getId(), keyOf(order, player));
+    }
+
+    /**
+     * @param order sort column of the pages
+     * @return sort by the column with id as the tiebreaker
+     */
+    public static Sort sortFor(PlayerOrder order) {
+        if (order == PlayerOrder.ID) {
+            return Sort.by("id");
+        }
+        return Sort.by(order.getFieldName(), "id");
+    }
+
+    public PlayerOrder getOrder() {
+        return order;
+    }
+
+    public Specification<Player> toSpecification() {
+        if (order == PlayerOrder.ID) {
+            return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+        }
+        return this::seekPredicate;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate seekPredicate(Root<Player> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Path<Comparable> path = root.get(order.getFieldName());
+        Comparable value = key;
+        return cb.or(
+                cb.greaterThan(path, value),
+                cb.and(cb.equal(path, value), cb.greaterThan(root.get("id"), id)));
+    }
+
+    public String encode() {
+        String value = order == PlayerOrder.BIRTHDAY
+                ? String.valueOf(((Date) key).getTime())
+                : String.valueOf(key);
+        String raw = order.name() + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PlayerCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int second = raw.indexOf(SEPARATOR, first + 1);
+            if (first < 0 || second < 0) {
+                throw new ValidationException();
+            }
+            PlayerOrder order = PlayerOrder.valueOf(raw.substring(0, first));
+            long id = Long.parseLong(raw.substring(first + 1, second));
+            String value = raw.substring(second + 1);
+            return new PlayerCursor(order, id, parseKey(order, value));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException();
+        }
+    }
+
+    private static Comparable<?> keyOf(PlayerOrder order, Player player) {
+        switch (order) {
+            case NAME:
+                return player.getName();
+            case EXPERIENCE:
+                return player.getExperience();
+            case BIRTHDAY:
+                return player.getBirthday();
+            case LEVEL:
+                return player.getLevel();
+            default:
+                return player.getId();
+        }
+    }
+
+    private static Comparable<?> parseKey(PlayerOrder order, String value) {
+        switch (order) {
+            case NAME:
+                return value;
+            case EXPERIENCE:
+            case LEVEL:
+                return Integer.valueOf(value);
+            case BIRTHDAY:
+                return new Date(Long.parseLong(value));
+            default:
+                return Long.valueOf(value);
+        }
+    }
+}
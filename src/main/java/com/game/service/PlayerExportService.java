@@ -0,0 +1,155 @@
+package com.game.service;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.game.controller.PlayerExportFormat;
+import com.game.dto.FilterDto;
+import com.game.dto.PlayerView;
+import com.game.index.NgramIndex;
+import com.game.repository.PlayerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Writes all players matching a filter as NDJSON or CSV while they are read from the database cursor.
+ * <p>
+ * The writer is flushed every {@code export.flushRows} rows, so the client receives the export in chunks.
+ */
+@Service
+public class PlayerExportService {
+    private static final String CSV_HEADER = "id,name,title,race,profession,birthday,banned,experience,level,untilNextLevel";
+
+    private final PlayerRepository playerRepository;
+    private final NgramIndex ngramIndex;
+    private final int fetchSize;
+    private final int flushRows;
+    private final ObjectWriter jsonWriter;
+
+    @Autowired
+    public PlayerExportService(PlayerRepository playerRepository, NgramIndex ngramIndex,
+                               @Value("${export.fetchSize}") int fetchSize,
+                               @Value("${export.flushRows}") int flushRows) {
+        this.playerRepository = playerRepository;
+        this.ngramIndex = ngramIndex;
+        this.fetchSize = fetchSize;
+        this.flushRows = flushRows;
+
+        // same field-only serialization as the REST responses
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        this.jsonWriter = objectMapper.writerFor(PlayerView.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * @param filterDto players filter and order, paging is ignored
+     * @param format    format of the rows
+     * @param writer    destination, flushed but not closed
+     */
+    @Transactional(readOnly = true)
+    public void export(FilterDto filterDto, PlayerExportFormat format, Writer writer) throws IOException {
+        try {
+            if (format == PlayerExportFormat.CSV) {
+                writeCsv(filterDto, writer);
+            } else {
+                writeNdjson(filterDto, writer);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void writeNdjson(FilterDto filterDto, Writer writer) throws IOException {
+        JsonGenerator generator = jsonWriter.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // hands each row to the writer, which is flushed by scroll like the CSV one
+        generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        generator.setRootValueSeparator(null);
+
+        scroll(filterDto, writer, view -> {
+            jsonWriter.writeValue(generator, view);
+            generator.writeRaw('\n');
+            generator.flush();
+        });
+    }
+
+    private void writeCsv(FilterDto filterDto, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+
+        scroll(filterDto, writer, view -> {
+            writer.write(String.valueOf(view.getId()));
+            writer.write(',');
+            writeCsvText(writer, view.getName());
+            writer.write(',');
+            writeCsvText(writer, view.getTitle());
+            writer.write(',');
+            writer.write(csvValue(view.getRace()));
+            writer.write(',');
+            writer.write(csvValue(view.getProfession()));
+            writer.write(',');
+            writer.write(view.getBirthday() == null ? "" : String.valueOf(view.getBirthday().getTime()));
+            writer.write(',');
+            writer.write(csvValue(view.getBanned()));
+            writer.write(',');
+            writer.write(csvValue(view.getExperience()));
+            writer.write(',');
+            writer.write(csvValue(view.getLevel()));
+            writer.write(',');
+            writer.write(csvValue(view.getUntilNextLevel()));
+            writer.write("\r\n");
+        });
+    }
+
+    private void scroll(FilterDto filterDto, Writer writer, RowWriter rowWriter) {
+        int[] written = {0};
+        playerRepository.scrollViews(ngramIndex.narrow(PlayerQueryPlan.from(filterDto)),
+                PlayerService.sortBy(filterDto.getOrder()), fetchSize, view -> {
+                    try {
+                        rowWriter.write(view);
+                        if (++written[0] % flushRows == 0) {
+                            writer.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    private static String csvValue(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    /**
+     * Quotes the value if it contains a separator, a quote or a line break.
+     */
+    private static void writeCsvText(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(PlayerView view) throws IOException;
+    }
+}
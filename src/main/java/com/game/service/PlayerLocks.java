@@ -0,0 +1,89 @@
+package com.game.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks serializing the writes of a player.
+ * <p>
+ * A writer holds the locks of its players from reading the rows until the {@link com.game.index.PlayerIndexes}
+ * hooks have run, so the hooks of a player run in commit order. Stripes are always taken in ascending order.
+ */
+@Component
+public class PlayerLocks {
+    private final Lock[] stripes;
+
+    @Autowired
+    public PlayerLocks(@Value("${player.lockStripes}") int lockStripes) {
+        this.stripes = new Lock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * @return all the locks, for a write of the whole table
+     */
+    public Held lockAll() {
+        List<Lock> held = new ArrayList<>(stripes.length);
+        try {
+            for (Lock stripe : stripes) {
+                stripe.lock();
+                held.add(stripe);
+            }
+        } catch (RuntimeException | Error e) {
+            new Held(held).close();
+            throw e;
+        }
+        return new Held(held);
+    }
+
+    public Held lock(Long id) {
+        return lock(Collections.singleton(id));
+    }
+
+    /**
+     * @return the held locks, released by {@link Held#close()}
+     */
+    public Held lock(Collection<Long> ids) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Long id : ids) {
+            indexes.add(Math.floorMod(Long.hashCode(id), stripes.length));
+        }
+        List<Lock> held = new ArrayList<>(indexes.size());
+        try {
+            for (int index : indexes) {
+                stripes[index].lock();
+                held.add(stripes[index]);
+            }
+        } catch (RuntimeException | Error e) {
+            new Held(held).close();
+            throw e;
+        }
+        return new Held(held);
+    }
+
+    public static final class Held implements AutoCloseable {
+        private final List<Lock> locks;
+
+        private Held(List<Lock> locks) {
+            this.locks = locks;
+        }
+
+        @Override
+        public void close() {
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
+        }
+    }
+}
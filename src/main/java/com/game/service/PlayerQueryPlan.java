@@ -0,0 +1,294 @@
+package com.game.service;
+
+import com.game.dto.FilterDto;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable, normalized filter part of a players query.
+ * <p>
+ * Paging and ordering are not part of the plan, so two requests with the same filter
+ * produce equal plans. A plan holds no request state and can be shared between threads.
+ */
+public final class PlayerQueryPlan implements Specification<Player> {
+    private static final Map<Race, Specification<Player>> RACE_EQUALS = new EnumMap<>(Race.class);
+    private static final Map<Profession, Specification<Player>> PROFESSION_EQUALS = new EnumMap<>(Profession.class);
+    private static final Specification<Player> BANNED = (root, query, cb) -> cb.equal(root.get("banned"), true);
+    private static final Specification<Player> NOT_BANNED = (root, query, cb) -> cb.equal(root.get("banned"), false);
+
+    static {
+        for (Race race : Race.values()) {
+            RACE_EQUALS.put(race, (root, query, cb) -> cb.equal(root.get("race"), race));
+        }
+        for (Profession profession : Profession.values()) {
+            PROFESSION_EQUALS.put(profession, (root, query, cb) -> cb.equal(root.get("profession"), profession));
+        }
+    }
+
+    private final String name;
+    private final String title;
+    private final Race race;
+    private final Profession profession;
+    private final Boolean banned;
+    private final Integer minExperience;
+    private final Integer maxExperience;
+    private final Integer minLevel;
+    private final Integer maxLevel;
+    private final Long after;
+    private final Long before;
+    private final List<Specification<Player>> parts;
+
+    private PlayerQueryPlan(String name, String title, Race race, Profession profession, Boolean banned,
+                            Integer minExperience, Integer maxExperience, Integer minLevel, Integer maxLevel,
+                            Long after, Long before) {
+        this.name = name;
+        this.title = title;
+        this.race = race;
+        this.profession = profession;
+        this.banned = banned;
+        this.minExperience = minExperience;
+        this.maxExperience = maxExperience;
+        this.minLevel = minLevel;
+        this.maxLevel = maxLevel;
+        this.after = after;
+        this.before = before;
+        this.parts = buildParts();
+    }
+
+    /**
+     * @param filterDto request filter, paging and order fields are ignored
+     * @return plan with the same semantics as the request filter
+     */
+    public static PlayerQueryPlan from(FilterDto filterDto) {
+        int minExp = valueOrZero(filterDto.getMinExperience());
+        int maxExp = valueOrZero(filterDto.getMaxExperience());
+        Integer minExperience = null;
+        Integer maxExperience = null;
+        if (minExp < maxExp) {
+            minExperience = minExp;
+            maxExperience = maxExp;
+        } else if (minExp != 0 && maxExp == 0) {
+            minExperience = minExp;
+        } else if (minExp == 0 && maxExp != 0) {
+            maxExperience = maxExp;
+        }
+
+        int minLvl = valueOrZero(filterDto.getMinLevel());
+        int maxLvl = valueOrZero(filterDto.getMaxLevel());
+        Integer minLevel = null;
+        Integer maxLevel = null;
+        if (minLvl != 0 && maxLvl != 0 && minLvl < maxLvl) {
+            minLevel = minLvl;
+            maxLevel = maxLvl;
+        } else if (minLvl != 0 && maxLvl == 0) {
+            minLevel = minLvl;
+        } else if (minLvl == 0 && maxLvl != 0) {
+            maxLevel = maxLvl;
+        }
+
+        long afterMs = filterDto.getAfter() == null ? 0 : filterDto.getAfter();
+        long beforeMs = filterDto.getBefore() == null ? 0 : filterDto.getBefore();
+        Long after = null;
+        Long before = null;
+        if (afterMs != 0 && beforeMs != 0 && afterMs < beforeMs) {
+            after = afterMs;
+            before = beforeMs;
+        } else if (afterMs != 0 && beforeMs == 0) {
+            after = afterMs;
+        } else if (afterMs == 0 && beforeMs != 0) {
+            before = beforeMs;
+        }
+
+        return new PlayerQueryPlan(
+                filterDto.getName() == null ? null : filterDto.getName().toLowerCase(),
+                filterDto.getTitle() == null ? null : filterDto.getTitle().toLowerCase(),
+                filterDto.getRace(),
+                filterDto.getProfession(),
+                filterDto.getBanned(),
+                minExperience, maxExperience, minLevel, maxLevel, after, before);
+    }
+
+    private static int valueOrZero(Integer value) {
+        return value == null ? 0 : value;
+    }
+
+    private List<Specification<Player>> buildParts() {
+        List<Specification<Player>> result = new ArrayList<>();
+        if (name != null) {
+            String pattern = "%" + name + "%";
+            result.add((root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern));
+        }
+        if (title != null) {
+            String pattern = "%" + title + "%";
+            result.add((root, query, cb) -> cb.like(cb.lower(root.get("title")), pattern));
+        }
+        if (race != null) {
+            result.add(RACE_EQUALS.get(race));
+        }
+        if (profession != null) {
+            result.add(PROFESSION_EQUALS.get(profession));
+        }
+        if (minExperience != null || maxExperience != null) {
+            result.add(range("experience", minExperience, maxExperience));
+        }
+        if (after != null || before != null) {
+            result.add(range("birthday",
+                    after == null ? null : new Date(after),
+                    before == null ? null : new Date(before)));
+        }
+        if (banned != null) {
+            result.add(banned ? BANNED : NOT_BANNED);
+        }
+        if (minLevel != null || maxLevel != null) {
+            result.add(range("level", minLevel, maxLevel));
+        }
+        return result;
+    }
+
+    private static <T extends Comparable<? super T>> Specification<Player> range(String field, T min, T max) {
+        if (min != null && max != null) {
+            return (root, query, cb) -> cb.between(root.get(field), min, max);
+        }
+        if (min != null) {
+            return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get(field), min);
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get(field), max);
+    }
+
+    @Override
+    public Predicate toPredicate(Root<Player> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        Predicate[] predicates = new Predicate[parts.size()];
+        for (int i = 0; i < predicates.length; i++) {
+            predicates[i] = parts.get(i).toPredicate(root, query, criteriaBuilder);
+        }
+        return criteriaBuilder.and(predicates);
+    }
+
+    /**
+     * Evaluates every condition except the name and title substrings, whose result depends on the
+     * database collation.
+     *
+     * @param player player state
+     * @return true if the player satisfies the non-text conditions of the plan
+     */
+    public boolean matchesExceptText(Player player) {
+        return (race == null || race == player.getRace())
+                && (profession == null || profession == player.getProfession())
+                && (banned == null || banned.equals(player.getBanned()))
+                && inRange(player.getExperience(), minExperience, maxExperience)
+                && inRange(player.getLevel(), minLevel, maxLevel)
+                && inRange(player.getBirthday() == null ? null : player.getBirthday().getTime(), after, before);
+    }
+
+    public boolean hasTextFilter() {
+        return name != null || title != null;
+    }
+
+    private static <T extends Comparable<? super T>> boolean inRange(T value, T min, T max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return value != null
+                && (min == null || value.compareTo(min) >= 0)
+                && (max == null || value.compareTo(max) <= 0);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Race getRace() {
+        return race;
+    }
+
+    public Profession getProfession() {
+        return profession;
+    }
+
+    public Boolean getBanned() {
+        return banned;
+    }
+
+    public Integer getMinExperience() {
+        return minExperience;
+    }
+
+    public Integer getMaxExperience() {
+        return maxExperience;
+    }
+
+    public Integer getMinLevel() {
+        return minLevel;
+    }
+
+    public Integer getMaxLevel() {
+        return maxLevel;
+    }
+
+    public Long getAfter() {
+        return after;
+    }
+
+    public Long getBefore() {
+        return before;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PlayerQueryPlan that = (PlayerQueryPlan) o;
+        return Objects.equals(name, that.name) &&
+                Objects.equals(title, that.title) &&
+                race == that.race &&
+                profession == that.profession &&
+                Objects.equals(banned, that.banned) &&
+                Objects.equals(minExperience, that.minExperience) &&
+                Objects.equals(maxExperience, that.maxExperience) &&
+                Objects.equals(minLevel, that.minLevel) &&
+                Objects.equals(maxLevel, that.maxLevel) &&
+                Objects.equals(after, that.after) &&
+                Objects.equals(before, that.before);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, title, race, profession, banned, minExperience, maxExperience,
+                minLevel, maxLevel, after, before);
+    }
+
+    @Override
+    public String toString() {
+        return "PlayerQueryPlan{" +
+                "name=" + name +
+                ", title=" + title +
+                ", race=" + race +
+                ", profession=" + profession +
+                ", banned=" + banned +
+                ", experience=[" + minExperience + ", " + maxExperience + "]" +
+                ", level=[" + minLevel + ", " + maxLevel + "]" +
+                ", birthday=[" + after + ", " + before + "]" +
+                '}';
+    }
+}
@@ -0,0 +1,209 @@
+package com.game.service;
+
+import com.game.controller.PlayerOrder;
+import com.game.dto.PlayerView;
+import com.game.entity.Player;
+import com.game.index.PlayerIndex;
+import com.game.metrics.CoalescingKeySnapshot;
+import com.game.metrics.CoalescingSnapshot;
+import com.game.metrics.LatencyHistogram;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of players list queries.
+ * <p>
+ * Concurrent requests for the same filter, order and page wait for the query started by the first one
+ * and share its result. A write makes the following requests start a new query, so nobody joins a query
+ * that may have missed a committed change. A request that waits longer than {@code search.coalescing.waitMs}
+ * stops waiting and runs the query itself.
+ */
+@Component
+public class PlayerSearchCoalescer implements PlayerIndex {
+    private final boolean enabled;
+    private final long waitMs;
+    private final ConcurrentMap<Key, CompletableFuture<Page<PlayerView>>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<Key, KeyStats> stats;
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    @Autowired
+    public PlayerSearchCoalescer(@Value("${search.coalescing.enabled}") boolean enabled,
+                                 @Value("${search.coalescing.trackedKeys}") long trackedKeys,
+                                 @Value("${search.coalescing.waitMs}") long waitMs) {
+        this.enabled = enabled;
+        this.waitMs = waitMs;
+        this.stats = Caffeine.newBuilder().maximumSize(trackedKeys).build();
+    }
+
+    /**
+     * @param plan       filter of the query
+     * @param order      order of the query
+     * @param pageNumber page of the query
+     * @param pageSize   size of the page
+     * @param query      runs the query
+     * @return result of the query run by this or a concurrent request
+     */
+    public Page<PlayerView> execute(PlayerQueryPlan plan, PlayerOrder order, int pageNumber, int pageSize,
+                                    Supplier<Page<PlayerView>> query) {
+        if (!enabled) {
+            return query.get();
+        }
+        Key key = new Key(plan, order, pageNumber, pageSize);
+        KeyStats keyStats = stats.get(key, k -> new KeyStats());
+
+        CompletableFuture<Page<PlayerView>> own = new CompletableFuture<>();
+        CompletableFuture<Page<PlayerView>> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            coalesced.increment();
+            keyStats.coalesced.increment();
+            Page<PlayerView> shared = await(running);
+            if (shared != null) {
+                return shared;
+            }
+            timedOut.increment();
+            executions.increment();
+            keyStats.executions.increment();
+            return query.get();
+        }
+
+        executions.increment();
+        keyStats.executions.increment();
+        long started = System.nanoTime();
+        try {
+            Page<PlayerView> result = query.get();
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+            keyStats.latency.recordNanos(System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * @return result of the running query, {@code null} if it did not finish in time
+     */
+    private Page<PlayerView> await(CompletableFuture<Page<PlayerView>> running) {
+        try {
+            return running.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public CoalescingSnapshot snapshot() {
+        List<CoalescingKeySnapshot> keys = new ArrayList<>();
+        for (Map.Entry<Key, KeyStats> entry : stats.asMap().entrySet()) {
+            KeyStats keyStats = entry.getValue();
+            keys.add(new CoalescingKeySnapshot(entry.getKey().toString(),
+                    keyStats.executions.sum(), keyStats.coalesced.sum(), keyStats.latency.snapshot()));
+        }
+        return new CoalescingSnapshot(executions.sum(), coalesced.sum(), timedOut.sum(), keys);
+    }
+
+    @Override
+    public Reload reload() {
+        return new Reload() {
+            @Override
+            public void add(Player player) {
+            }
+
+            @Override
+            public void swap() {
+                inFlight.clear();
+            }
+        };
+    }
+
+    @Override
+    public void onCreate(Player player) {
+        inFlight.clear();
+    }
+
+    @Override
+    public void onUpdate(Player before, Player after) {
+        inFlight.clear();
+    }
+
+    @Override
+    public void onDelete(Player player) {
+        inFlight.clear();
+    }
+
+    private static final class Key {
+        private final PlayerQueryPlan plan;
+        private final PlayerOrder order;
+        private final int pageNumber;
+        private final int pageSize;
+
+        private Key(PlayerQueryPlan plan, PlayerOrder order, int pageNumber, int pageSize) {
+            this.plan = plan;
+            this.order = order;
+            this.pageNumber = pageNumber;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key that = (Key) o;
+            return pageNumber == that.pageNumber &&
+                    pageSize == that.pageSize &&
+                    order == that.order &&
+                    plan.equals(that.plan);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(plan, order, pageNumber, pageSize);
+        }
+
+        @Override
+        public String toString() {
+            return plan + ", order=" + order + ", pageNumber=" + pageNumber + ", pageSize=" + pageSize;
+        }
+    }
+
+    private static final class KeyStats {
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+    }
+}
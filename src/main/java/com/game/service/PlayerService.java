@@ -1,130 +1,425 @@
 package com.game.service;
 
 import com.game.controller.PlayerOrder;
+import com.game.dto.BulkItemResultDto;
+import com.game.dto.BulkResultDto;
 import com.game.dto.FilterDto;
 import com.game.dto.PlayerDto;
+import com.game.dto.PlayerUpdateDto;
+import com.game.dto.PlayerView;
+import com.game.dto.PlayersPageDto;
+import com.game.dto.PlayersSliceDto;
 import com.game.entity.Player;
 import com.game.entity.Profession;
 import com.game.entity.Race;
+import com.game.exception.InvalidIdException;
+import com.game.exception.NoSuchPlayerException;
+import com.game.exception.ValidationException;
+import com.game.index.ColumnarPlayerStore;
+import com.game.index.FacetIndex;
+import com.game.index.NgramIndex;
+import com.game.index.PlayerCountCache;
+import com.game.index.PlayerIndexes;
 import com.game.repository.PlayerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.ResponseStatus;
 
-import javax.persistence.criteria.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class PlayerService {
+    private static final Logger LOG = LoggerFactory.getLogger(PlayerService.class);
+
     private final PlayerRepository playerRepository;
     private final PlayerValidationService playerValidationService;
-    private FilterDto filterDto;
-    private Specification<Player> specification = new Specification<Player>() {
-        @Override
-        public Predicate toPredicate(Root<Player> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
-            List<Predicate> predicates = new ArrayList<>();
-
-            if (filterDto.getName() != null) {
-                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), "%" + filterDto.getName().toLowerCase() + "%"));
-            }
-            if (filterDto.getTitle() != null) {
-                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("title")), "%" + filterDto.getTitle().toLowerCase() + "%"));
-            }
-            if (filterDto.getRace() != null) {
-                predicates.add(criteriaBuilder.equal(root.get("race"), filterDto.getRace()));
-            }
-            if (filterDto.getProfession() != null) {
-                predicates.add(criteriaBuilder.equal(root.get("profession"), filterDto.getProfession()));
-            }
-            if (filterDto.getMinExperience() < filterDto.getMaxExperience()) {
-                predicates.add(criteriaBuilder.between(root.get("experience"), filterDto.getMinExperience(), filterDto.getMaxExperience()));
-            } else if (filterDto.getMinExperience() != 0 && filterDto.getMaxExperience() == 0) {
-                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("experience"), filterDto.getMinExperience()));
-            } else if (filterDto.getMinExperience() == 0 && filterDto.getMaxExperience() != 0) {
-                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("experience"), filterDto.getMaxExperience()));
-            }
-
-            Date before = new Date(filterDto.getBefore());
-            Date after = new Date(filterDto.getAfter());
-            if (filterDto.getAfter() != 0 && filterDto.getBefore() != 0 && filterDto.getAfter() < filterDto.getBefore()) {
-                predicates.add(criteriaBuilder.between(root.get("birthday"), after, before));
-            } else if (filterDto.getAfter() != 0 && filterDto.getBefore() == 0) {
-                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("birthday"), after));
-            } else if (filterDto.getAfter() == 0 && filterDto.getBefore() != 0) {
-                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("birthday"), before));
-            }
-
-            if (filterDto.getBanned() != null) {
-                predicates.add(criteriaBuilder.equal(root.get("banned"), filterDto.getBanned()));
-            }
-
-            if (filterDto.getMinLevel() != 0 && filterDto.getMaxLevel() != 0 && filterDto.getMinLevel() < filterDto.getMaxLevel()) {
-                predicates.add(criteriaBuilder.between(root.get("level"), filterDto.getMinLevel(), filterDto.getMaxLevel()));
-            } else if (filterDto.getMinLevel() != 0 && filterDto.getMaxLevel() == 0) {
-                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("level"), filterDto.getMinLevel()));
-            } else if (filterDto.getMinLevel() == 0 && filterDto.getMaxLevel() != 0) {
-                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("level"), filterDto.getMaxLevel()));
-            }
-
-            orderBy(filterDto, root, criteriaBuilder, query);
-
-            return criteriaBuilder.and(predicates.toArray(new Predicate[predicates.size()]));
-        }
-    };
+    private final PlayerIndexes playerIndexes;
+    private final NgramIndex ngramIndex;
+    private final ColumnarPlayerStore columnarPlayerStore;
+    private final FacetIndex facetIndex;
+    private final PlayerCountCache playerCountCache;
+    private final PlayerSearchCoalescer playerSearchCoalescer;
+    private final ExperienceWriteBehind experienceWriteBehind;
+    private final PlayerLocks playerLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int bulkMaxItems;
 
     @Autowired
-    public PlayerService(PlayerRepository playerRepository, PlayerValidationService playerValidationService) {
+    public PlayerService(PlayerRepository playerRepository, PlayerValidationService playerValidationService,
+                         PlayerIndexes playerIndexes, NgramIndex ngramIndex, ColumnarPlayerStore columnarPlayerStore,
+                         FacetIndex facetIndex, PlayerCountCache playerCountCache,
+                         PlayerSearchCoalescer playerSearchCoalescer, ExperienceWriteBehind experienceWriteBehind,
+                         PlayerLocks playerLocks, PlatformTransactionManager transactionManager,
+                         @Value("${db.batchSize}") int batchSize,
+                         @Value("${bulk.maxItems}") int bulkMaxItems) {
         this.playerRepository = playerRepository;
         this.playerValidationService = playerValidationService;
-    }
-
-    private void setFilterDto(FilterDto filterDto) {
-        this.filterDto = filterDto;
+        this.playerIndexes = playerIndexes;
+        this.ngramIndex = ngramIndex;
+        this.columnarPlayerStore = columnarPlayerStore;
+        this.facetIndex = facetIndex;
+        this.playerCountCache = playerCountCache;
+        this.playerSearchCoalescer = playerSearchCoalescer;
+        this.experienceWriteBehind = experienceWriteBehind;
+        this.playerLocks = playerLocks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.bulkMaxItems = bulkMaxItems;
     }
 
     //  == Get players count ==
     public int playersCount(FilterDto filterDto) {
-        setFilterDto(filterDto);
         if (filterDto == null) {
             return Math.toIntExact(playerRepository.count());
         }
-        return Math.toIntExact(playerRepository.count(specification));
+        return countPlayers(PlayerQueryPlan.from(filterDto));
+    }
+
+    private int countPlayers(PlayerQueryPlan plan) {
+        if (facetIndex.canCount(plan)) {
+            return facetIndex.count(plan);
+        }
+        if (columnarPlayerStore.isEnabled()) {
+            return columnarPlayerStore.count(plan);
+        }
+        return playerCountCache.get(plan, () -> Math.toIntExact(playerRepository.count(ngramIndex.narrow(plan))));
     }
 
     // == Get player ==
     public Player findById(Long id) {
-        return playerRepository.findById(id).get();
+        return experienceWriteBehind.find(id);
     }
 
     // == Create player ==
     public Player createPlayer(PlayerDto playerDto) {
-        Player player = new Player();
-        return playerRepository.save(mapDtoToEntity(player, playerDto));
+        Player player = mapDtoToEntity(new Player(), playerDto);
+        PlayerLocks.Held[] held = new PlayerLocks.Held[1];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                playerRepository.saveAndFlush(player);
+                // the id is known once inserted, the lock is held until the hooks ran
+                held[0] = playerLocks.lock(player.getId());
+            });
+            playerIndexes.onCreate(player);
+            return player;
+        } finally {
+            if (held[0] != null) {
+                held[0].close();
+            }
+        }
     }
 
     // == Get players page ==
-    public Page<Player> getListPlayers(FilterDto filterDto) {
-        setFilterDto(filterDto);
+    @Transactional(readOnly = true)
+    public Page<PlayerView> getListPlayers(FilterDto filterDto) {
+        Pageable pageable = PageRequest.of(filterDto.getPageNumber(), filterDto.getPageSize(), sortBy(filterDto.getOrder()));
+
+        PlayerQueryPlan plan = PlayerQueryPlan.from(filterDto);
+        if (columnarPlayerStore.isEnabled()) {
+            return columnarPlayerStore.findPage(plan, filterDto.getOrder(), pageable);
+        }
+
+        return playerSearchCoalescer.execute(plan, filterDto.getOrder(), filterDto.getPageNumber(), filterDto.getPageSize(), () -> {
+            // the total comes from the count cache, so flipping pages of one filter runs a single query
+            List<PlayerView> content = playerRepository.findPageViews(ngramIndex.narrow(plan), pageable);
+            return new PageImpl<>(content, pageable, countPlayers(plan));
+        });
+    }
 
-        Pageable pageable = PageRequest.of(filterDto.getPageNumber(), filterDto.getPageSize());
+    // == Get players page with total count ==
+    @Transactional(readOnly = true)
+    public PlayersPageDto getPageWithCount(FilterDto filterDto) {
+        Page<PlayerView> page = getListPlayers(filterDto);
+        return new PlayersPageDto(page.getContent(), page.getTotalElements());
+    }
+
+    // == Get players slice after cursor ==
+    public PlayersSliceDto getPlayersSlice(FilterDto filterDto, String cursor) {
+        int pageSize = filterDto.getPageSize();
+        if (pageSize <= 0) {
+            throw new ValidationException();
+        }
+        PlayerOrder order = filterDto.getOrder() == null ? PlayerOrder.ID : filterDto.getOrder();
 
-        Page<Player> page = playerRepository.findAll(specification, pageable);
+        Specification<Player> specification = ngramIndex.narrow(PlayerQueryPlan.from(filterDto));
+        if (cursor != null) {
+            PlayerCursor position = PlayerCursor.decode(cursor);
+            if (position.getOrder() != order) {
+                throw new ValidationException();
+            }
+            specification = specification.and(position.toSpecification());
+        }
 
-        return page;
+        List<Player> players = playerRepository.findSlice(specification, PlayerCursor.sortFor(order), pageSize + 1);
+        if (players.size() <= pageSize) {
+            return new PlayersSliceDto(players, null);
+        }
+        players = players.subList(0, pageSize);
+        String next = PlayerCursor.after(order, players.get(pageSize - 1)).encode();
+        return new PlayersSliceDto(players, next);
     }
 
     // == Delete player ==
     public void deletePlayer(Long id) {
-        playerRepository.deleteById(id);
+        try (ExperienceWriteBehind.Taken taken = experienceWriteBehind.take(Collections.singleton(id))) {
+            Player deleted = transactionTemplate.execute(status -> {
+                Player player = playerRepository.findByIdForUpdate(id).orElseThrow(NoSuchPlayerException::new);
+                playerRepository.delete(player);
+                return player;
+            });
+            taken.saved();
+            playerIndexes.onDelete(deleted);
+        }
     }
 
     // == Update player ==
-    public Player updatePlayer(Long playerId, PlayerDto playerDto) {
-        Player player = findById(playerId);
+    public Player updatePlayer(Long id, PlayerDto playerDto) {
+        playerValidationService.validatePlayerForUpdate(playerDto);
+        try (ExperienceWriteBehind.Taken taken = experienceWriteBehind.take(Collections.singleton(id))) {
+            Player[] before = new Player[1];
+            Player updated = transactionTemplate.execute(status -> {
+                // the row as committed, so neither the hooks nor the write work on a stale copy
+                Player player = playerRepository.findByIdForUpdate(id).orElseThrow(NoSuchPlayerException::new);
+                before[0] = new Player(player);
+                applyUpdate(player, playerDto);
+                applyPendingExperience(player, playerDto, taken.delta(id));
+                return player;
+            });
+            taken.saved();
+            playerIndexes.onUpdate(before[0], updated);
+            return updated;
+        }
+    }
+
+    /**
+     * Buffered increments are saved with the player unless the update sets the experience.
+     */
+    private static void applyPendingExperience(Player player, PlayerDto playerDto, long pendingExperience) {
+        if (pendingExperience != 0 && playerDto.getExperience() == null) {
+            ExperienceWriteBehind.applyDelta(player, pendingExperience);
+        }
+    }
+
+    // == Create players in bulk ==
+    public BulkResultDto createPlayers(List<PlayerDto> playerDtos) {
+        validateBulkSize(playerDtos);
+        BulkItemResultDto[] results = new BulkItemResultDto[playerDtos.size()];
+
+        Map<Integer, Player> players = new LinkedHashMap<>();
+        for (int i = 0; i < playerDtos.size(); i++) {
+            PlayerDto playerDto = playerDtos.get(i);
+            try {
+                if (playerDto == null) {
+                    throw new ValidationException();
+                }
+                playerValidationService.validatePlayerForCreate(playerDto);
+            } catch (ValidationException e) {
+                results[i] = new BulkItemResultDto(i, null, statusOf(e));
+                continue;
+            }
+            players.put(i, mapDtoToEntity(new Player(), playerDto));
+        }
+
+        // each chunk commits on its own, so a failed write only fails the items of its chunk
+        for (List<Integer> positions : chunks(new ArrayList<>(players.keySet()))) {
+            List<Player> chunk = new ArrayList<>();
+            for (Integer position : positions) {
+                chunk.add(players.get(position));
+            }
+            int status = HttpStatus.OK.value();
+            try {
+                createChunk(chunk);
+            } catch (DataAccessException | TransactionException e) {
+                LOG.warn("Players at positions {} to {} of a bulk create were not written",
+                        positions.get(0), positions.get(positions.size() - 1), e);
+                status = HttpStatus.INTERNAL_SERVER_ERROR.value();
+            }
+            for (Integer position : positions) {
+                Long id = status == HttpStatus.OK.value() ? players.get(position).getId() : null;
+                results[position] = new BulkItemResultDto(position, id, status);
+            }
+        }
+        return toBulkResult(results);
+    }
 
+    private void createChunk(List<Player> players) {
+        PlayerLocks.Held[] held = new PlayerLocks.Held[1];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                playerRepository.persistAll(players, batchSize);
+                List<Long> ids = new ArrayList<>();
+                for (Player player : players) {
+                    ids.add(player.getId());
+                }
+                held[0] = playerLocks.lock(ids);
+            });
+            for (Player player : players) {
+                playerIndexes.onCreate(player);
+            }
+        } finally {
+            if (held[0] != null) {
+                held[0].close();
+            }
+        }
+    }
+
+    // == Update players in bulk ==
+    public BulkResultDto updatePlayers(List<PlayerUpdateDto> updates) {
+        validateBulkSize(updates);
+        BulkItemResultDto[] results = new BulkItemResultDto[updates.size()];
+
+        Map<Long, Integer> positions = new LinkedHashMap<>();
+        for (int i = 0; i < updates.size(); i++) {
+            PlayerUpdateDto update = updates.get(i);
+            Long id = update == null ? null : update.getId();
+            try {
+                if (id == null) {
+                    throw new InvalidIdException();
+                }
+                playerValidationService.validateIdExists(id);
+                playerValidationService.validatePlayerForUpdate(update);
+                if (positions.putIfAbsent(id, i) != null) {
+                    throw new ValidationException();
+                }
+            } catch (ValidationException | InvalidIdException | NoSuchPlayerException e) {
+                results[i] = new BulkItemResultDto(i, id, statusOf(e));
+            }
+        }
+
+        Map<Long, Player> before = new HashMap<>();
+        List<Player> updated = new ArrayList<>();
+        try (ExperienceWriteBehind.Taken taken = experienceWriteBehind.take(positions.keySet())) {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (List<Long> ids : chunks(new ArrayList<>(positions.keySet()))) {
+                    for (Player player : playerRepository.findAllByIdForUpdate(ids)) {
+                        PlayerUpdateDto update = updates.get(positions.get(player.getId()));
+                        before.put(player.getId(), new Player(player));
+                        applyUpdate(player, update);
+                        applyPendingExperience(player, update, taken.delta(player.getId()));
+                        updated.add(player);
+                    }
+                    playerRepository.flushAndClear();
+                }
+            });
+            taken.saved();
+
+            for (Player player : updated) {
+                playerIndexes.onUpdate(before.get(player.getId()), player);
+            }
+        }
+        return toBulkResult(completeResults(results, positions, before.keySet()));
+    }
+
+    // == Delete players in bulk ==
+    public BulkResultDto deletePlayers(List<Long> ids) {
+        validateBulkSize(ids);
+        BulkItemResultDto[] results = new BulkItemResultDto[ids.size()];
+
+        Map<Long, Integer> positions = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            try {
+                if (id == null) {
+                    throw new InvalidIdException();
+                }
+                playerValidationService.validateIdExists(id);
+                if (positions.putIfAbsent(id, i) != null) {
+                    throw new ValidationException();
+                }
+            } catch (ValidationException | InvalidIdException | NoSuchPlayerException e) {
+                results[i] = new BulkItemResultDto(i, id, statusOf(e));
+            }
+        }
+
+        List<Player> deleted = new ArrayList<>();
+        Set<Long> deletedIds = new HashSet<>();
+        try (ExperienceWriteBehind.Taken taken = experienceWriteBehind.take(positions.keySet())) {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (List<Long> chunk : chunks(new ArrayList<>(positions.keySet()))) {
+                    for (Player player : playerRepository.findAllByIdForUpdate(chunk)) {
+                        playerRepository.delete(player);
+                        deleted.add(player);
+                    }
+                    playerRepository.flushAndClear();
+                }
+            });
+            taken.saved();
+
+            for (Player player : deleted) {
+                playerIndexes.onDelete(player);
+                deletedIds.add(player.getId());
+            }
+        }
+        return toBulkResult(completeResults(results, positions, deletedIds));
+    }
+
+    private void validateBulkSize(List<?> items) {
+        if (items == null || items.isEmpty() || items.size() > bulkMaxItems) {
+            throw new ValidationException();
+        }
+    }
+
+    private <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += batchSize) {
+            chunks.add(items.subList(from, Math.min(from + batchSize, items.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Fills in the results of the valid items: written, or not found if deleted concurrently.
+     */
+    private static BulkItemResultDto[] completeResults(BulkItemResultDto[] results, Map<Long, Integer> positions,
+                                                       Set<Long> written) {
+        for (Map.Entry<Long, Integer> position : positions.entrySet()) {
+            int status = written.contains(position.getKey()) ? HttpStatus.OK.value() : HttpStatus.NOT_FOUND.value();
+            results[position.getValue()] = new BulkItemResultDto(position.getValue(), position.getKey(), status);
+        }
+        return results;
+    }
+
+    private static BulkResultDto toBulkResult(BulkItemResultDto[] results) {
+        int succeeded = 0;
+        for (BulkItemResultDto result : results) {
+            if (result.getStatus() == HttpStatus.OK.value()) {
+                succeeded++;
+            }
+        }
+        return new BulkResultDto(succeeded, results.length - succeeded, Arrays.asList(results));
+    }
+
+    /**
+     * @return status the exception gets as a response to a single request
+     */
+    private static int statusOf(RuntimeException e) {
+        ResponseStatus responseStatus = AnnotatedElementUtils.findMergedAnnotation(e.getClass(), ResponseStatus.class);
+        return responseStatus == null ? HttpStatus.INTERNAL_SERVER_ERROR.value() : responseStatus.code().value();
+    }
+
+    private void applyUpdate(Player player, PlayerDto playerDto) {
         if (playerDto.getName() != null && playerValidationService.isNameLenValid(playerDto)) {
             player.setName(playerDto.getName());
         }
@@ -139,7 +434,6 @@ public class PlayerService {
         }
 
         if (playerDto.getBirthday() != null) {
-            playerValidationService.validateBirthday(playerDto);
             player.setBirthday(new Date(playerDto.getBirthday()));
         }
 
@@ -148,7 +442,6 @@ public class PlayerService {
         }
 
         if (playerDto.getExperience() != null) {
-            playerValidationService.validateExperience(playerDto);
             player.setExperience(playerDto.getExperience());
 
             int level = levelCalculations(playerDto);
@@ -157,7 +450,14 @@ public class PlayerService {
             int untilNextLevel = untilNextLevelCalculations(playerDto, level);
             player.setUntilNextLevel(untilNextLevel);
         }
-        return playerRepository.saveAndFlush(player);
+    }
+
+    /**
+     * @param playerDto valid player for create
+     * @return new player with the level computed from the experience, not saved
+     */
+    public Player newPlayer(PlayerDto playerDto) {
+        return mapDtoToEntity(new Player(), playerDto);
     }
 
     private Player mapDtoToEntity(Player player, PlayerDto playerDto) {
@@ -177,35 +477,45 @@ public class PlayerService {
     }
 
     private Integer levelCalculations(PlayerDto playerDto) {
-        int exp = playerDto.getExperience();
-        return (((int) (Math.sqrt(2500 + 200 * exp)) - 50) / 100);
+        return levelForExperience(playerDto.getExperience());
     }
 
     private Integer untilNextLevelCalculations(PlayerDto playerDto, Integer lvl) {
         int exp = playerDto.getExperience();
-        return (50 * (lvl + 1) * (lvl + 2) - exp);
-    }
-
-    private void orderBy(FilterDto filterDto, Root<Player> root, CriteriaBuilder criteriaBuilder, CriteriaQuery<?> query) {
-        Order order = null;
-        switch (filterDto.getOrder()) {
-            case ID:
-                order = criteriaBuilder.asc(root.get("id"));
-                break;
-            case NAME:
-                order = criteriaBuilder.asc(root.get("name"));
-                break;
-            case EXPERIENCE:
-                order = criteriaBuilder.asc(root.get("experience"));
-                break;
-            case BIRTHDAY:
-                order = criteriaBuilder.asc(root.get("birthday"));
-                break;
-            case LEVEL:
-                order = criteriaBuilder.asc(root.get("level"));
-                break;
-        }
-        query.orderBy(order);
+        return (experienceForLevel(lvl + 1) - exp);
+    }
+
+    /**
+     * @param experience player experience
+     * @return level of a player with the experience
+     */
+    public static int levelForExperience(int experience) {
+        return (((int) (Math.sqrt(2500 + 200 * experience)) - 50) / 100);
+    }
+
+    /**
+     * Sets the experience of the player together with the level and the experience until the next level.
+     */
+    public static void applyExperience(Player player, int experience) {
+        int level = levelForExperience(experience);
+        player.setExperience(experience);
+        player.setLevel(level);
+        player.setUntilNextLevel(experienceForLevel(level + 1) - experience);
+    }
+
+    /**
+     * @param level player level
+     * @return the least experience of a player with the level
+     */
+    public static int experienceForLevel(int level) {
+        return 50 * level * (level + 1);
+    }
+
+    public static Sort sortBy(PlayerOrder order) {
+        if (order == null) {
+            order = PlayerOrder.ID;
+        }
+        return Sort.by(order.getFieldName());
     }
 
     public FilterDto mapRequestParamToFilterDto(
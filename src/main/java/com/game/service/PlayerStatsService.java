@@ -0,0 +1,73 @@
+package com.game.service;
+
+import com.game.dto.PlayerStatsDto;
+import com.game.dto.StatsReconciliationDto;
+import com.game.index.PlayerIndexes;
+import com.game.index.PlayerStatsIndex;
+import com.game.repository.PlayerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Service
+public class PlayerStatsService {
+    private static final Logger LOG = LoggerFactory.getLogger(PlayerStatsService.class);
+
+    private final PlayerRepository playerRepository;
+    private final PlayerStatsIndex playerStatsIndex;
+    private final PlayerIndexes playerIndexes;
+
+    @Autowired
+    public PlayerStatsService(PlayerRepository playerRepository, PlayerStatsIndex playerStatsIndex,
+                              PlayerIndexes playerIndexes) {
+        this.playerRepository = playerRepository;
+        this.playerStatsIndex = playerStatsIndex;
+        this.playerIndexes = playerIndexes;
+    }
+
+    // == Get players stats ==
+    public List<PlayerStatsDto> getStats() {
+        return playerStatsIndex.snapshot();
+    }
+
+    // == Compare players stats with the table ==
+    @Scheduled(initialDelayString = "${stats.reconcile.intervalMs}", fixedDelayString = "${stats.reconcile.intervalMs}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * Recomputes the aggregates with a {@code GROUP BY} and rebuilds the in-memory stats if they drifted.
+     * The check is skipped when players were written while it ran. The rebuild streams the table like
+     * {@link PlayerIndexes#reload()}: the multisets behind min and max can't be derived from the aggregates,
+     * and writers keep going while the rows are read.
+     */
+    public StatsReconciliationDto reconcile() {
+        long version = playerStatsIndex.getVersion();
+        List<PlayerStatsDto> expected = playerRepository.aggregateStats();
+        List<PlayerStatsDto> actual = playerStatsIndex.snapshot();
+        if (playerStatsIndex.getVersion() != version) {
+            return new StatsReconciliationDto(false, false, 0);
+        }
+
+        Set<PlayerStatsDto> differing = new HashSet<>(expected);
+        differing.addAll(actual);
+        differing.removeIf(cell -> expected.contains(cell) && actual.contains(cell));
+        Set<PlayerStatsDto> drifted = new TreeSet<>(PlayerStatsIndex.CELL_ORDER);
+        drifted.addAll(differing);
+        if (drifted.isEmpty()) {
+            return new StatsReconciliationDto(true, true, 0);
+        }
+
+        LOG.warn("Player stats drifted from the table in {} cells, rebuilding", drifted.size());
+        playerIndexes.reload(playerStatsIndex);
+        return new StatsReconciliationDto(true, false, drifted.size());
+    }
+}
@@ -1,9 +1,11 @@
 package com.game.service;
 
 import com.game.dto.PlayerDto;
+import com.game.entity.Player;
 import com.game.exception.InvalidIdException;
 import com.game.exception.NoSuchPlayerException;
 import com.game.exception.ValidationException;
+import com.game.index.PlayerIdIndex;
 import com.game.repository.PlayerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -15,10 +17,12 @@ import java.util.Date;
 @Service
 public class PlayerValidationService {
     private final PlayerRepository playerRepository;
+    private final PlayerIdIndex playerIdIndex;
 
     @Autowired
-    public PlayerValidationService(PlayerRepository playerRepository) {
+    public PlayerValidationService(PlayerRepository playerRepository, PlayerIdIndex playerIdIndex) {
         this.playerRepository = playerRepository;
+        this.playerIdIndex = playerIdIndex;
     }
 
     /**
@@ -38,6 +42,18 @@ public class PlayerValidationService {
         }
     }
 
+    /**
+     * Checks the fields of a partial update that are rejected rather than ignored, before any of it is applied.
+     */
+    public void validatePlayerForUpdate(PlayerDto playerDto) {
+        if (playerDto.getBirthday() != null) {
+            validateBirthday(playerDto);
+        }
+        if (playerDto.getExperience() != null) {
+            validateExperience(playerDto);
+        }
+    }
+
     /**
      * @param playerDto
      * @return true if null exists
@@ -77,7 +93,15 @@ public class PlayerValidationService {
      * @return returns true if experience is valid
      */
     boolean isExperienceValid(PlayerDto playerDto) {
-        return playerDto.getExperience() >= 0 && playerDto.getExperience() <= 10000000;
+        return isExperienceValid(playerDto.getExperience());
+    }
+
+    /**
+     * @param experience
+     * @return returns true if experience is valid
+     */
+    boolean isExperienceValid(long experience) {
+        return experience >= 0 && experience <= 10000000;
     }
 
     /**
@@ -95,14 +119,28 @@ public class PlayerValidationService {
         return date.getTime() >= 0 && (year >= 2000 && year <= 3000);
     }
 
-    public void validateId(Long id) {
+    /**
+     * Checks the id against the live ids in memory, without a query.
+     *
+     * @param id player id
+     */
+    public void validateIdExists(Long id) {
         if (id <= 0) {
             throw new InvalidIdException();
-        } else if (id > playerRepository.count() || !playerRepository.findById(id).isPresent()) {
+        } else if (!playerIdIndex.contains(id)) {
             throw new NoSuchPlayerException();
         }
     }
 
+    /**
+     * @param id player id
+     * @return the player, loaded with a single query
+     */
+    public Player validateId(Long id) {
+        validateIdExists(id);
+        return playerRepository.findById(id).orElseThrow(NoSuchPlayerException::new);
+    }
+
     void validateBirthday(PlayerDto playerDto) {
         if (!isBirthdayValid(playerDto)) {
             throw new ValidationException();
@@ -0,0 +1,12 @@
+-- Equality facets first, then the range columns, so counts over race/profession/banned
+-- with an experience or level range are answered from the index alone.
+CREATE INDEX idx_player_race_profession_banned ON player (race, profession, banned, experience, level);
+CREATE INDEX idx_player_profession_banned ON player (profession, banned, experience, level);
+CREATE INDEX idx_player_banned_experience ON player (banned, experience, level);
+
+-- One index per sortable column. The primary key is the implicit last column,
+-- which also serves the (key, id) order of keyset pages.
+CREATE INDEX idx_player_name ON player (name);
+CREATE INDEX idx_player_experience ON player (experience);
+CREATE INDEX idx_player_level ON player (level);
+CREATE INDEX idx_player_birthday ON player (birthday);
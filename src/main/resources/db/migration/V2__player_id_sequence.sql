@@ -0,0 +1,13 @@
+-- Last player id reserved by the table id generator (player.id.generator=table).
+-- Each block takes the ids after next_val and moves next_val to the last of them,
+-- so it only has to stay at or above the largest id.
+CREATE TABLE player_id_sequence
+(
+    name     VARCHAR(32) NOT NULL,
+    next_val BIGINT      NOT NULL,
+    PRIMARY KEY (name)
+);
+
+INSERT INTO player_id_sequence (name, next_val)
+SELECT 'player', COALESCE(MAX(id), 0) + 1
+FROM player;
@@ -0,0 +1,13 @@
+-- Progress of player file imports. A row advances in the same transaction as the rows it counts,
+-- so an interrupted import continues right after the last committed chunk.
+CREATE TABLE player_import
+(
+    path        VARCHAR(255) NOT NULL,
+    format      VARCHAR(10)  NOT NULL,
+    file_size   BIGINT       NOT NULL,
+    byte_offset BIGINT       NOT NULL,
+    imported    BIGINT       NOT NULL,
+    rejected    BIGINT       NOT NULL,
+    finished    BIT(1)       NOT NULL,
+    PRIMARY KEY (path)
+);
@@ -0,0 +1,11 @@
+-- Last experience journal segment whose deltas are in the player table. Advances in the transaction
+-- that writes the deltas, so a segment left on disk after a crash is not applied twice.
+CREATE TABLE experience_journal
+(
+    name            VARCHAR(32) NOT NULL,
+    flushed_segment BIGINT      NOT NULL,
+    PRIMARY KEY (name)
+);
+
+INSERT INTO experience_journal (name, flushed_segment)
+VALUES ('experience', 0);
@@ -3,6 +3,7 @@ package com.game.controller;
 import com.game.config.AppConfig;
 import com.game.config.MyWebAppInit;
 import com.game.config.WebConfig;
+import com.game.index.PlayerIndexes;
 import org.junit.Before;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,6 +34,8 @@ public abstract class AbstractTest {
 
     @Before
     public void setup() {
+        // test.sql recreates the table behind the service, so in-memory indexes are rebuilt
+        context.getBean(PlayerIndexes.class).reload();
         mockMvc = MockMvcBuilders
                 .webAppContextSetup(context)
                 .addFilter(((request, response, chain) -> {
@@ -0,0 +1,124 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.TestsHelper;
+import com.game.service.ExperienceService;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class AddExperienceTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void addExperienceTest() throws Exception {
+        JsonNode player = mapper.readTree(mockMvc.perform(post("/rest/players/1/experience?delta=2000"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertEquals("Неправильный опыт игрока при запросе POST /rest/players/{id}/experience.",
+                60347, player.get("experience").asInt());
+        assertEquals("Неправильный уровень игрока при запросе POST /rest/players/{id}/experience.",
+                34, player.get("level").asInt());
+        assertEquals("Неправильный опыт до следующего уровня при запросе POST /rest/players/{id}/experience.",
+                2653, player.get("untilNextLevel").asInt());
+    }
+
+    //test2
+    @Test
+    public void addExperienceOutOfRangeTest() throws Exception {
+        mockMvc.perform(post("/rest/players/1/experience?delta=-58348"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/rest/players/1/experience?delta=10000000"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/rest/players/0/experience?delta=1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/rest/players/1000/experience?delta=1"))
+                .andExpect(status().isNotFound());
+
+        JsonNode player = mapper.readTree(mockMvc.perform(get("/rest/players/1"))
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("Отклоненное изменение опыта не должно менять игрока.",
+                58347, player.get("experience").asInt());
+    }
+
+    //test3
+    @Test
+    public void concurrentIncrementsAreNotLostTest() throws Exception {
+        ExperienceService experienceService = context.getBean(ExperienceService.class);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> increments = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                increments.add(threads.submit(() -> experienceService.addExperience(2L, 5)));
+            }
+            for (Future<?> increment : increments) {
+                increment.get();
+            }
+        } finally {
+            threads.shutdown();
+        }
+
+        JsonNode player = mapper.readTree(mockMvc.perform(get("/rest/players/2"))
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("Параллельные изменения опыта не должны теряться.",
+                174403 + 2000, player.get("experience").asInt());
+        assertEquals("Неправильный уровень игрока после параллельных изменений опыта.",
+                58, player.get("level").asInt());
+
+        String count = mockMvc.perform(get("/rest/players/count?minExperience=176403"))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Количество игроков должно учитывать новый опыт игрока.",
+                testsHelper.getPlayerInfosByMinExperience(176403, testsHelper.getAllPlayers()).size() + 1,
+                Integer.parseInt(count));
+    }
+
+    //test4
+    @Test
+    public void incrementsConcurrentWithUpdatesAreNotLostTest() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                int n = i;
+                writes.add(threads.submit(() -> {
+                    if (n % 4 == 0) {
+                        mockMvc.perform(post("/rest/players/2")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"title\":\"Титул " + n + "\"}"))
+                                .andExpect(status().isOk());
+                    } else {
+                        mockMvc.perform(post("/rest/players/2/experience?delta=5"))
+                                .andExpect(status().isOk());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> write : writes) {
+                write.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+
+        JsonNode player = mapper.readTree(mockMvc.perform(get("/rest/players/2"))
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("Изменения опыта не должны теряться при параллельном обновлении игрока.",
+                174403 + 300 * 5, player.get("experience").asInt());
+    }
+}
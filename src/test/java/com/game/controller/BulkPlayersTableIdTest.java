@@ -0,0 +1,10 @@
+package com.game.controller;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs {@link BulkPlayersTest} with player ids allocated from the id table, which lets Hibernate batch inserts.
+ */
+@TestPropertySource(properties = "player.id.generator=table")
+public class BulkPlayersTableIdTest extends BulkPlayersTest {
+}
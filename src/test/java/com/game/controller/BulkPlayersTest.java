@@ -0,0 +1,144 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.TestsHelper;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class BulkPlayersTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void createPlayersPartiallyTest() throws Exception {
+        JsonNode result = postBulk("/rest/players/bulk",
+                "[" + TestsHelper.NORMAL_JSON + ", {}, " + TestsHelper.NORMAL_JSON + "]");
+
+        assertEquals("Неправильное количество созданных игроков при запросе POST /rest/players/bulk.",
+                2, result.get("succeeded").asInt());
+        assertEquals("Неправильное количество отклоненных игроков при запросе POST /rest/players/bulk.",
+                1, result.get("failed").asInt());
+        assertEquals("Неправильный статус невалидного игрока при запросе POST /rest/players/bulk.",
+                400, result.get("items").get(1).get("status").asInt());
+        long first = result.get("items").get(0).get("id").asLong();
+        long second = result.get("items").get(2).get("id").asLong();
+        assertTrue("Созданные игроки должны получить разные id при запросе POST /rest/players/bulk.",
+                first > 0 && second > 0 && first != second);
+
+        mockMvc.perform(get("/rest/players/" + second)).andExpect(status().isOk());
+        String count = mockMvc.perform(get("/rest/players/count"))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Неправильное количество игроков после запроса POST /rest/players/bulk.",
+                testsHelper.getAllPlayers().size() + 2, Integer.parseInt(count));
+    }
+
+    //test2
+    @Test
+    public void updatePlayersPartiallyTest() throws Exception {
+        JsonNode result = postBulk("/rest/players/bulk/update", "["
+                + "{\"id\": 1, \"experience\": 100},"
+                + "{\"id\": 1000, \"name\": \"Никто\"},"
+                + "{\"id\": 0, \"name\": \"Никто\"},"
+                + "{\"id\": 2, \"birthday\": -1},"
+                + "{\"id\": 1, \"name\": \"Дубль\"}"
+                + "]");
+
+        int[] expected = {200, 404, 400, 400, 400};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("Неправильный статус игрока " + i + " при запросе POST /rest/players/bulk/update.",
+                    expected[i], result.get("items").get(i).get("status").asInt());
+        }
+
+        JsonNode player = mapper.readTree(mockMvc.perform(get("/rest/players/1"))
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("Неправильный уровень игрока после запроса POST /rest/players/bulk/update.",
+                1, player.get("level").asInt());
+        assertEquals("Неправильный опыт до следующего уровня после запроса POST /rest/players/bulk/update.",
+                200, player.get("untilNextLevel").asInt());
+        assertEquals("Неправильное имя игрока после запроса POST /rest/players/bulk/update.",
+                "Ниус", player.get("name").asText());
+
+        String count = mockMvc.perform(get("/rest/players/count?maxExperience=1000"))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Неправильное количество игроков после запроса POST /rest/players/bulk/update.",
+                testsHelper.getPlayerInfosByMaxExperience(1000, testsHelper.getAllPlayers()).size() + 1,
+                Integer.parseInt(count));
+    }
+
+    //test3
+    @Test
+    public void deletePlayersPartiallyTest() throws Exception {
+        JsonNode result = postBulk("/rest/players/bulk/delete", "[1, 2, 1, -5, 1000]");
+
+        int[] expected = {200, 200, 400, 400, 404};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("Неправильный статус игрока " + i + " при запросе POST /rest/players/bulk/delete.",
+                    expected[i], result.get("items").get(i).get("status").asInt());
+        }
+
+        mockMvc.perform(get("/rest/players/1")).andExpect(status().isNotFound());
+        String count = mockMvc.perform(get("/rest/players/count"))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Неправильное количество игроков после запроса POST /rest/players/bulk/delete.",
+                testsHelper.getAllPlayers().size() - 2, Integer.parseInt(count));
+    }
+
+    //test4
+    @Test
+    public void bulkEmptyListTest() throws Exception {
+        mockMvc.perform(post("/rest/players/bulk/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test5
+    @Test
+    public void createPlayersChunkFailedTest() throws Exception {
+        new JdbcTemplate(context.getBean(DataSource.class))
+                .execute("ALTER TABLE player ADD CONSTRAINT player_name_check CHECK (name <> 'Сбой')");
+        int batchSize = 50;
+        StringBuilder content = new StringBuilder("[").append(TestsHelper.NORMAL_JSON.replace("Амарылис", "Сбой"));
+        for (int i = 1; i <= batchSize; i++) {
+            content.append(", ").append(TestsHelper.NORMAL_JSON);
+        }
+        JsonNode result = postBulk("/rest/players/bulk", content.append("]").toString());
+
+        assertEquals("Неправильное количество созданных игроков при сбое записи при запросе POST /rest/players/bulk.",
+                1, result.get("succeeded").asInt());
+        for (int i = 0; i < batchSize; i++) {
+            assertEquals("Неправильный статус игрока " + i + " из несохраненной пачки при запросе POST /rest/players/bulk.",
+                    500, result.get("items").get(i).get("status").asInt());
+        }
+        JsonNode written = result.get("items").get(batchSize);
+        assertEquals("Неправильный статус игрока из сохраненной пачки при запросе POST /rest/players/bulk.",
+                200, written.get("status").asInt());
+
+        mockMvc.perform(get("/rest/players/" + written.get("id").asLong())).andExpect(status().isOk());
+        String count = mockMvc.perform(get("/rest/players/count"))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Неправильное количество игроков после сбоя записи при запросе POST /rest/players/bulk.",
+                testsHelper.getAllPlayers().size() + 1, Integer.parseInt(count));
+    }
+
+    private JsonNode postBulk(String url, String content) throws Exception {
+        String response = mockMvc.perform(post(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(content))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(response);
+    }
+}
@@ -0,0 +1,10 @@
+package com.game.controller;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs {@link GetAllTest} against the in-memory columnar query engine.
+ */
+@TestPropertySource(properties = "query.engine=columnar")
+public class ColumnarGetAllTest extends GetAllTest {
+}
@@ -0,0 +1,10 @@
+package com.game.controller;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs {@link GetCountTest} against the in-memory columnar query engine.
+ */
+@TestPropertySource(properties = "query.engine=columnar")
+public class ColumnarGetCountTest extends GetCountTest {
+}
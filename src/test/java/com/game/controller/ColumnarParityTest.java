@@ -0,0 +1,132 @@
+package com.game.controller;
+
+import com.game.dto.FilterDto;
+import com.game.dto.PlayerView;
+import com.game.entity.Race;
+import com.game.index.ColumnarPlayerStore;
+import com.game.index.PlayerIndex;
+import com.game.index.PlayerIndexes;
+import com.game.repository.PlayerRepository;
+import com.game.service.PlayerQueryPlan;
+import com.game.service.PlayerService;
+import org.junit.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+
+/**
+ * Runs the same filters and orders through the JDBC path and the columnar store.
+ */
+public class ColumnarParityTest extends AbstractTest {
+
+    //test1
+    @Test
+    public void sameResultsAsJdbcTest() {
+        // names and titles differing only in case, ё and diacritics
+        new JdbcTemplate(context.getBean(DataSource.class)).batchUpdate("INSERT INTO player"
+                + " (name, title, race, profession, birthday, banned, experience, level, untilNextLevel)"
+                + " VALUES (?, ?, 'ELF', 'DRUID', '2005-05-05', false, 1000, 4, 0)", rows(
+                "ёжик", "Ёлочный", "Ежик", "елочный дед", "ежик", "Ель", "Zed", "zed", "Émile", "Éclair", "emile", "eclair"));
+        context.getBean(PlayerIndexes.class).reload();
+        ColumnarPlayerStore columnar = new ColumnarPlayerStore("columnar", context.getBean(DataSource.class));
+        PlayerIndex.Reload reload = columnar.reload();
+        context.getBean(PlayerRepository.class).findAll().forEach(reload::add);
+        reload.swap();
+
+        for (PlayerOrder order : PlayerOrder.values()) {
+            assertSame(columnar, filter(order, 0, 100, f -> {
+            }));
+            assertSame(columnar, filter(order, 1, 7, f -> {
+            }));
+        }
+        assertSame(columnar, filter(PlayerOrder.NAME, 0, 100, f -> f.setName("е")));
+        assertSame(columnar, filter(PlayerOrder.NAME, 0, 100, f -> f.setName("Ё")));
+        assertSame(columnar, filter(PlayerOrder.NAME, 0, 100, f -> f.setName("e")));
+        assertSame(columnar, filter(PlayerOrder.NAME, 0, 100, f -> f.setName("É")));
+        assertSame(columnar, filter(PlayerOrder.NAME, 0, 100, f -> f.setName("e_l")));
+        assertSame(columnar, filter(PlayerOrder.ID, 0, 100, f -> f.setTitle("ёлоч")));
+        assertSame(columnar, filter(PlayerOrder.ID, 0, 100, f -> f.setTitle("елоч")));
+        assertSame(columnar, filter(PlayerOrder.EXPERIENCE, 1, 3, f -> {
+            f.setRace(Race.ELF);
+            f.setMinExperience(50000);
+        }));
+        assertSame(columnar, filter(PlayerOrder.LEVEL, 0, 5, f -> f.setBanned(true)));
+        assertSame(columnar, filter(PlayerOrder.BIRTHDAY, 0, 100, f -> {
+            f.setAfter(1104537600000L);
+            f.setBefore(1230768000000L);
+        }));
+    }
+
+    private void assertSame(ColumnarPlayerStore columnar, FilterDto filterDto) {
+        Page<PlayerView> jdbc = context.getBean(PlayerService.class).getListPlayers(filterDto);
+        Page<PlayerView> inMemory = columnar.findPage(PlayerQueryPlan.from(filterDto), filterDto.getOrder(),
+                PageRequest.of(filterDto.getPageNumber(), filterDto.getPageSize()));
+        String description = "name=" + filterDto.getName() + ", title=" + filterDto.getTitle()
+                + ", order=" + filterDto.getOrder() + ", page=" + filterDto.getPageNumber();
+
+        assertEquals("Количество игроков разошлось с JDBC: " + description,
+                jdbc.getTotalElements(), inMemory.getTotalElements());
+        Function<PlayerView, Object> key = orderKey(filterDto.getOrder());
+        assertEquals("Порядок игроков разошелся с JDBC: " + description,
+                keys(jdbc.getContent(), key), keys(inMemory.getContent(), key));
+        if (jdbc.getTotalElements() <= filterDto.getPageSize()) {
+            assertEquals("Игроки разошлись с JDBC: " + description,
+                    new HashSet<>(keys(jdbc.getContent(), PlayerView::getId)),
+                    new HashSet<>(keys(inMemory.getContent(), PlayerView::getId)));
+        }
+    }
+
+    private static FilterDto filter(PlayerOrder order, int pageNumber, int pageSize, Consumer<FilterDto> filter) {
+        FilterDto filterDto = new FilterDto();
+        filterDto.setOrder(order);
+        filterDto.setPageNumber(pageNumber);
+        filterDto.setPageSize(pageSize);
+        filter.accept(filterDto);
+        return filterDto;
+    }
+
+    /**
+     * @return the value the players are ordered by, ties may come in any order
+     */
+    private static Function<PlayerView, Object> orderKey(PlayerOrder order) {
+        switch (order) {
+            case NAME:
+                return PlayerView::getName;
+            case EXPERIENCE:
+                return PlayerView::getExperience;
+            case BIRTHDAY:
+                return view -> view.getBirthday().getTime();
+            case LEVEL:
+                return PlayerView::getLevel;
+            default:
+                return PlayerView::getId;
+        }
+    }
+
+    private static List<Object> keys(List<PlayerView> views, Function<PlayerView, Object> key) {
+        List<Object> keys = new ArrayList<>();
+        for (PlayerView view : views) {
+            keys.add(Objects.requireNonNull(key.apply(view)));
+        }
+        return keys;
+    }
+
+    private static List<Object[]> rows(String... names) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < names.length; i += 2) {
+            rows.add(new Object[]{names[i], names[i + 1]});
+            rows.add(new Object[]{names[i + 1], names[i]});
+        }
+        return rows;
+    }
+}
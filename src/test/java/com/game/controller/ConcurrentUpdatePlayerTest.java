@@ -0,0 +1,73 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ConcurrentUpdatePlayerTest extends AbstractTest {
+    private static final int THREADS = 8;
+    private static final int UPDATES = 25;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void concurrentUpdatesKeepIndexesInSyncTest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < UPDATES; i++) {
+                        int n = thread * UPDATES + i;
+                        String body = "{\"race\":\"" + Race.values()[n % Race.values().length]
+                                + "\",\"profession\":\"" + Profession.values()[n % Profession.values().length]
+                                + "\",\"experience\":" + (n * 1000) + "}";
+                        mockMvc.perform(post("/rest/players/1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                                .andExpect(status().isOk());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+        for (Race race : Race.values()) {
+            Integer stored = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM player WHERE race = ?", Integer.class, race.name());
+            String count = mockMvc.perform(get("/rest/players/count?race=" + race))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            assertEquals("Количество игроков расы " + race + " разошлось с таблицей.", stored, Integer.valueOf(count));
+        }
+
+        JsonNode reconciliation = mapper.readTree(mockMvc.perform(post("/rest/admin/stats/reconcile"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("Статистика игроков разошлась с таблицей.", true, reconciliation.get("consistent").asBoolean());
+    }
+}
@@ -0,0 +1,67 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class CountCacheTest extends AbstractTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void pageFlipsReuseCountTest() throws Exception {
+        long misses = countRegion().get("misses").asLong();
+
+        for (int pageNumber = 0; pageNumber < 3; pageNumber++) {
+            content("/rest/players/page?minExperience=1000&pageSize=3&pageNumber=" + pageNumber);
+        }
+
+        assertEquals("Количество должно считаться один раз для всех страниц фильтра.",
+                misses + 1, countRegion().get("misses").asLong());
+    }
+
+    //test2
+    @Test
+    public void updateInvalidatesOnlyAffectedCountsTest() throws Exception {
+        String url = "/rest/players/count?race=ORC&minLevel=10";
+        int before = Integer.parseInt(content(url));
+        long removals = countRegion().get("removals").asLong();
+
+        update(1, "{\"experience\": 100}");
+        assertEquals("Обновление игрока другой расы не должно сбрасывать количество.",
+                removals, countRegion().get("removals").asLong());
+
+        update(2, "{\"experience\": 0}");
+        assertEquals("Количество не обновилось после изменения уровня игрока.",
+                before - 1, Integer.parseInt(content(url)));
+    }
+
+    private void update(long id, String json) throws Exception {
+        mockMvc.perform(post("/rest/players/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isOk());
+    }
+
+    private JsonNode countRegion() throws Exception {
+        for (JsonNode region : mapper.readTree(content("/rest/metrics/cache"))) {
+            if ("players-count".equals(region.get("region").asText())) {
+                return region;
+            }
+        }
+        throw new AssertionError("Нет региона кэша количества");
+    }
+
+    private String content(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,98 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Race;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ExportPlayersTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void exportNdjsonWithoutFiltersTest() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/rest/players/export"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        List<PlayerInfoTest> actual = new ArrayList<>();
+        for (String line : response.getContentAsString().split("\n")) {
+            actual.add(mapper.readValue(line, PlayerInfoTest.class));
+        }
+
+        assertEquals("Неправильный тип ответа при запросе GET /rest/players/export.",
+                "application/x-ndjson", response.getContentType().split(";")[0]);
+        assertEquals("Неправильный список игроков при запросе GET /rest/players/export.",
+                testsHelper.getAllPlayers(), actual);
+    }
+
+    //test2
+    @Test
+    public void exportNdjsonIgnoresPagingTest() throws Exception {
+        String content = mockMvc.perform(get("/rest/players/export?race=ELF&pageNumber=1&pageSize=2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<PlayerInfoTest> actual = new ArrayList<>();
+        for (String line : content.split("\n")) {
+            actual.add(mapper.readValue(line, PlayerInfoTest.class));
+        }
+
+        assertEquals("Неправильный список игроков при запросе GET /rest/players/export с параметрами race и pageNumber.",
+                testsHelper.getPlayerInfosByRace(Race.ELF, testsHelper.getAllPlayers()), actual);
+    }
+
+    //test3
+    @Test
+    public void exportCsvTest() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/rest/players/export?format=CSV&race=HOBBIT"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        String[] lines = response.getContentAsString().split("\r\n");
+        List<PlayerInfoTest> hobbits = testsHelper.getPlayerInfosByRace(Race.HOBBIT, testsHelper.getAllPlayers());
+
+        assertEquals("Неправильный заголовок CSV при запросе GET /rest/players/export?format=CSV.",
+                "id,name,title,race,profession,birthday,banned,experience,level,untilNextLevel", lines[0]);
+        assertEquals("Неправильное количество строк CSV при запросе GET /rest/players/export?format=CSV.",
+                hobbits.size() + 1, lines.length);
+        assertEquals("Неправильная строка CSV при запросе GET /rest/players/export?format=CSV.",
+                "1,Ниус,Приходящий Без Шума,HOBBIT,ROGUE," + hobbits.get(0).birthday + ",false,58347,33,1153", lines[1]);
+    }
+
+    //test4
+    @Test
+    public void exportCsvQuotesTextTest() throws Exception {
+        mockMvc.perform(post("/rest/players/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Приходящий, \\\"Без\\\" Шума\"}"))
+                .andExpect(status().isOk());
+
+        String[] lines = mockMvc.perform(get("/rest/players/export?format=CSV&race=HOBBIT"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\r\n");
+
+        assertEquals("Неправильное экранирование текста CSV при запросе GET /rest/players/export?format=CSV.",
+                "1,Ниус,\"Приходящий, \"\"Без\"\" Шума\",HOBBIT,ROGUE", lines[1].substring(0, lines[1].indexOf(",ROGUE") + 6));
+    }
+
+    //test5
+    @Test
+    public void exportWithWrongFormatTest() throws Exception {
+        mockMvc.perform(get("/rest/players/export?format=XML"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,61 @@
+package com.game.controller;
+
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class FacetCountTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+
+    //test1
+    @Test
+    public void countByRaceAndProfessionTest() throws Exception {
+        int expected = testsHelper.getPlayerInfosByRace(Race.HUMAN,
+                testsHelper.getPlayerInfosByProfession(Profession.WARRIOR,
+                        testsHelper.getAllPlayers())).size();
+
+        assertEquals("Неправильное количество игроков по расе и профессии.",
+                expected, count("/rest/players/count?race=HUMAN&profession=WARRIOR"));
+    }
+
+    //test2
+    @Test
+    public void countFollowsCreateUpdateAndDeleteTest() throws Exception {
+        int elves = count("/rest/players/count?race=ELF");
+        int bannedElves = count("/rest/players/count?race=ELF&banned=true");
+
+        mockMvc.perform(post("/rest/players/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Новичок\", \"title\": \"Эльф\", \"race\": \"ELF\", \"profession\": \"DRUID\", " +
+                        "\"birthday\": 1000000000000, \"banned\": true, \"experience\": 1000}"))
+                .andExpect(status().isOk());
+        assertEquals("Созданный игрок не учтен.", elves + 1, count("/rest/players/count?race=ELF"));
+        assertEquals("Созданный забаненный игрок не учтен.", bannedElves + 1, count("/rest/players/count?race=ELF&banned=true"));
+
+        mockMvc.perform(post("/rest/players/41")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"banned\": false}"))
+                .andExpect(status().isOk());
+        assertEquals("Обновленный игрок учтен как забаненный.", bannedElves, count("/rest/players/count?race=ELF&banned=true"));
+
+        mockMvc.perform(delete("/rest/players/41"))
+                .andExpect(status().isOk());
+        assertEquals("Удаленный игрок учтен.", elves, count("/rest/players/count?race=ELF"));
+    }
+
+    private int count(String url) throws Exception {
+        String content = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return Integer.parseInt(content);
+    }
+}
@@ -0,0 +1,83 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.TestsHelper;
+import com.game.index.PlayerIndexes;
+import com.game.tools.DatasetGenerator;
+import com.game.tools.PlayerGenerator;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "import.directory=target/generate-test")
+public class GenerateDatasetTest extends AbstractTest {
+    private static final int PLAYERS = 300;
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void generatedFileIsReproducibleAndImportableTest() throws Exception {
+        String file = "players-" + System.nanoTime() + ".csv";
+        Path single = Paths.get("target/generate-test", "single-" + file);
+        new DatasetGenerator(new PlayerGenerator(7, 0.2), 1, 64).write(single, PlayerExportFormat.CSV, PLAYERS, 1);
+        new DatasetGenerator(new PlayerGenerator(7, 0.2), 4, 50).write(Paths.get("target/generate-test", file),
+                PlayerExportFormat.CSV, PLAYERS, 1);
+        assertTrue("Набор данных не должен зависеть от количества потоков.",
+                Arrays.equals(Files.readAllBytes(single), Files.readAllBytes(Paths.get("target/generate-test", file))));
+
+        JsonNode progress = mapper.readTree(mockMvc.perform(post("/rest/admin/import?format=CSV&file=" + file))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ("RUNNING".equals(progress.get("state").asText()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            progress = mapper.readTree(mockMvc.perform(get("/rest/admin/import/" + progress.get("id").asLong()))
+                    .andReturn().getResponse().getContentAsString());
+        }
+
+        assertEquals("Неправильное состояние импорта сгенерированного файла.", "FINISHED", progress.get("state").asText());
+        assertEquals("Все сгенерированные игроки должны проходить проверку.", 0, progress.get("rejected").asInt());
+        assertEquals("Неправильное количество игроков после импорта сгенерированного файла.",
+                testsHelper.getAllPlayers().size() + PLAYERS, count());
+    }
+
+    //test2
+    @Test
+    public void generatedRowsAreInsertedTest() throws Exception {
+        int seeded = testsHelper.getAllPlayers().size();
+        new DatasetGenerator(new PlayerGenerator(7, 0.2), 2, 64)
+                .insert(context.getBean(DataSource.class), PLAYERS, seeded + 1);
+        context.getBean(PlayerIndexes.class).reload();
+
+        assertEquals("Неправильное количество игроков после вставки сгенерированных.", seeded + PLAYERS, count());
+
+        JsonNode created = mapper.readTree(mockMvc.perform(post("/rest/players")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Новый\",\"title\":\"После генерации\",\"race\":\"ELF\",\"profession\":\"DRUID\","
+                        + "\"birthday\":988059600000,\"banned\":false,\"experience\":1000}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("Новый игрок должен получать id после сгенерированных.",
+                (long) seeded + PLAYERS + 1, created.get("id").asLong());
+    }
+
+    private int count() throws Exception {
+        return Integer.parseInt(mockMvc.perform(get("/rest/players/count"))
+                .andReturn().getResponse().getContentAsString());
+    }
+}
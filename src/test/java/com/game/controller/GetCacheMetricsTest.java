@@ -0,0 +1,64 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class GetCacheMetricsTest extends AbstractTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void repeatedRequestsHitCacheTest() throws Exception {
+        long playerHits = region("com.game.entity.Player").get("hits").asLong();
+        long queryHits = region("default-query-results-region").get("hits").asLong();
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/rest/players/14")).andExpect(status().isOk());
+            mockMvc.perform(get("/rest/players?minExperience=1000&pageSize=5")).andExpect(status().isOk());
+        }
+
+        assertTrue("Повторный запрос игрока не попал в кэш.",
+                region("com.game.entity.Player").get("hits").asLong() > playerHits);
+        assertTrue("Повторный поиск не попал в кэш запросов.",
+                region("default-query-results-region").get("hits").asLong() > queryHits);
+    }
+
+    //test2
+    @Test
+    public void cachedCountInvalidatedByWriteTest() throws Exception {
+        String url = "/rest/players/count?minExperience=1000";
+        int before = Integer.parseInt(content(url));
+        mockMvc.perform(post("/rest/players/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Новичок\", \"title\": \"Кэш\", \"race\": \"ELF\", \"profession\": \"DRUID\", " +
+                        "\"birthday\": 1000000000000, \"banned\": false, \"experience\": 5000}"))
+                .andExpect(status().isOk());
+
+        assertEquals("Кэшированное количество не обновилось после создания игрока.",
+                before + 1, Integer.parseInt(content(url)));
+    }
+
+    private JsonNode region(String name) throws Exception {
+        for (JsonNode region : mapper.readTree(content("/rest/metrics/cache"))) {
+            if (name.equals(region.get("region").asText())) {
+                return region;
+            }
+        }
+        throw new AssertionError("Нет региона кэша " + name);
+    }
+
+    private String content(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,32 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class GetIndexUsageTest extends AbstractTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    @Sql(scripts = {"classpath:test.sql", "classpath:db/migration/V1__player_indexes.sql"}, config = @SqlConfig(encoding = "UTF-8"))
+    public void allPlayersQueriesUseIndexTest() throws Exception {
+        ResultActions resultActions = mockMvc.perform(get("/rest/admin/indexes"))
+                .andExpect(status().isOk());
+
+        JsonNode checks = mapper.readTree(resultActions.andReturn().getResponse().getContentAsString());
+        assertTrue("Не выполнено ни одной проверки индексов.", checks.size() > 0);
+        for (JsonNode check : checks) {
+            assertTrue("Запрос '" + check.get("query").asText() + "' не использует индекс: " + check.get("plan").asText(),
+                    check.get("indexUsed").asBoolean());
+        }
+    }
+}
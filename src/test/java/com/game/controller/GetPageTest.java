@@ -0,0 +1,52 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Race;
+import org.junit.Test;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class GetPageTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void getPageWithoutFiltersTest() throws Exception {
+        ResultActions resultActions = mockMvc.perform(get("/rest/players/page"))
+                .andExpect(status().isOk());
+
+        JsonNode actual = mapper.readTree(resultActions.andReturn().getResponse().getContentAsString());
+        List<PlayerInfoTest> expectedPlayers = testsHelper.getPlayerInfosByPage(0, 3, testsHelper.getAllPlayers());
+
+        assertEquals("Неправильный список игроков при запросе GET /rest/players/page.",
+                expectedPlayers, Arrays.asList(mapper.treeToValue(actual.get("players"), PlayerInfoTest[].class)));
+        assertEquals("Неправильное количество игроков при запросе GET /rest/players/page.",
+                testsHelper.getAllPlayers().size(), actual.get("count").asInt());
+    }
+
+    //test2
+    @Test
+    public void getPageWithFiltersRacePageNumberTest() throws Exception {
+        ResultActions resultActions = mockMvc.perform(get("/rest/players/page?race=ELF&pageNumber=1&pageSize=2"))
+                .andExpect(status().isOk());
+
+        JsonNode actual = mapper.readTree(resultActions.andReturn().getResponse().getContentAsString());
+        List<PlayerInfoTest> elves = testsHelper.getPlayerInfosByRace(Race.ELF, testsHelper.getAllPlayers());
+
+        assertEquals("Неправильный список игроков при запросе GET /rest/players/page с параметрами race и pageNumber.",
+                testsHelper.getPlayerInfosByPage(1, 2, elves), Arrays.asList(mapper.treeToValue(actual.get("players"), PlayerInfoTest[].class)));
+        assertEquals("Неправильное количество игроков при запросе GET /rest/players/page с параметрами race и pageNumber.",
+                elves.size(), actual.get("count").asInt());
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.ResultActions;
 
 import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -47,4 +48,16 @@ public class GetPlayerTest extends AbstractTest {
         PlayerInfoTest actual = mapper.readValue(contentAsString, PlayerInfoTest.class);
         assertEquals("Вернулся неправильный объект при запросе GET /rest/players/{id}", expected, actual);
     }
-}
\ No newline at end of file
+
+    //test5
+    @Test
+    public void getPlayerAfterDeleteTest() throws Exception {
+        mockMvc.perform(delete("/rest/players/1"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/rest/players/1"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/rest/players/40"))
+                .andExpect(status().isOk());
+    }
+}
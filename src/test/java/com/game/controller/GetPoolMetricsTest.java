@@ -0,0 +1,31 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class GetPoolMetricsTest extends AbstractTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void getPoolMetricsAfterRequestTest() throws Exception {
+        mockMvc.perform(get("/rest/players"))
+                .andExpect(status().isOk());
+
+        ResultActions resultActions = mockMvc.perform(get("/rest/metrics/pool"))
+                .andExpect(status().isOk());
+
+        JsonNode actual = mapper.readTree(resultActions.andReturn().getResponse().getContentAsString());
+        assertEquals("Неправильный размер пула соединений.", 10, actual.get("max").asInt());
+        assertEquals("После запроса не должно оставаться занятых соединений.", 0, actual.get("active").asInt());
+        assertTrue("Не записано время получения соединения из пула.", actual.get("borrowLatency").get("count").asLong() > 0);
+    }
+}
@@ -0,0 +1,72 @@
+package com.game.controller;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class GetPrometheusMetricsTest extends AbstractTest {
+
+    //test1
+    @Test
+    public void getOperationTimingsTest() throws Exception {
+        mockMvc.perform(get("/rest/players/1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players?race=ELF&order=LEVEL"))
+                .andExpect(status().isOk());
+
+        Map<String, Double> metrics = metrics();
+        assertCounted(metrics, "rpg_operation_duration_seconds_count{layer=\"http\",operation=\"PlayerController.getByID\"}");
+        assertCounted(metrics, "rpg_operation_duration_seconds_count{layer=\"serialization\",operation=\"PlayerController.getByID\"}");
+        assertCounted(metrics, "rpg_operation_duration_seconds_count{layer=\"service\",operation=\"PlayerService.findById\"}");
+        assertCounted(metrics, "rpg_operation_duration_seconds_count{layer=\"repository\",operation=\"PlayerRepository.findById\"}");
+        assertCounted(metrics, "rpg_operation_duration_seconds_count{layer=\"repository\",operation=\"PlayerRepository.findPageViews\"}");
+        assertCounted(metrics, "rpg_operation_duration_seconds_count{layer=\"specification\",operation=\"PlayerQueryPlan\"}");
+        String labels = "layer=\"http\",operation=\"PlayerController.getByID\"";
+        assertEquals("Границы корзин времени обработки запроса должны быть в секундах.",
+                metrics.get("rpg_operation_duration_seconds_count{" + labels + "}"),
+                metrics.get("rpg_operation_duration_seconds_bucket{" + labels + ",le=\"10\"}"));
+        assertEquals("Последняя корзина должна включать все замеры.",
+                metrics.get("rpg_operation_duration_seconds_count{" + labels + "}"),
+                metrics.get("rpg_operation_duration_seconds_bucket{" + labels + ",le=\"+Inf\"}"));
+    }
+
+    //test2
+    @Test
+    public void getHibernateStatisticsTest() throws Exception {
+        double before = metrics().getOrDefault("rpg_hibernate_queries_total", 0.0);
+        mockMvc.perform(get("/rest/players?pageSize=5"))
+                .andExpect(status().isOk());
+
+        Map<String, Double> metrics = metrics();
+        assertTrue("Не учтен запрос к базе.", metrics.get("rpg_hibernate_queries_total") > before);
+        assertTrue("Нет статистики загрузки сущностей.", metrics.containsKey("rpg_hibernate_entity_loads_total"));
+        assertTrue("Нет статистики сбросов сессии.", metrics.containsKey("rpg_hibernate_flushes_total"));
+    }
+
+    private Map<String, Double> metrics() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/rest/metrics/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertEquals("Неправильный тип содержимого метрик.", "text/plain", response.getContentType().split(";")[0]);
+
+        Map<String, Double> metrics = new HashMap<>();
+        for (String line : response.getContentAsString().split("\n")) {
+            if (!line.startsWith("#") && !line.isEmpty()) {
+                int separator = line.lastIndexOf(' ');
+                metrics.put(line.substring(0, separator), Double.valueOf(line.substring(separator + 1)));
+            }
+        }
+        return metrics;
+    }
+
+    private static void assertCounted(Map<String, Double> metrics, String sample) {
+        assertTrue("Нет замеров " + sample, metrics.getOrDefault(sample, 0.0) > 0);
+    }
+}
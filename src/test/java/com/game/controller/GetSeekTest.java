@@ -0,0 +1,77 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Race;
+import org.junit.Test;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class GetSeekTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void seekAllPagesOrderByIdTest() throws Exception {
+        List<PlayerInfoTest> actual = readAllSlices("/rest/players/seek?pageSize=7");
+
+        assertEquals("Неправильный результат при постраничном обходе GET /rest/players/seek.",
+                testsHelper.getAllPlayers(), actual);
+    }
+
+    //test2
+    @Test
+    public void seekAllPagesOrderByLevelTest() throws Exception {
+        List<PlayerInfoTest> actual = readAllSlices("/rest/players/seek?order=LEVEL&pageSize=4");
+        List<PlayerInfoTest> expected = testsHelper.getAllPlayers().stream()
+                .sorted(Comparator.comparing((PlayerInfoTest p) -> p.level).thenComparing(p -> p.id))
+                .collect(Collectors.toList());
+
+        assertEquals("Неправильный результат при обходе GET /rest/players/seek с параметром order=LEVEL.", expected, actual);
+    }
+
+    //test3
+    @Test
+    public void seekAllPagesWithFilterOrderByBirthdayTest() throws Exception {
+        List<PlayerInfoTest> actual = readAllSlices("/rest/players/seek?race=ELF&order=BIRTHDAY&pageSize=2");
+        List<PlayerInfoTest> expected = testsHelper.getPlayerInfosByRace(Race.ELF, testsHelper.getAllPlayers()).stream()
+                .sorted(Comparator.comparing((PlayerInfoTest p) -> p.birthday).thenComparing(p -> p.id))
+                .collect(Collectors.toList());
+
+        assertEquals("Неправильный результат при обходе GET /rest/players/seek с параметрами race и order=BIRTHDAY.", expected, actual);
+    }
+
+    //test4
+    @Test
+    public void seekWithInvalidCursorTest() throws Exception {
+        mockMvc.perform(get("/rest/players/seek?cursor=not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<PlayerInfoTest> readAllSlices(String url) throws Exception {
+        List<PlayerInfoTest> result = new ArrayList<>();
+        String cursor = null;
+        do {
+            String request = cursor == null ? url : url + "&cursor=" + cursor;
+            ResultActions resultActions = mockMvc.perform(get(request))
+                    .andExpect(status().isOk());
+            JsonNode slice = mapper.readTree(resultActions.andReturn().getResponse().getContentAsString());
+            result.addAll(Arrays.asList(mapper.treeToValue(slice.get("players"), PlayerInfoTest[].class)));
+            cursor = slice.get("next").isNull() ? null : slice.get("next").asText();
+        } while (cursor != null);
+        return result;
+    }
+}
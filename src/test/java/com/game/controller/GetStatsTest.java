@@ -0,0 +1,106 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class GetStatsTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final TypeReference<List<Map<String, Object>>> typeReference = new TypeReference<List<Map<String, Object>>>() {
+    };
+
+    //test1
+    @Test
+    public void statsMatchPlayersTest() throws Exception {
+        List<Map<String, Object>> stats = stats();
+        int total = 0;
+        for (Map<String, Object> cell : stats) {
+            total += ((Number) cell.get("count")).intValue();
+        }
+        assertEquals("Сумма count по всем ячейкам не равна количеству игроков.", testsHelper.getAllPlayers().size(), total);
+
+        List<PlayerInfoTest> dwarfClerics = testsHelper.getPlayerInfosByBaned(true,
+                testsHelper.getPlayerInfosByRace(Race.DWARF,
+                        testsHelper.getPlayerInfosByProfession(Profession.CLERIC,
+                                testsHelper.getAllPlayers())));
+        Map<String, Object> cell = find(stats, "DWARF", "CLERIC", true);
+        assertEquals("Неправильный count ячейки.", dwarfClerics.size(), ((Number) cell.get("count")).intValue());
+        assertEquals("Неправильный максимум опыта ячейки.",
+                dwarfClerics.stream().mapToInt(player -> player.experience).max().getAsInt(),
+                cell.get("experienceMax"));
+        assertEquals("Неправильный минимум уровня ячейки.",
+                dwarfClerics.stream().mapToInt(player -> player.level).min().getAsInt(),
+                cell.get("levelMin"));
+    }
+
+    //test2
+    @Test
+    public void statsFollowUpdatesTest() throws Exception {
+        mockMvc.perform(post("/rest/players/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"race\": \"GIANT\", \"profession\": \"DRUID\", \"banned\": true, \"experience\": 7}"))
+                .andExpect(status().isOk());
+
+        Map<String, Object> cell = find(stats(), "GIANT", "DRUID", true);
+        assertEquals("Минимум опыта не учитывает обновленного игрока.", 7, cell.get("experienceMin"));
+
+        Map<String, Object> result = reconcile();
+        assertEquals("Статистика расходится с таблицей после обновления.", true, result.get("consistent"));
+    }
+
+    //test3
+    @Test
+    public void reconcileRebuildsDriftedStatsTest() throws Exception {
+        new JdbcTemplate(context.getBean(DataSource.class))
+                .update("UPDATE player SET experience = experience + 1 WHERE id = 1");
+
+        Map<String, Object> result = reconcile();
+        assertEquals("Расхождение не обнаружено.", false, result.get("consistent"));
+        assertEquals("Неправильное количество расходящихся ячеек.", 1, result.get("driftedCells"));
+
+        result = reconcile();
+        assertEquals("Статистика не перестроена.", true, result.get("consistent"));
+    }
+
+    private List<Map<String, Object>> stats() throws Exception {
+        String content = mockMvc.perform(get("/rest/players/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(content, typeReference);
+    }
+
+    private Map<String, Object> reconcile() throws Exception {
+        String content = mockMvc.perform(post("/rest/admin/stats/reconcile"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(content, new TypeReference<Map<String, Object>>() {
+        });
+    }
+
+    private static Map<String, Object> find(List<Map<String, Object>> stats, String race, String profession, boolean banned) {
+        for (Map<String, Object> cell : stats) {
+            if (race.equals(cell.get("race")) && profession.equals(cell.get("profession"))
+                    && Boolean.valueOf(banned).equals(cell.get("banned"))) {
+                return cell;
+            }
+        }
+        throw new AssertionError("Нет ячейки " + race + " " + profession + " " + banned);
+    }
+}
@@ -0,0 +1,59 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs {@link ImportPlayersTest} with player ids allocated from the id table.
+ */
+@TestPropertySource(properties = "player.id.generator=table")
+public class ImportPlayersTableIdTest extends ImportPlayersTest {
+    private static final String PLAYER = "{\"name\":\"Новый\",\"title\":\"Титул\",\"race\":\"ELF\",\"profession\":\"DRUID\","
+            + "\"birthday\":988059600000,\"banned\":false,\"experience\":1000}";
+
+    //test5
+    @Test
+    public void importWhileCreatingTest() throws Exception {
+        // reserves a block of ids in Hibernate before the import starts
+        create();
+        StringBuilder content = new StringBuilder(CSV_HEADER);
+        int rows = 200;
+        for (int i = 0; i < rows; i++) {
+            content.append(",Импорт").append(i).append(",Титул,ELF,DRUID,988059600000,false,1000,,\n");
+        }
+        String file = write("interleaved-" + System.nanoTime() + ".csv", content.toString());
+
+        JsonNode progress = startImport(file, "CSV");
+        int creates = 120;
+        for (int i = 0; i < creates; i++) {
+            create();
+        }
+        progress = awaitImport(progress);
+
+        assertEquals("Неправильное состояние импорта вместе с созданием игроков.", "FINISHED", progress.get("state").asText());
+        assertEquals("Неправильное количество импортированных игроков.", rows, progress.get("imported").asInt());
+        assertEquals("Неправильное количество игроков после импорта и создания.",
+                testsHelper.getAllPlayers().size() + rows + creates + 1, count(""));
+        Long maxId = new JdbcTemplate(context.getBean(DataSource.class))
+                .queryForObject("SELECT MAX(id) FROM player", Long.class);
+        Long nextId = new JdbcTemplate(context.getBean(DataSource.class))
+                .queryForObject("SELECT next_val FROM player_id_sequence WHERE name = 'player'", Long.class);
+        assertEquals("Таблица идентификаторов должна быть не позади выданных идентификаторов.", true, nextId >= maxId);
+    }
+
+    private void create() throws Exception {
+        mockMvc.perform(post("/rest/players")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(PLAYER))
+                .andExpect(status().isOk());
+    }
+}
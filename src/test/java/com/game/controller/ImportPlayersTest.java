@@ -0,0 +1,143 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Race;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {"import.directory=target/import-test", "import.chunkSize=2", "import.workers=2"})
+public class ImportPlayersTest extends AbstractTest {
+    static final String CSV_HEADER = "id,name,title,race,profession,birthday,banned,experience,level,untilNextLevel\n";
+
+    final TestsHelper testsHelper = new TestsHelper();
+    final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void importCsvTest() throws Exception {
+        String file = write("players-" + System.nanoTime() + ".csv", CSV_HEADER
+                + "1,Первый,Просто титул,ELF,DRUID,988059600000,false,1000,,\n"
+                + ",Второй,\"Титул, с \"\"кавычками\"\"\",HUMAN,CLERIC,988059600000,true,100,,\n"
+                + ",Третий,Слишком опытный,ORC,ROGUE,988059600000,false,20000000,,\n"
+                + ",Четвертый,Титул,GIANT,PALADIN,988059600000,,5000,,\r\n"
+                + "\n"
+                + ",Пятый,Титул,DWARF,WARRIOR,988059600000,false,0,,");
+
+        JsonNode progress = awaitImport(file, "CSV");
+
+        assertEquals("Неправильное состояние импорта CSV.", "FINISHED", progress.get("state").asText());
+        assertEquals("Неправильное количество импортированных игроков из CSV.", 4, progress.get("imported").asInt());
+        assertEquals("Неправильное количество отклоненных игроков из CSV.", 1, progress.get("rejected").asInt());
+        assertEquals("Неправильное количество игроков после импорта CSV.",
+                testsHelper.getAllPlayers().size() + 4, count(""));
+
+        JsonNode imported = mapper.readTree(mockMvc.perform(get("/rest/players?name=Второй"))
+                .andReturn().getResponse().getContentAsString()).get(0);
+        assertEquals("Неправильный титул игрока после импорта CSV.",
+                "Титул, с \"кавычками\"", imported.get("title").asText());
+        assertEquals("Неправильный уровень игрока после импорта CSV.", 1, imported.get("level").asInt());
+        mockMvc.perform(get("/rest/players/" + imported.get("id").asLong()))
+                .andExpect(status().isOk());
+        assertEquals("Статистика должна учитывать импортированных игроков.", true,
+                mapper.readTree(mockMvc.perform(post("/rest/admin/stats/reconcile"))
+                        .andReturn().getResponse().getContentAsString()).get("consistent").asBoolean());
+    }
+
+    //test2
+    @Test
+    public void importExportedNdjsonTest() throws Exception {
+        String exported = mockMvc.perform(get("/rest/players/export?race=ELF"))
+                .andReturn().getResponse().getContentAsString();
+        String file = write("elves-" + System.nanoTime() + ".ndjson", exported);
+
+        JsonNode progress = awaitImport(file, "NDJSON");
+
+        int elves = testsHelper.getPlayerInfosByRace(Race.ELF, testsHelper.getAllPlayers()).size();
+        assertEquals("Неправильное количество импортированных игроков из NDJSON.", elves, progress.get("imported").asInt());
+        assertEquals("Неправильное количество эльфов после импорта NDJSON.", elves * 2, count("?race=ELF"));
+    }
+
+    //test3
+    @Test
+    public void resumeImportTest() throws Exception {
+        String done = CSV_HEADER
+                + ",Первый,Титул,ELF,DRUID,988059600000,false,1000,,\n"
+                + ",Второй,Титул,ELF,DRUID,988059600000,false,1000,,\n";
+        String file = write("resume-" + System.nanoTime() + ".csv", done
+                + ",Третий,Титул,ELF,DRUID,988059600000,false,1000,,\n"
+                + ",Четвертый,Титул,ELF,DRUID,988059600000,false,1000,,\n");
+        long offset = done.getBytes(StandardCharsets.UTF_8).length;
+        new JdbcTemplate(context.getBean(DataSource.class)).update("INSERT INTO player_import "
+                        + "(path, format, file_size, byte_offset, imported, rejected, finished) VALUES (?, 'CSV', ?, ?, 2, 0, false)",
+                file, Files.size(directory().resolve(file)), offset);
+
+        JsonNode progress = awaitImport(file, "CSV");
+
+        assertEquals("Импорт должен продолжиться с сохраненной позиции.", offset, progress.get("resumedFrom").asLong());
+        assertEquals("Неправильное количество импортированных игроков с учетом прерванного импорта.",
+                4, progress.get("imported").asInt());
+        assertEquals("Продолженный импорт должен добавить только оставшихся игроков.",
+                testsHelper.getAllPlayers().size() + 2, count(""));
+
+        mockMvc.perform(post("/rest/admin/import?format=CSV&file=" + file))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test4
+    @Test
+    public void importOutsideDirectoryTest() throws Exception {
+        mockMvc.perform(post("/rest/admin/import?file=../../pom.xml"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/rest/admin/import/100500"))
+                .andExpect(status().isNotFound());
+    }
+
+    JsonNode awaitImport(String file, String format) throws Exception {
+        return awaitImport(startImport(file, format));
+    }
+
+    JsonNode startImport(String file, String format) throws Exception {
+        return mapper.readTree(mockMvc.perform(post("/rest/admin/import?format=" + format + "&file=" + file))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    JsonNode awaitImport(JsonNode progress) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ("RUNNING".equals(progress.get("state").asText()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            progress = mapper.readTree(mockMvc.perform(get("/rest/admin/import/" + progress.get("id").asLong()))
+                    .andReturn().getResponse().getContentAsString());
+        }
+        return progress;
+    }
+
+    int count(String query) throws Exception {
+        return Integer.parseInt(mockMvc.perform(get("/rest/players/count" + query))
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private static Path directory() {
+        return Paths.get("target/import-test");
+    }
+
+    static String write(String name, String content) throws Exception {
+        Files.createDirectories(directory());
+        Files.write(directory().resolve(name), content.getBytes(StandardCharsets.UTF_8));
+        return name;
+    }
+}
@@ -0,0 +1,75 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Race;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class LeaderboardTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void topByExperienceForRaceTest() throws Exception {
+        List<Long> expected = testsHelper.getPlayerInfosByRace(Race.HUMAN, testsHelper.getAllPlayers()).stream()
+                .sorted(Comparator.comparing((PlayerInfoTest player) -> player.experience).reversed()
+                        .thenComparing(player -> player.id))
+                .limit(3)
+                .map(player -> player.id)
+                .collect(Collectors.toList());
+
+        JsonNode top = read("/rest/players/leaderboard?race=HUMAN&limit=3");
+        List<Long> actual = mapper.convertValue(top.findValues("id"), new TypeReference<List<Long>>() {
+        });
+
+        assertEquals("Неправильный топ игроков расы по опыту.", expected, actual);
+        assertEquals("Первый игрок топа должен иметь ранг 1.", 1, top.get(0).get("rank").asInt());
+    }
+
+    //test2
+    @Test
+    public void rankFollowsUpdateTest() throws Exception {
+        PlayerInfoTest player = testsHelper.getPlayerInfosById(5);
+        long ahead = testsHelper.getAllPlayers().stream().filter(other -> other.experience > player.experience).count();
+        long aheadByLevel = testsHelper.getAllPlayers().stream().filter(other -> other.level > player.level).count();
+
+        assertEquals("Неправильный ранг по опыту.", ahead + 1, read("/rest/players/5/rank").get("rank").asLong());
+        assertEquals("Неправильный ранг по уровню.", aheadByLevel + 1,
+                read("/rest/players/5/rank?order=LEVEL").get("rank").asLong());
+
+        mockMvc.perform(post("/rest/players/5")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"experience\": 10000000}"))
+                .andExpect(status().isOk());
+        assertEquals("Ранг не обновился после изменения опыта.", 1L, read("/rest/players/5/rank").get("rank").asLong());
+    }
+
+    //test3
+    @Test
+    public void leaderboardWithInvalidLimitTest() throws Exception {
+        mockMvc.perform(get("/rest/players/leaderboard?limit=0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode read(String url) throws Exception {
+        String content = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(content);
+    }
+}
@@ -0,0 +1,66 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class SearchByNameTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final TypeReference<List<PlayerInfoTest>> typeReference = new TypeReference<List<PlayerInfoTest>>() {
+    };
+
+    //test1
+    @Test
+    public void searchByLongNameSubstringIgnoresCaseTest() throws Exception {
+        List<PlayerInfoTest> actual = search("/rest/players?name=АРИ&pageSize=40");
+        List<PlayerInfoTest> expected = testsHelper.getAllPlayers().stream()
+                .filter(player -> player.name.toLowerCase().contains("ари"))
+                .collect(Collectors.toList());
+
+        assertEquals("Неправильный результат поиска по подстроке имени без учета регистра.", expected, actual);
+    }
+
+    //test2
+    @Test
+    public void searchByTitleSubstringWithoutMatchesTest() throws Exception {
+        List<PlayerInfoTest> actual = search("/rest/players?title=несуществующий&pageSize=40");
+
+        assertEquals("Поиск по несуществующей подстроке должен вернуть пустой список.", 0, actual.size());
+    }
+
+    //test3
+    @Test
+    public void searchFindsUpdatedAndSkipsDeletedPlayersTest() throws Exception {
+        mockMvc.perform(post("/rest/players/14")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Ёжик\", \"title\": \"Туманный\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/rest/players/9"))
+                .andExpect(status().isOk());
+
+        assertEquals("Не найден игрок с обновленным именем.", 1, search("/rest/players?name=ёжи").size());
+        assertEquals("Найден игрок со старым именем.", 0, search("/rest/players?name=Джур").size());
+        assertEquals("Найден удаленный игрок.", 0, search("/rest/players?name=Деракт").size());
+    }
+
+    private List<PlayerInfoTest> search(String url) throws Exception {
+        ResultActions resultActions = mockMvc.perform(get(url))
+                .andExpect(status().isOk());
+        return mapper.readValue(resultActions.andReturn().getResponse().getContentAsString(), typeReference);
+    }
+}
@@ -0,0 +1,118 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.dto.FilterDto;
+import com.game.dto.PlayerView;
+import com.game.service.PlayerQueryPlan;
+import com.game.service.PlayerSearchCoalescer;
+import org.junit.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class SearchCoalescingTest extends AbstractTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void concurrentIdenticalSearchesShareQueryTest() throws Exception {
+        PlayerSearchCoalescer coalescer = context.getBean(PlayerSearchCoalescer.class);
+        PlayerQueryPlan plan = PlayerQueryPlan.from(new FilterDto());
+        long coalescedBefore = coalescer.snapshot().getCoalesced();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+        int requests = 4;
+
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        try {
+            List<Future<Page<PlayerView>>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                results.add(executor.submit(() -> coalescer.execute(plan, PlayerOrder.ID, 0, 3, () -> {
+                    queries.incrementAndGet();
+                    await(release);
+                    return new PageImpl<>(Collections.<PlayerView>emptyList());
+                })));
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while (coalescer.snapshot().getCoalesced() < coalescedBefore + requests - 1) {
+                assertTrue("Одновременные запросы не дождались общего запроса.", System.currentTimeMillis() < deadline);
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            Page<PlayerView> first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<Page<PlayerView>> result : results) {
+                assertTrue("Одновременные запросы должны получить один результат.", first == result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals("Одинаковые одновременные запросы должны выполнить один запрос.", 1, queries.get());
+    }
+
+    //test2
+    @Test
+    public void coalescingMetricsTest() throws Exception {
+        mockMvc.perform(get("/rest/players?order=ID&pageNumber=0&pageSize=3")).andExpect(status().isOk());
+
+        String content = mockMvc.perform(get("/rest/metrics/coalescing"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode actual = mapper.readTree(content);
+        assertTrue("Не учтено выполнение запроса.", actual.get("executions").asLong() > 0);
+        assertTrue("Нет статистики по ключу запроса.", actual.get("keys").size() > 0);
+    }
+
+    //test3
+    @Test
+    public void waitTimeoutRunsOwnQueryTest() throws Exception {
+        PlayerSearchCoalescer coalescer = new PlayerSearchCoalescer(true, 10, 50);
+        PlayerQueryPlan plan = PlayerQueryPlan.from(new FilterDto());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Page<PlayerView>> stuck = executor.submit(() -> coalescer.execute(plan, PlayerOrder.ID, 0, 3, () -> {
+                started.countDown();
+                await(release);
+                return new PageImpl<>(Collections.<PlayerView>emptyList());
+            }));
+            await(started);
+
+            Page<PlayerView> own = new PageImpl<>(Collections.<PlayerView>emptyList());
+            assertTrue("Запрос должен выполниться сам, не дождавшись общего запроса.",
+                    own == coalescer.execute(plan, PlayerOrder.ID, 0, 3, () -> own));
+            assertEquals("Не учтено превышение ожидания общего запроса.", 1L, coalescer.snapshot().getTimedOut());
+
+            release.countDown();
+            stuck.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
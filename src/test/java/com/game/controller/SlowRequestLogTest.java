@@ -0,0 +1,113 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.metrics.SlowRequestLog;
+import org.junit.Test;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertFalse;
+import static org.springframework.test.util.AssertionErrors.assertNotNull;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {"slowlog.enabled=true", "slowlog.thresholdMs=0", "slowlog.explain=true", "slowlog.directory=target/slowlog-test",
+        "slowlog.file.maxBytes=2000", "slowlog.file.count=2"})
+public class SlowRequestLogTest extends AbstractTest {
+    private static final File DIRECTORY = new File("target/slowlog-test");
+
+    static {
+        FileSystemUtils.deleteRecursively(DIRECTORY);
+    }
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void captureFilteredListTest() throws Exception {
+        mockMvc.perform(get("/rest/players?race=ELF&minLevel=5&pageSize=3&order=LEVEL"))
+                .andExpect(status().isOk());
+
+        JsonNode request = awaitExplained("race=ELF&minLevel=5");
+        assertEquals("Неправильный обработчик медленного запроса.", "PlayerController.getPlayersList",
+                request.get("handler").asText());
+        assertEquals("Неправильный статус медленного запроса.", 200, request.get("status").asInt());
+        String filter = request.get("filter").asText();
+        assertTrue("Фильтр должен быть нормализован: " + filter,
+                filter.contains("race=ELF") && filter.contains("level=[5, null]") && filter.contains("order=LEVEL"));
+        assertTrue("Нет времени обработчика в разбивке по слоям.", request.get("layerMicros").has("http"));
+        assertTrue("Нет времени репозитория в разбивке по слоям.", request.get("layerMicros").has("repository"));
+
+        JsonNode query = null;
+        for (JsonNode statement : request.get("statements")) {
+            if (statement.get("sql").asText().toLowerCase().startsWith("select")
+                    && statement.get("binds").toString().contains("ELF")) {
+                query = statement;
+            }
+        }
+        assertNotNull("Не записан запрос с параметром фильтра.", query);
+        assertTrue("Не посчитаны строки запроса.", query.get("rows").asLong() > 0);
+        assertTrue("Не посчитаны строки медленного запроса.", request.get("rows").asLong() > 0);
+        assertFalse("План запроса не получен: " + request.get("explain").asText(),
+                request.get("explain").asText().startsWith("EXPLAIN failed"));
+    }
+
+    //test2
+    @Test
+    public void rollFileTest() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            mockMvc.perform(get("/rest/players/" + (i + 1)))
+                    .andExpect(status().isOk());
+        }
+
+        assertTrue("Медленные запросы не записаны в файл.",
+                context.getBean(SlowRequestLog.class).awaitWritten(5, TimeUnit.SECONDS));
+
+        File current = new File(DIRECTORY, "slow-requests.log");
+        assertTrue("Файл медленных запросов должен переходить в архив по размеру.",
+                new File(DIRECTORY, "slow-requests.log.2").exists());
+        assertFalse("Лишние архивы медленных запросов должны удаляться.",
+                new File(DIRECTORY, "slow-requests.log.3").exists());
+
+        List<String> lines = Files.readAllLines(current.toPath(), StandardCharsets.UTF_8);
+        assertFalse("Файл медленных запросов пуст.", lines.isEmpty());
+        for (String line : lines) {
+            assertTrue("В файле должна быть строка JSON на каждый запрос.", mapper.readTree(line).has("uri"));
+        }
+    }
+
+    //test3
+    @Test
+    public void invalidLimitTest() throws Exception {
+        mockMvc.perform(get("/rest/admin/slow-requests?limit=0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * @return slow request with the query, once the plan of its query is explained
+     */
+    private JsonNode awaitExplained(String query) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            JsonNode requests = mapper.readTree(mockMvc.perform(get("/rest/admin/slow-requests"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            for (JsonNode request : requests) {
+                if (request.get("uri").asText().contains(query) && !request.get("explain").isNull()) {
+                    return request;
+                }
+            }
+            assertTrue("Медленный запрос не записан в журнал.", System.currentTimeMillis() < deadline);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.service.ExperienceWriteBehind;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.util.NestedServletException;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Objects;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.util.AssertionErrors.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {"experience.writeBehind.enabled=true", "experience.writeBehind.flushIntervalMs=3600000",
+        "experience.journal.directory=target/experience-journal-test"})
+public class WriteBehindExperienceTest extends AbstractTest {
+    private static final File JOURNAL = new File("target/experience-journal-test");
+
+    static {
+        // segments of an earlier run would be replayed against the fresh database
+        FileSystemUtils.deleteRecursively(JOURNAL);
+    }
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void incrementIsBufferedTest() throws Exception {
+        JsonNode player = mapper.readTree(mockMvc.perform(post("/rest/players/1/experience?delta=2000"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("Неправильный опыт игрока при запросе POST /rest/players/{id}/experience.",
+                60347, player.get("experience").asInt());
+
+        player = mapper.readTree(mockMvc.perform(get("/rest/players/1"))
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("Запрос GET /rest/players/{id} должен учитывать незаписанный опыт.",
+                60347, player.get("experience").asInt());
+        assertEquals("Неправильный уровень игрока с незаписанным опытом.",
+                34, player.get("level").asInt());
+        assertEquals("Опыт не должен записываться в базу до сброса буфера.", 58347, storedExperience(1));
+
+        flush();
+        assertEquals("Опыт должен записываться в базу при сбросе буфера.", 60347, storedExperience(1));
+    }
+
+    //test2
+    @Test
+    public void pendingIncrementsAreValidatedTest() throws Exception {
+        mockMvc.perform(post("/rest/players/1/experience?delta=1000"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/rest/players/1/experience?delta=-59348"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/rest/players/1000/experience?delta=1"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/rest/players/1/experience?delta=-59347"))
+                .andExpect(status().isOk());
+
+        flush();
+        assertEquals("Неправильный опыт игрока после сброса буфера.", 0, storedExperience(1));
+    }
+
+    //test3
+    @Test
+    public void updateSavesPendingIncrementsTest() throws Exception {
+        mockMvc.perform(post("/rest/players/1/experience?delta=2000"))
+                .andExpect(status().isOk());
+        JsonNode player = mapper.readTree(mockMvc.perform(post("/rest/players/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Буфер\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("Обновление игрока должно сохранять незаписанный опыт.",
+                60347, player.get("experience").asInt());
+        assertEquals("Обновление игрока должно сохранять незаписанный опыт в базе.", 60347, storedExperience(1));
+
+        flush();
+        assertEquals("Сохраненный при обновлении опыт не должен записываться повторно.", 60347, storedExperience(1));
+    }
+
+    //test4
+    @Test
+    public void journalIsTruncatedAfterFlushTest() throws Exception {
+        mockMvc.perform(post("/rest/players/3/experience?delta=10"))
+                .andExpect(status().isOk());
+        assertTrue("Изменение опыта должно записываться в журнал.", journalSize() > 0);
+
+        flush();
+        assertEquals("Записанные в базу сегменты журнала должны удаляться.", 0L, journalSize());
+    }
+
+    //test5
+    @Test
+    public void bulkUpdateSavesPendingIncrementsTest() throws Exception {
+        mockMvc.perform(post("/rest/players/1/experience?delta=2000"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/rest/players/2/experience?delta=2000"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/rest/players/bulk/update")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"id\":1,\"name\":\"Буфер\"},{\"id\":2,\"experience\":1000}]"))
+                .andExpect(status().isOk());
+        assertEquals("Массовое обновление должно сохранять незаписанный опыт.", 60347, storedExperience(1));
+        assertEquals("Заданный при массовом обновлении опыт заменяет незаписанный.", 1000, storedExperience(2));
+
+        flush();
+        assertEquals("Сохраненный при массовом обновлении опыт не должен записываться повторно.", 60347, storedExperience(1));
+        assertEquals("Замененный незаписанный опыт не должен записываться после сброса.", 1000, storedExperience(2));
+    }
+
+    //test6
+    @Test
+    public void bulkDeleteDropsPendingIncrementsTest() throws Exception {
+        mockMvc.perform(post("/rest/players/3/experience?delta=10"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/rest/players/bulk/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[3]"))
+                .andExpect(status().isOk());
+
+        flush();
+        mockMvc.perform(get("/rest/players/3"))
+                .andExpect(status().isNotFound());
+        assertEquals("Незаписанный опыт удаленного игрока не должен оставаться в журнале.", 0L, journalSize());
+    }
+
+    //test7
+    @Test
+    public void failedUpdateKeepsPendingIncrementsTest() throws Exception {
+        mockMvc.perform(post("/rest/players/1/experience?delta=2000"))
+                .andExpect(status().isOk());
+
+        // the row lock of another transaction makes the update time out and roll back
+        try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("UPDATE player SET title = 'Блок' WHERE id = 1");
+            }
+            try {
+                mockMvc.perform(post("/rest/players/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Откат\"}"));
+                fail("Обновление заблокированного игрока должно завершиться ошибкой.");
+            } catch (NestedServletException expected) {
+                // the lock timeout is not mapped to a status
+            } finally {
+                connection.rollback();
+            }
+        }
+
+        JsonNode player = mapper.readTree(mockMvc.perform(get("/rest/players/1"))
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("Неудачное обновление не должно терять незаписанный опыт.",
+                60347, player.get("experience").asInt());
+        flush();
+        assertEquals("Незаписанный опыт неудачного обновления должен записываться при сбросе.", 60347, storedExperience(1));
+    }
+
+    private void flush() {
+        context.getBean(ExperienceWriteBehind.class).flush();
+    }
+
+    private int storedExperience(long id) {
+        return new JdbcTemplate(context.getBean(DataSource.class))
+                .queryForObject("SELECT experience FROM player WHERE id = ?", Integer.class, id);
+    }
+
+    private long journalSize() {
+        long size = 0;
+        for (File segment : Objects.requireNonNull(JOURNAL.listFiles())) {
+            size += segment.length();
+        }
+        return size;
+    }
+}
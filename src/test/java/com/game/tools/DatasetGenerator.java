@@ -0,0 +1,255 @@
+package com.game.tools;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.game.controller.PlayerExportFormat;
+import com.game.entity.Player;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes a dataset of {@link PlayerGenerator} players into a database or a file.
+ * <p>
+ * Into a database, every thread inserts its own blocks in batches over its own connection, one transaction
+ * per block. Into a file, threads render the blocks and a single writer appends them in order, in the format of
+ * {@code GET /rest/players/export}, so the file can be loaded with {@code POST /rest/admin/import} as well.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.game.tools.DatasetGenerator \
+ *     -Dexec.args="--players=10000000 --jdbc=jdbc:mysql://localhost:3306/rpg?rewriteBatchedStatements=true --user=root --password=root"
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.game.tools.DatasetGenerator \
+ *     -Dexec.args="--players=1000000 --file=import/players.csv"
+ * </pre>
+ * Options: {@code --seed} (42), {@code --threads} (processors), {@code --bannedRatio} (0.2),
+ * {@code --batchSize} (5000), {@code --firstId} (after the greatest id in the table, 1 for files),
+ * {@code --format} (by the file extension).
+ * The application keeps its indexes in memory, so it is restarted after loading into its database.
+ */
+public final class DatasetGenerator {
+    private static final String INSERT = "INSERT INTO player (id, name, title, race, profession, birthday, banned, experience, level, untilNextLevel) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String CSV_HEADER = "id,name,title,race,profession,birthday,banned,experience,level,untilNextLevel\r\n";
+    private static final long PROGRESS_ROWS = 1_000_000;
+
+    private final PlayerGenerator generator;
+    private final int threads;
+    private final int batchSize;
+
+    public DatasetGenerator(PlayerGenerator generator, int threads, int batchSize) {
+        this.generator = generator;
+        this.threads = threads;
+        this.batchSize = batchSize;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = options(args);
+        long players = Long.parseLong(required(options, "players"));
+        DatasetGenerator datasetGenerator = new DatasetGenerator(
+                new PlayerGenerator(Long.parseLong(options.getOrDefault("seed", "42")),
+                        Double.parseDouble(options.getOrDefault("bannedRatio", "0.2"))),
+                Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors()))),
+                Integer.parseInt(options.getOrDefault("batchSize", "5000")));
+
+        long started = System.nanoTime();
+        if (options.containsKey("jdbc")) {
+            DataSource dataSource = new DriverManagerDataSource(options.get("jdbc"), options.get("user"), options.get("password"));
+            long firstId = options.containsKey("firstId") ? Long.parseLong(options.get("firstId")) : nextId(dataSource);
+            datasetGenerator.insert(dataSource, players, firstId);
+        } else {
+            Path file = Paths.get(required(options, "file"));
+            String format = options.getOrDefault("format", file.toString().endsWith(".ndjson") ? "ndjson" : "csv");
+            datasetGenerator.write(file, PlayerExportFormat.valueOf(format.toUpperCase()), players,
+                    Long.parseLong(options.getOrDefault("firstId", "1")));
+        }
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        System.out.printf("%d players in %d ms, %d players/s%n", players, millis, players * 1000 / Math.max(1, millis));
+    }
+
+    /**
+     * Inserts the players with ids from {@code firstId} on.
+     */
+    public void insert(DataSource dataSource, long players, long firstId) throws Exception {
+        AtomicLong nextBlock = new AtomicLong();
+        AtomicLong inserted = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    try (Connection connection = dataSource.getConnection();
+                         PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                        connection.setAutoCommit(false);
+                        long from;
+                        while ((from = nextBlock.getAndIncrement() * batchSize) < players) {
+                            long to = Math.min(players, from + batchSize);
+                            for (long index = from; index < to; index++) {
+                                bind(statement, firstId + index, generator.generate(index));
+                                statement.addBatch();
+                            }
+                            statement.executeBatch();
+                            connection.commit();
+                            progress(inserted.addAndGet(to - from), to - from);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            await(workers);
+        } finally {
+            executor.shutdownNow();
+        }
+        restartIdentity(dataSource);
+    }
+
+    /**
+     * Writes the players with ids from {@code firstId} on into the file.
+     */
+    public void write(Path file, PlayerExportFormat format, long players, long firstId) throws Exception {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            if (format == PlayerExportFormat.CSV) {
+                out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+            }
+            // a few blocks ahead of the writer keep the threads busy without holding the whole dataset
+            Queue<Future<byte[]>> blocks = new ArrayDeque<>();
+            long written = 0;
+            for (long from = 0; from < players || !blocks.isEmpty(); ) {
+                while (from < players && blocks.size() < threads * 2) {
+                    long blockFrom = from;
+                    long blockTo = Math.min(players, from + batchSize);
+                    blocks.add(executor.submit(() -> render(format, blockFrom, blockTo, firstId)));
+                    from = blockTo;
+                }
+                out.write(blocks.remove().get());
+                long before = written;
+                written = Math.min(players, written + batchSize);
+                progress(written, written - before);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private byte[] render(PlayerExportFormat format, long from, long to, long firstId) {
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        StringBuilder block = new StringBuilder((int) (to - from) * 96);
+        for (long index = from; index < to; index++) {
+            Player player = generator.generate(index);
+            long id = firstId + index;
+            if (format == PlayerExportFormat.CSV) {
+                // generated names and titles hold no separators or quotes
+                block.append(id).append(',').append(player.getName()).append(',').append(player.getTitle())
+                        .append(',').append(player.getRace()).append(',').append(player.getProfession())
+                        .append(',').append(player.getBirthday().getTime()).append(',').append(player.getBanned())
+                        .append(',').append(player.getExperience()).append(',').append(player.getLevel())
+                        .append(',').append(player.getUntilNextLevel()).append("\r\n");
+            } else {
+                block.append("{\"id\":").append(id)
+                        .append(",\"name\":\"").append(encoder.quoteAsString(player.getName()))
+                        .append("\",\"title\":\"").append(encoder.quoteAsString(player.getTitle()))
+                        .append("\",\"race\":\"").append(player.getRace())
+                        .append("\",\"profession\":\"").append(player.getProfession())
+                        .append("\",\"birthday\":").append(player.getBirthday().getTime())
+                        .append(",\"banned\":").append(player.getBanned())
+                        .append(",\"experience\":").append(player.getExperience())
+                        .append(",\"level\":").append(player.getLevel())
+                        .append(",\"untilNextLevel\":").append(player.getUntilNextLevel()).append("}\n");
+            }
+        }
+        return block.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void bind(PreparedStatement statement, long id, Player player) throws SQLException {
+        statement.setLong(1, id);
+        statement.setString(2, player.getName());
+        statement.setString(3, player.getTitle());
+        statement.setString(4, player.getRace().name());
+        statement.setString(5, player.getProfession().name());
+        statement.setDate(6, new java.sql.Date(player.getBirthday().getTime()));
+        statement.setBoolean(7, player.getBanned());
+        statement.setInt(8, player.getExperience());
+        statement.setInt(9, player.getLevel());
+        statement.setInt(10, player.getUntilNextLevel());
+    }
+
+    private static long nextId(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM player")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    /**
+     * Moves an H2 identity past the inserted ids. MySQL moves AUTO_INCREMENT by itself.
+     */
+    private static void restartIdentity(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            if ("H2".equals(connection.getMetaData().getDatabaseProductName())) {
+                statement.execute("ALTER TABLE player ALTER COLUMN id RESTART WITH " + nextId(dataSource));
+            }
+        }
+    }
+
+    private static void progress(long done, long step) {
+        if (done / PROGRESS_ROWS != (done - step) / PROGRESS_ROWS) {
+            System.out.printf("%d players%n", done);
+        }
+    }
+
+    private static void await(List<Future<?>> workers) throws Exception {
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing --" + name);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,381 @@
+package com.game.tools;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.PlayerOrder;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.metrics.LatencyHistogram;
+import com.game.metrics.LatencySnapshot;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load of the {@code /rest/players} API of a running instance.
+ * <p>
+ * Requests are started at the arrival rate whatever the response times, by a pool large enough to hold the
+ * requests in flight. Response time is measured from the moment a request was due to start, not from the moment
+ * it was sent, so a stalled server is charged for the requests it kept waiting (coordinated omission).
+ * Service time, from the moment the request was sent, is reported next to it.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.game.tools.LoadDriver \
+ *     -Dexec.args="--url=http://localhost:8080 --rate=500 --duration=60"
+ * </pre>
+ * Options: {@code --rate} (requests per second, 100), {@code --duration} and {@code --warmup} (seconds, 60 and 10),
+ * {@code --arrivals} ({@code poisson} or {@code uniform}), {@code --threads} (256), {@code --seed} (42),
+ * {@code --mix} (weights, {@code list:50,count:15,get:20,create:5,update:5,delete:5}).
+ * Gets and updates go to ids sampled from the export of the players existing at the start. Deletes remove only
+ * players created by the run; while there are none, a delete is sent as a create.
+ */
+public final class LoadDriver {
+    private static final int TIMEOUT_MS = 30_000;
+    private static final long REPORT_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final String[] NAME_PARTS = {"а", "ар", "ил", "ка", "ор", "эль", "ан", "ри"};
+    private static final int[] PAGE_SIZES = {3, 10, 20, 50};
+    private static final int SAMPLED_IDS = 100_000;
+
+    private final String url;
+    private final double rate;
+    private final boolean poisson;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final int threads;
+    private final SplittableRandom random;
+    private final Operation[] operations;
+    private final int[] weights;
+    private final PlayerGenerator playerGenerator;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final ConcurrentLinkedDeque<Long> created = new ConcurrentLinkedDeque<>();
+    private final AtomicLong completed = new AtomicLong();
+    private long[] ids;
+    private long createdIndex;
+
+    enum Operation {
+        LIST, COUNT, GET, CREATE, UPDATE, DELETE
+    }
+
+    private LoadDriver(Map<String, String> options) {
+        this.url = options.getOrDefault("url", "http://localhost:8080").replaceAll("/$", "");
+        this.rate = Double.parseDouble(options.getOrDefault("rate", "100"));
+        this.poisson = !"uniform".equals(options.getOrDefault("arrivals", "poisson"));
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("warmup", "10")));
+        this.durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("duration", "60")));
+        this.threads = Integer.parseInt(options.getOrDefault("threads", "256"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        this.random = new SplittableRandom(seed);
+        this.playerGenerator = new PlayerGenerator(seed, 0.2);
+
+        String[] mix = options.getOrDefault("mix", "list:50,count:15,get:20,create:5,update:5,delete:5").split(",");
+        this.operations = new Operation[mix.length];
+        this.weights = new int[mix.length];
+        int sum = 0;
+        for (int i = 0; i < mix.length; i++) {
+            String[] parts = mix[i].split(":");
+            operations[i] = Operation.valueOf(parts[0].trim().toUpperCase());
+            sum += Integer.parseInt(parts[1].trim());
+            weights[i] = sum;
+        }
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        new LoadDriver(options).run();
+    }
+
+    private void run() throws Exception {
+        System.setProperty("http.maxConnections", String.valueOf(threads));
+        long players = sampleIds();
+        System.out.printf("%d players, %.0f requests/s for %d s after %d s of warmup%n", players, rate,
+                TimeUnit.NANOSECONDS.toSeconds(durationNanos), TimeUnit.NANOSECONDS.toSeconds(warmupNanos));
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        long nextReport = start + REPORT_NANOS;
+        long sent = 0;
+        double intended = start;
+        while (intended < end) {
+            long due = (long) intended;
+            long now;
+            while ((now = System.nanoTime()) < due) {
+                LockSupport.parkNanos(due - now);
+            }
+            if (now >= nextReport) {
+                System.out.printf("%3d s: %d sent, %d completed%n", TimeUnit.NANOSECONDS.toSeconds(now - start), sent, completed.get());
+                nextReport += REPORT_NANOS;
+            }
+
+            Request request = next();
+            boolean measured = due >= measureFrom;
+            executor.execute(() -> execute(request, due, measured));
+            sent++;
+            intended += poisson ? -Math.log(1 - random.nextDouble()) * 1e9 / rate : 1e9 / rate;
+        }
+        executor.shutdown();
+        executor.awaitTermination(TIMEOUT_MS * 2L, TimeUnit.MILLISECONDS);
+        report();
+    }
+
+    private Request next() {
+        int value = random.nextInt(weights[weights.length - 1]);
+        int i = 0;
+        while (value >= weights[i]) {
+            i++;
+        }
+        switch (operations[i]) {
+            case LIST:
+                return new Request(Operation.LIST, "GET", "/rest/players?" + filter() + "&" + page(), null);
+            case COUNT:
+                return new Request(Operation.COUNT, "GET", "/rest/players/count?" + filter(), null);
+            case GET:
+                return new Request(Operation.GET, "GET", "/rest/players/" + existingId(), null);
+            case UPDATE:
+                return new Request(Operation.UPDATE, "POST", "/rest/players/" + existingId(),
+                        "{\"experience\":" + random.nextInt(1_000_000) + "}");
+            case DELETE:
+                Long id = created.pollFirst();
+                if (id != null) {
+                    return new Request(Operation.DELETE, "DELETE", "/rest/players/" + id, null);
+                }
+                // nothing created to delete yet
+            default:
+                return new Request(Operation.CREATE, "POST", "/rest/players", createBody());
+        }
+    }
+
+    private String filter() {
+        StringBuilder query = new StringBuilder("order=").append(PlayerOrder.values()[random.nextInt(PlayerOrder.values().length)]);
+        if (random.nextInt(10) < 3) {
+            query.append("&race=").append(Race.values()[random.nextInt(Race.values().length)]);
+        }
+        if (random.nextInt(10) < 3) {
+            query.append("&profession=").append(Profession.values()[random.nextInt(Profession.values().length)]);
+        }
+        if (random.nextInt(10) < 2) {
+            query.append("&banned=").append(random.nextBoolean());
+        }
+        if (random.nextInt(10) < 2) {
+            int min = random.nextInt(500_000);
+            query.append("&minExperience=").append(min).append("&maxExperience=").append(min + random.nextInt(500_000));
+        }
+        if (random.nextInt(10) < 1) {
+            int min = random.nextInt(40);
+            query.append("&minLevel=").append(min).append("&maxLevel=").append(min + random.nextInt(20));
+        }
+        if (random.nextInt(10) < 1) {
+            query.append("&name=").append(encode(NAME_PARTS[random.nextInt(NAME_PARTS.length)]));
+        }
+        return query.toString();
+    }
+
+    private String page() {
+        return "pageSize=" + PAGE_SIZES[random.nextInt(PAGE_SIZES.length)] + "&pageNumber=" + random.nextInt(5);
+    }
+
+    private long existingId() {
+        return ids[random.nextInt(ids.length)];
+    }
+
+    /**
+     * Picks up to {@code SAMPLED_IDS} ids of the existing players, so gets and updates don't hit the gaps
+     * left by deleted players.
+     *
+     * @return number of existing players
+     */
+    private long sampleIds() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url + "/rest/players/export?format=NDJSON").openConnection();
+        connection.setConnectTimeout(TIMEOUT_MS);
+        connection.setReadTimeout(TIMEOUT_MS);
+        if (connection.getResponseCode() != 200) {
+            throw new IOException("Cannot export the players, status " + connection.getResponseCode());
+        }
+        long[] sample = new long[SAMPLED_IDS];
+        long players = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                long id = mapper.readTree(line).get("id").asLong();
+                // reservoir sampling, every player is picked with the same probability
+                long slot = players < sample.length ? players : random.nextLong(players + 1);
+                if (slot < sample.length) {
+                    sample[(int) slot] = id;
+                }
+                players++;
+            }
+        }
+        if (players == 0) {
+            throw new IllegalStateException("No players to get and update at " + url);
+        }
+        ids = Arrays.copyOf(sample, (int) Math.min(players, sample.length));
+        return players;
+    }
+
+    private String createBody() {
+        Player player = playerGenerator.generate(createdIndex++);
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        return "{\"name\":\"" + new String(encoder.quoteAsString(player.getName()))
+                + "\",\"title\":\"" + new String(encoder.quoteAsString(player.getTitle()))
+                + "\",\"race\":\"" + player.getRace()
+                + "\",\"profession\":\"" + player.getProfession()
+                + "\",\"birthday\":" + player.getBirthday().getTime()
+                + ",\"banned\":" + player.getBanned()
+                + ",\"experience\":" + player.getExperience() + "}";
+    }
+
+    private void execute(Request request, long due, boolean measured) {
+        OperationStats operationStats = stats.get(request.operation);
+        long sentAt = System.nanoTime();
+        try {
+            Response response = send(request.method, request.path, request.body);
+            long doneAt = System.nanoTime();
+            if (response.status / 100 != 2) {
+                if (measured) {
+                    operationStats.errors.increment();
+                }
+            } else if (request.operation == Operation.CREATE) {
+                JsonNode player = mapper.readTree(response.body);
+                created.addLast(player.get("id").asLong());
+            }
+            if (measured) {
+                operationStats.responseTime.recordNanos(doneAt - due);
+                operationStats.serviceTime.recordNanos(doneAt - sentAt);
+            }
+        } catch (IOException e) {
+            if (measured) {
+                operationStats.errors.increment();
+                operationStats.responseTime.recordNanos(System.nanoTime() - due);
+            }
+        } finally {
+            completed.incrementAndGet();
+        }
+    }
+
+    private Response send(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url + path).openConnection();
+        connection.setConnectTimeout(TIMEOUT_MS);
+        connection.setReadTimeout(TIMEOUT_MS);
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        // the body is read to the end, so the connection goes back to the keep-alive pool
+        try (InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream()) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            if (in != null) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    content.write(buffer, 0, read);
+                }
+            }
+            return new Response(status, content.toByteArray());
+        }
+    }
+
+    private void report() {
+        double seconds = durationNanos / 1e9;
+        System.out.printf("%n%-8s %9s %7s %9s | %-34s | %-34s%n", "", "", "", "",
+                "response time, ms", "service time, ms");
+        System.out.printf("%-8s %9s %7s %9s | %8s %8s %8s %8s | %8s %8s %8s %8s%n", "", "requests", "errors", "req/s",
+                "p50", "p99", "p99.9", "max", "p50", "p99", "p99.9", "max");
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            LatencySnapshot response = entry.getValue().responseTime.snapshot();
+            LatencySnapshot service = entry.getValue().serviceTime.snapshot();
+            if (response.getCount() == 0) {
+                continue;
+            }
+            System.out.printf("%-8s %9d %7d %9.1f | %8.2f %8.2f %8.2f %8.2f | %8.2f %8.2f %8.2f %8.2f%n",
+                    entry.getKey().name().toLowerCase(), response.getCount(), entry.getValue().errors.sum(),
+                    response.getCount() / seconds,
+                    millis(response.getP50()), millis(response.getP99()), millis(response.getP999()), millis(response.getMax()),
+                    millis(service.getP50()), millis(service.getP99()), millis(service.getP999()), millis(service.getMax()));
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Request {
+        private final Operation operation;
+        private final String method;
+        private final String path;
+        private final String body;
+
+        private Request(Operation operation, String method, String path, String body) {
+            this.operation = operation;
+            this.method = method;
+            this.path = path;
+            this.body = body;
+        }
+    }
+
+    private static final class Response {
+        private final int status;
+        private final byte[] body;
+
+        private Response(int status, byte[] body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private static final class OperationStats {
+        private final LatencyHistogram responseTime = new LatencyHistogram();
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,126 @@
+package com.game.tools;
+
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.service.PlayerService;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic players. Every player is derived from the seed and its index alone, so a dataset is the same
+ * whatever the number of threads generating it.
+ * <p>
+ * Races and professions follow fixed weights, experience is log-normal with a median of 60 000 like the
+ * hand-written players, birthdays are uniform over 2000-2010. Names and titles are made of Cyrillic syllables
+ * and words, within the lengths accepted by {@link com.game.service.PlayerValidationService}, and never
+ * contain separators or quotes.
+ */
+public final class PlayerGenerator {
+    private static final Race[] RACES = {Race.HUMAN, Race.ELF, Race.DWARF, Race.ORC, Race.HOBBIT, Race.TROLL, Race.GIANT};
+    private static final int[] RACE_WEIGHTS = cumulative(30, 18, 14, 14, 10, 8, 6);
+    private static final Profession[] PROFESSIONS = {Profession.WARRIOR, Profession.ROGUE, Profession.SORCERER,
+            Profession.CLERIC, Profession.PALADIN, Profession.DRUID, Profession.WARLOCK, Profession.NAZGUL};
+    private static final int[] PROFESSION_WEIGHTS = cumulative(22, 16, 14, 12, 10, 10, 10, 6);
+
+    private static final String[] SYLLABLES = {"а", "ар", "бэ", "вин", "га", "дор", "ил", "ка", "лан", "ми", "нор",
+            "о", "рик", "са", "тал", "ун", "фа", "хел", "эль", "эн", "ор", "ус", "ан", "ри", "то", "ла", "зар", "мир"};
+    private static final String[] ADJECTIVES = {"Темный", "Светлый", "Быстрый", "Тихий", "Мудрый", "Храбрый",
+            "Хитрый", "Древний", "Юный", "Северный", "Южный", "Дикий", "Верный", "Грозный", "Смелый"};
+    private static final String[] NOUNS = {"Странник", "Охотник", "Страж", "Целитель", "Воин", "Маг", "Следопыт",
+            "Кузнец", "Рыцарь", "Бард", "Отшельник", "Вождь", "Лучник", "Алхимик", "Мечник", "Скиталец"};
+    private static final String[] PLACES = {"Леса", "Гор", "Севера", "Бронкса", "Болот", "Пустошей", "Долины", "Башни"};
+
+    private static final double EXPERIENCE_MU = Math.log(60_000);
+    private static final double EXPERIENCE_SIGMA = 1.3;
+    private static final int MAX_EXPERIENCE = 10_000_000;
+    private static final LocalDate FIRST_BIRTHDAY = LocalDate.of(2000, 1, 1);
+    private static final int BIRTHDAY_DAYS = (int) (LocalDate.of(2011, 1, 1).toEpochDay() - FIRST_BIRTHDAY.toEpochDay());
+
+    private final long seed;
+    private final double bannedRatio;
+
+    /**
+     * @param seed        seed of the dataset
+     * @param bannedRatio share of the banned players
+     */
+    public PlayerGenerator(long seed, double bannedRatio) {
+        this.seed = seed;
+        this.bannedRatio = bannedRatio;
+    }
+
+    /**
+     * @param index position of the player in the dataset
+     * @return the player without an id
+     */
+    public Player generate(long index) {
+        SplittableRandom random = new SplittableRandom(mix(seed ^ mix(index)));
+        Player player = new Player();
+        player.setName(name(random));
+        player.setTitle(title(random));
+        player.setRace(RACES[pick(random, RACE_WEIGHTS)]);
+        player.setProfession(PROFESSIONS[pick(random, PROFESSION_WEIGHTS)]);
+        LocalDate birthday = FIRST_BIRTHDAY.plusDays(random.nextInt(BIRTHDAY_DAYS));
+        player.setBirthday(Date.from(birthday.atStartOfDay(ZoneOffset.UTC).toInstant()));
+        player.setBanned(random.nextDouble() < bannedRatio);
+        PlayerService.applyExperience(player, experience(random));
+        return player;
+    }
+
+    private static String name(SplittableRandom random) {
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.length() > 12 ? name.substring(0, 12) : name.toString();
+    }
+
+    private static String title(SplittableRandom random) {
+        String noun = NOUNS[random.nextInt(NOUNS.length)];
+        switch (random.nextInt(3)) {
+            case 0:
+                return noun;
+            case 1:
+                return ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + noun;
+            default:
+                return noun + " " + PLACES[random.nextInt(PLACES.length)];
+        }
+    }
+
+    private static int experience(SplittableRandom random) {
+        // Box-Muller, SplittableRandom has no nextGaussian on Java 8
+        double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+        double experience = Math.exp(EXPERIENCE_MU + EXPERIENCE_SIGMA * gaussian);
+        return (int) Math.min(MAX_EXPERIENCE, experience);
+    }
+
+    private static int pick(SplittableRandom random, int[] cumulativeWeights) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = 0;
+        while (value >= cumulativeWeights[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int[] cumulative(int... weights) {
+        int[] result = new int[weights.length];
+        int sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            result[i] = sum;
+        }
+        return result;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}